@@ -0,0 +1,277 @@
+package com.axlabs.neo.grantshares.codegen;
+
+import io.neow3j.protocol.ObjectMapperFactory;
+import io.neow3j.protocol.core.response.ContractManifest;
+import io.neow3j.protocol.core.response.ContractManifest.ContractABI.ContractMethod;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.ContractParameterType;
+
+import javax.lang.model.SourceVersion;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a typed client class for each contract manifest in a directory.
+ * <p>
+ * Usage: {@code ClientGenerator <manifest-dir> <output-dir> <package>}
+ * <p>
+ * The client of a contract named {@code X} is called {@code XClient} and extends {@code SmartContract}. It has a
+ * constant with the name of each contract method, e.g., {@code GET_PROPOSAL} for {@code getProposal}, and one Java
+ * method per contract method. Safe methods are invoked with {@code invokefunction} and return their decoded return
+ * value. All other methods return a {@code TransactionBuilder}. Parameters of primitive types are encoded by the
+ * client, while array, map and any parameters are passed as {@code ContractParameter}. Methods starting with an
+ * underscore, like {@code _deploy}, are skipped.
+ */
+public class ClientGenerator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: ClientGenerator <manifest-dir> <output-dir> <package>");
+            System.exit(1);
+        }
+        Path outputDir = Paths.get(args[1]).resolve(args[2].replace('.', '/'));
+        Files.createDirectories(outputDir);
+        try (DirectoryStream<Path> manifests = Files.newDirectoryStream(Paths.get(args[0]), "*.manifest.json")) {
+            for (Path file : manifests) {
+                ContractManifest manifest = ObjectMapperFactory.getObjectMapper()
+                        .readValue(file.toFile(), ContractManifest.class);
+                String className = manifest.getName() + "Client";
+                String source = generate(args[2], className, file.getFileName().toString(), manifest);
+                Files.write(outputDir.resolve(className + ".java"), source.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    static String generate(String packageName, String className, String manifestFile, ContractManifest manifest) {
+        StringBuilder b = new StringBuilder();
+        b.append("package ").append(packageName).append(";\n\n");
+        b.append("import io.neow3j.contract.SmartContract;\n");
+        b.append("import io.neow3j.crypto.ECKeyPair.ECPublicKey;\n");
+        b.append("import io.neow3j.protocol.Neow3j;\n");
+        b.append("import io.neow3j.protocol.core.response.InvocationResult;\n");
+        b.append("import io.neow3j.protocol.core.stackitem.StackItem;\n");
+        b.append("import io.neow3j.transaction.TransactionBuilder;\n");
+        b.append("import io.neow3j.types.ContractParameter;\n");
+        b.append("import io.neow3j.types.Hash160;\n");
+        b.append("import io.neow3j.types.Hash256;\n");
+        b.append("import io.neow3j.utils.ArrayUtils;\n\n");
+        b.append("import java.io.IOException;\n");
+        b.append("import java.math.BigInteger;\n");
+        b.append("import java.util.List;\n");
+        b.append("import java.util.Map;\n\n");
+        b.append("import static io.neow3j.types.ContractParameter.bool;\n");
+        b.append("import static io.neow3j.types.ContractParameter.byteArray;\n");
+        b.append("import static io.neow3j.types.ContractParameter.hash160;\n");
+        b.append("import static io.neow3j.types.ContractParameter.hash256;\n");
+        b.append("import static io.neow3j.types.ContractParameter.integer;\n");
+        b.append("import static io.neow3j.types.ContractParameter.publicKey;\n");
+        b.append("import static io.neow3j.types.ContractParameter.signature;\n");
+        b.append("import static io.neow3j.types.ContractParameter.string;\n");
+        b.append("import static java.util.Arrays.asList;\n\n");
+        b.append("/**\n");
+        b.append(" * Client of the ").append(manifest.getName()).append(" contract. Generated from ")
+                .append(manifestFile).append(". Don't edit.\n");
+        b.append(" */\n");
+        b.append("@SuppressWarnings(\"unused\")\n");
+        b.append("public class ").append(className).append(" extends SmartContract {\n\n");
+
+        List<ContractMethod> methods = manifest.getAbi().getMethods();
+        Set<String> names = new TreeSet<>();
+        for (ContractMethod m : methods) {
+            if (!m.getName().startsWith("_")) {
+                names.add(m.getName());
+            }
+        }
+        for (String name : names) {
+            b.append("    public static final String ").append(toConstantName(name)).append(" = \"").append(name)
+                    .append("\";\n");
+        }
+        b.append("\n");
+        b.append("    public ").append(className).append("(Hash160 scriptHash, Neow3j neow3j) {\n");
+        b.append("        super(scriptHash, neow3j);\n");
+        b.append("    }\n");
+
+        for (ContractMethod m : methods) {
+            if (m.getName().startsWith("_")) {
+                continue;
+            }
+            b.append("\n");
+            b.append(m.isSafe() ? generateSafeMethod(m) : generateMethod(m));
+        }
+
+        b.append("\n");
+        b.append("    private StackItem call(String method, ContractParameter... params) throws IOException {\n");
+        b.append("        return callInvokeFunction(method, asList(params)).getInvocationResult()\n");
+        b.append("                .getStack().get(0);\n");
+        b.append("    }\n\n");
+        b.append("}\n");
+        return b.toString();
+    }
+
+    private static String generateSafeMethod(ContractMethod m) {
+        ContractParameterType type = m.getReturnType();
+        String params = "(" + String.join(", ", encodedParameters(m)) + ")";
+        String args = encodedParameters(m).isEmpty() ? "" : ", " + String.join(", ", encodedParameters(m));
+        StringBuilder b = new StringBuilder();
+        b.append("    public ").append(javaReturnType(type)).append(" ").append(m.getName())
+                .append(declaredParameters(m)).append(" throws IOException {\n");
+        if (type == ContractParameterType.INTEROP_INTERFACE) {
+            // Iterators are traversed in the RPC session of the invocation result.
+            b.append("        return callInvokeFunction(").append(toConstantName(m.getName()))
+                    .append(", asList").append(params).append(").getInvocationResult();\n");
+        } else if (type == ContractParameterType.VOID) {
+            b.append("        call(").append(toConstantName(m.getName())).append(args).append(");\n");
+        } else {
+            b.append("        StackItem item = call(").append(toConstantName(m.getName())).append(args)
+                    .append(");\n");
+            b.append("        return ").append(decoder(type)).append(";\n");
+        }
+        b.append("    }\n");
+        return b.toString();
+    }
+
+    private static String generateMethod(ContractMethod m) {
+        String args = encodedParameters(m).isEmpty() ? "" : ", " + String.join(", ", encodedParameters(m));
+        return "    public TransactionBuilder " + m.getName() + declaredParameters(m) + " {\n"
+                + "        return invokeFunction(" + toConstantName(m.getName()) + args + ");\n"
+                + "    }\n";
+    }
+
+    private static String declaredParameters(ContractMethod m) {
+        StringBuilder b = new StringBuilder("(");
+        for (ContractParameter p : m.getParameters()) {
+            if (b.length() > 1) {
+                b.append(", ");
+            }
+            b.append(javaParameterType(p.getType())).append(" ").append(parameterName(p));
+        }
+        return b.append(")").toString();
+    }
+
+    private static List<String> encodedParameters(ContractMethod m) {
+        List<String> encoded = new ArrayList<>();
+        for (ContractParameter p : m.getParameters()) {
+            encoded.add(encoder(p.getType(), parameterName(p)));
+        }
+        return encoded;
+    }
+
+    private static String parameterName(ContractParameter p) {
+        return SourceVersion.isKeyword(p.getName()) ? p.getName() + "_" : p.getName();
+    }
+
+    private static String javaParameterType(ContractParameterType type) {
+        switch (type) {
+            case BOOLEAN:
+                return "boolean";
+            case INTEGER:
+                return "BigInteger";
+            case STRING:
+                return "String";
+            case HASH160:
+                return "Hash160";
+            case HASH256:
+                return "Hash256";
+            case BYTE_ARRAY:
+            case SIGNATURE:
+                return "byte[]";
+            case PUBLIC_KEY:
+                return "ECPublicKey";
+            default:
+                return "ContractParameter";
+        }
+    }
+
+    private static String encoder(ContractParameterType type, String name) {
+        switch (type) {
+            case BOOLEAN:
+                return "bool(" + name + ")";
+            case INTEGER:
+                return "integer(" + name + ")";
+            case STRING:
+                return "string(" + name + ")";
+            case HASH160:
+                return "hash160(" + name + ")";
+            case HASH256:
+                return "hash256(" + name + ")";
+            case BYTE_ARRAY:
+                return "byteArray(" + name + ")";
+            case SIGNATURE:
+                return "signature(" + name + ")";
+            case PUBLIC_KEY:
+                return "publicKey(" + name + ".getEncoded(true))";
+            default:
+                return name;
+        }
+    }
+
+    private static String javaReturnType(ContractParameterType type) {
+        switch (type) {
+            case VOID:
+                return "void";
+            case BOOLEAN:
+                return "boolean";
+            case INTEGER:
+                return "BigInteger";
+            case STRING:
+                return "String";
+            case HASH160:
+                return "Hash160";
+            case HASH256:
+                return "Hash256";
+            case BYTE_ARRAY:
+            case SIGNATURE:
+                return "byte[]";
+            case PUBLIC_KEY:
+                return "ECPublicKey";
+            case ARRAY:
+                return "List<StackItem>";
+            case MAP:
+                return "Map<StackItem, StackItem>";
+            case INTEROP_INTERFACE:
+                return "InvocationResult";
+            default:
+                return "StackItem";
+        }
+    }
+
+    private static String decoder(ContractParameterType type) {
+        switch (type) {
+            case BOOLEAN:
+                return "item.getBoolean()";
+            case INTEGER:
+                return "item.getInteger()";
+            case STRING:
+                return "item.getValue() == null ? null : item.getString()";
+            case HASH160:
+                return "item.getValue() == null ? null : Hash160.fromAddress(item.getAddress())";
+            case HASH256:
+                return "item.getValue() == null ? null : new Hash256(ArrayUtils.reverseArray(item.getByteArray()))";
+            case BYTE_ARRAY:
+            case SIGNATURE:
+                return "item.getValue() == null ? null : item.getByteArray()";
+            case PUBLIC_KEY:
+                return "item.getValue() == null ? null : new ECPublicKey(item.getByteArray())";
+            case ARRAY:
+                return "item.getValue() == null ? null : item.getList()";
+            case MAP:
+                return "item.getValue() == null ? null : item.getMap()";
+            default:
+                return "item";
+        }
+    }
+
+    // E.g., getProposalCount -> GET_PROPOSAL_COUNT
+    static String toConstantName(String methodName) {
+        return methodName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.axlabs.neo.grantshares.codegen;
+
+import io.neow3j.compiler.CompilationUnit;
+import io.neow3j.compiler.Compiler;
+import io.neow3j.protocol.ObjectMapperFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compiles contracts and writes their manifests to a directory.
+ * <p>
+ * Usage: {@code ManifestCompiler <output-dir> <contract-class>...}
+ */
+public class ManifestCompiler {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: ManifestCompiler <output-dir> <contract-class>...");
+            System.exit(1);
+        }
+        Path outputDir = Paths.get(args[0]);
+        Files.createDirectories(outputDir);
+        for (int i = 1; i < args.length; i++) {
+            CompilationUnit unit = new Compiler().compile(args[i]);
+            Path file = outputDir.resolve(unit.getManifest().getName() + ".manifest.json");
+            Files.write(file, ObjectMapperFactory.getObjectMapper().writeValueAsBytes(unit.getManifest()));
+        }
+    }
+
+}
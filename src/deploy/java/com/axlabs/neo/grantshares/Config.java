@@ -13,6 +13,7 @@ public class Config {
     private static final String PROPS_FILE = "deploy.properties";
     private static String profile = null;
     private static Properties props;
+    private static Neow3j neow3j;
 
     public static void setProfile(String profileName) {
         profile = profileName;
@@ -37,8 +38,12 @@ public class Config {
         return Long.valueOf(getProperty(name));
     }
 
+    // Shared, so that all transactions are awaited by the same TransactionAwaiter.
     public static Neow3j getNeow3j() {
-        return Neow3j.build(new HttpService(getProperty("node")));
+        if (neow3j == null) {
+            neow3j = Neow3j.build(new HttpService(getProperty("node")));
+        }
+        return neow3j;
     }
 
     public static Hash160 getGrantSharesGovHash() {
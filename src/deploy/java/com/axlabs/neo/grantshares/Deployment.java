@@ -1,5 +1,6 @@
 package com.axlabs.neo.grantshares;
 
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
 import io.neow3j.compiler.CompilationUnit;
 import io.neow3j.compiler.Compiler;
 import io.neow3j.contract.ContractManagement;
@@ -10,7 +11,6 @@ import io.neow3j.transaction.TransactionBuilder;
 import io.neow3j.types.Hash160;
 import io.neow3j.types.Hash256;
 import io.neow3j.types.NeoVMStateType;
-import io.neow3j.utils.Await;
 
 import static com.axlabs.neo.grantshares.Config.getNeow3j;
 
@@ -33,7 +33,7 @@ public class Deployment {
 
         Hash256 txHash = builder.sign().send().getSendRawTransaction().getHash();
         System.out.println("GrantSharesGov Deploy Transaction Hash: " + txHash.toString());
-        Await.waitUntilTransactionIsExecuted(txHash, getNeow3j());
+        TransactionAwaiter.of(getNeow3j()).waitUntilExecuted(txHash);
 
         NeoApplicationLog log = getNeow3j().getApplicationLog(txHash).send().getApplicationLog();
         if (log.getExecutions().get(0).getState().equals(NeoVMStateType.FAULT)) {
@@ -55,7 +55,7 @@ public class Deployment {
 
         Hash256 txHash = builder.sign().send().getSendRawTransaction().getHash();
         System.out.println("GrantSharesTreasury Deploy Transaction Hash: " + txHash.toString());
-        Await.waitUntilTransactionIsExecuted(txHash, getNeow3j());
+        TransactionAwaiter.of(getNeow3j()).waitUntilExecuted(txHash);
 
         NeoApplicationLog log = getNeow3j().getApplicationLog(txHash).send().getApplicationLog();
         if (log.getExecutions().get(0).getState().equals(NeoVMStateType.FAULT)) {
@@ -3,6 +3,7 @@ package com.axlabs.neo.grantshares;
 import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
 import com.axlabs.neo.grantshares.util.GrantSharesTreasuryContract;
 import com.axlabs.neo.grantshares.util.IntentParam;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
 import io.neow3j.compiler.CompilationUnit;
 import io.neow3j.compiler.Compiler;
 import io.neow3j.contract.GasToken;
@@ -14,7 +15,6 @@ import io.neow3j.transaction.TransactionBuilder;
 import io.neow3j.types.ContractParameter;
 import io.neow3j.types.Hash160;
 import io.neow3j.types.Hash256;
-import io.neow3j.utils.Await;
 import io.neow3j.utils.Numeric;
 import io.neow3j.wallet.Account;
 
@@ -107,7 +107,7 @@ public class Invocations {
         }
         Hash256 tx = b.sign().send().getSendRawTransaction().getHash();
         System.out.println("Transaction Hash: " + tx);
-        Await.waitUntilTransactionIsExecuted(tx, getNeow3j());
+        TransactionAwaiter.of(getNeow3j()).waitUntilExecuted(tx);
         return getNeow3j().getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0);
     }
 
@@ -0,0 +1,298 @@
+package com.axlabs.neo.grantshares.indexer;
+
+import com.axlabs.neo.grantshares.GrantSharesGov;
+import com.axlabs.neo.grantshares.GrantSharesTreasury;
+import com.axlabs.neo.grantshares.util.StorageReader;
+import io.neow3j.contract.ContractManagement;
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.core.response.NeoApplicationLog;
+import io.neow3j.protocol.core.response.NeoBlock;
+import io.neow3j.protocol.core.response.Transaction;
+import io.neow3j.protocol.core.stackitem.StackItem;
+import io.neow3j.types.Hash160;
+import io.neow3j.types.NeoVMStateType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materializes the state of the GrantSharesGov and GrantSharesTreasury contracts from their events.
+ * <p>
+ * {@link #catchUp()} walks all blocks from the last checkpoint up to the current chain height, reads the application
+ * logs of their transactions and applies the notifications of the two contracts to the {@link IndexerState}. The state
+ * is checkpointed every {@code checkpointInterval} blocks and after the last block, so that after a crash at most the
+ * blocks since the last checkpoint are indexed again. If indexing fails, the changes since the last checkpoint are
+ * rolled back, so that a partially indexed block is not applied twice by the next call.
+ * <p>
+ * Values that are only ever overwritten by events (members, parameters, paused state, funders, whitelisted tokens and
+ * the tokens of vesting schedules) are read from the contract storage at the state root of the block before the start
+ * block, so that the events of the start block are applied to the state they were emitted on. A contract that is
+ * deployed in an indexed block is read at the state root of that block instead, because the values set on deployment
+ * are not announced by events. Proposals and token amounts are only built from events, i.e., proposals created and
+ * tokens moved before the start block are not indexed. The start block must be 0 or a block after the deployment of
+ * both contracts, and the RPC node needs the StateService plugin.
+ */
+public class EventIndexer implements Closeable {
+
+    private final Neow3j neow3j;
+    private final Hash160 gov;
+    private final Hash160 treasury;
+    private final StateStore store;
+    private final int checkpointInterval;
+    private final IndexerState state;
+
+    public EventIndexer(Neow3j neow3j, Hash160 gov, Hash160 treasury, StateStore store, long startBlock,
+            int checkpointInterval) {
+        this.neow3j = neow3j;
+        this.gov = gov;
+        this.treasury = treasury;
+        this.store = store;
+        this.checkpointInterval = checkpointInterval;
+        this.state = store.load(startBlock);
+    }
+
+    public IndexerState getState() {
+        return state;
+    }
+
+    /**
+     * Indexes all blocks from the last checkpoint up to the latest block.
+     *
+     * @return the number of indexed blocks.
+     * @throws IOException if an RPC call fails.
+     */
+    public long catchUp() throws IOException {
+        try {
+            return indexNewBlocks();
+        } catch (IOException | RuntimeException e) {
+            store.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the underlying store. Changes since the last checkpoint are discarded.
+     */
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    private long indexNewBlocks() throws IOException {
+        if (!state.isSeeded()) {
+            seed();
+            store.checkpoint();
+        }
+        long height = neow3j.getBlockCount().send().getBlockCount().longValue();
+        long start = state.getNextBlock();
+        long next = start;
+        while (next < height) {
+            indexBlock(next);
+            state.setNextBlock(++next);
+            if ((next - start) % checkpointInterval == 0) {
+                store.checkpoint();
+            }
+        }
+        if (next > start) {
+            store.checkpoint();
+        }
+        return next - start;
+    }
+
+    // Reads the values before the start block. Nothing is deployed before the genesis block.
+    private void seed() throws IOException {
+        if (state.getNextBlock() > 0) {
+            StorageReader storage = StorageReader.atBlock(neow3j, state.getNextBlock() - 1);
+            seedGov(storage);
+            seedTreasury(storage);
+        }
+        state.setSeeded(true);
+    }
+
+    private void seedGov(StorageReader storage) throws IOException {
+        state.members.clear();
+        for (StorageReader.Entry e : storage.find(gov, GrantSharesGov.MEMBERS_MAP_PREFIX)) {
+            state.members.add(Hash160.fromPublicKey(e.value).toAddress());
+        }
+        state.parameters.clear();
+        for (StorageReader.Entry e : storage.find(gov, GrantSharesGov.PARAMETERS_MAP_PREFIX)) {
+            state.parameters.put(new String(e.key, StandardCharsets.UTF_8), StorageReader.toInteger(e.value));
+        }
+        state.setPaused(storage.find(gov, GrantSharesGov.PAUSED_KEY).stream()
+                .anyMatch(e -> e.key.length == 0 && StorageReader.toInteger(e.value).signum() != 0));
+    }
+
+    private void seedTreasury(StorageReader storage) throws IOException {
+        state.funders.clear();
+        for (StorageReader.Entry e : storage.find(treasury, GrantSharesTreasury.FUNDERS_PREFIX)) {
+            state.funders.add(StorageReader.toHash160(e.key).toAddress());
+        }
+        state.whitelistedTokens.clear();
+        for (StorageReader.Entry e : storage.find(treasury, GrantSharesTreasury.WHITELISTED_TOKENS_PREFIX)) {
+            state.whitelistedTokens.put(StorageReader.toHash160(e.key).toAddress(), StorageReader.toInteger(e.value));
+        }
+        state.vestingScheduleTokens.clear();
+        for (StorageReader.Entry e : storage.find(treasury, GrantSharesTreasury.VESTING_SCHEDULES_PREFIX)) {
+            byte[] token = StorageReader.deserialize(e.value).getList().get(0).getByteArray();
+            state.vestingScheduleTokens.put(StorageReader.toInteger(e.key).intValue(),
+                    StorageReader.toHash160(token).toAddress());
+        }
+    }
+
+    private void indexBlock(long index) throws IOException {
+        NeoBlock block = neow3j.getBlock(BigInteger.valueOf(index), true).send().getBlock();
+        if (block.getTransactions() == null) {
+            return;
+        }
+        for (Transaction tx : block.getTransactions()) {
+            NeoApplicationLog log = neow3j.getApplicationLog(tx.getHash()).send().getApplicationLog();
+            for (NeoApplicationLog.Execution execution : log.getExecutions()) {
+                if (execution.getState() == NeoVMStateType.HALT) {
+                    indexExecution(execution, index);
+                }
+            }
+        }
+    }
+
+    private void indexExecution(NeoApplicationLog.Execution execution, long block) throws IOException {
+        boolean draining = false;
+        Map<String, BigInteger> transfersFromTreasury = new HashMap<>();
+        for (NeoApplicationLog.Execution.Notification n : execution.getNotifications()) {
+            List<StackItem> args = n.getState().getList();
+            if (n.getContract().equals(gov)) {
+                applyGovEvent(n.getEventName(), args, block);
+            } else if (n.getContract().equals(treasury)) {
+                applyTreasuryEvent(n.getEventName(), args);
+                draining |= n.getEventName().equals("DrainedTokens")
+                        || n.getEventName().equals("DrainBatchProcessed");
+            } else if (n.getContract().equals(ContractManagement.SCRIPT_HASH)) {
+                if (n.getEventName().equals("Deploy")) {
+                    seedDeployed(Hash160.fromAddress(args.get(0).getAddress()), block);
+                }
+            } else if (n.getEventName().equals("Transfer") && args.size() == 3 && isTreasury(args.get(0))) {
+                transfersFromTreasury.merge(n.getContract().toAddress(), args.get(2).getInteger(), BigInteger::add);
+            }
+        }
+        // The drain events don't carry the amounts. They are taken from the token transfers of the same execution.
+        if (draining) {
+            transfersFromTreasury.forEach((token, amount) -> state.drainedAmounts.merge(token, amount,
+                    BigInteger::add));
+        }
+    }
+
+    private void seedDeployed(Hash160 contract, long block) throws IOException {
+        if (contract.equals(gov)) {
+            seedGov(StorageReader.atBlock(neow3j, block));
+        } else if (contract.equals(treasury)) {
+            seedTreasury(StorageReader.atBlock(neow3j, block));
+        }
+    }
+
+    private boolean isTreasury(StackItem item) {
+        return item.getValue() != null && item.getAddress().equals(treasury.toAddress());
+    }
+
+    private void applyGovEvent(String event, List<StackItem> args, long block) {
+        IndexedProposal p;
+        switch (event) {
+            case "ProposalCreated":
+                int id = args.get(0).getInteger().intValue();
+                state.proposals.put(id, new IndexedProposal(id, args.get(1).getAddress(),
+                        args.get(2).getInteger().intValue(), args.get(3).getInteger().intValue(), block));
+                break;
+            case "ProposalEndorsed":
+                p = state.proposals.get(args.get(0).getInteger().intValue());
+                if (p != null) {
+                    p.endorser = args.get(1).getAddress();
+                    p.endorsedAtBlock = block;
+                    state.proposals.put(p.id, p);
+                }
+                break;
+            case "Voted":
+                p = state.proposals.get(args.get(0).getInteger().intValue());
+                if (p != null) {
+                    int vote = args.get(2).getInteger().intValue();
+                    p.votes.put(args.get(1).getAddress(), vote);
+                    if (vote < 0) {
+                        p.reject++;
+                    } else if (vote > 0) {
+                        p.approve++;
+                    } else {
+                        p.abstain++;
+                    }
+                    state.proposals.put(p.id, p);
+                }
+                break;
+            case "ProposalExecuted":
+                p = state.proposals.get(args.get(0).getInteger().intValue());
+                if (p != null) {
+                    p.executed = true;
+                    p.executedAtBlock = block;
+                    state.proposals.put(p.id, p);
+                }
+                break;
+            case "MemberAdded":
+                state.members.add(args.get(0).getAddress());
+                break;
+            case "MemberRemoved":
+                state.members.remove(args.get(0).getAddress());
+                break;
+            case "ParameterChanged":
+                state.parameters.put(args.get(0).getString(), args.get(1).getInteger());
+                break;
+            case "ContractPaused":
+                state.setPaused(true);
+                break;
+            case "ContractUnpaused":
+                state.setPaused(false);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void applyTreasuryEvent(String event, List<StackItem> args) {
+        switch (event) {
+            case "FunderAdded":
+                state.funders.add(args.get(0).getAddress());
+                break;
+            case "FunderRemoved":
+                state.funders.remove(args.get(0).getAddress());
+                break;
+            case "WhitelistedTokenAdded":
+            case "WhitelistedTokenMigrated":
+                state.whitelistedTokens.put(args.get(0).getAddress(), args.get(1).getInteger());
+                break;
+            case "WhitelistedTokenRemoved":
+                state.whitelistedTokens.remove(args.get(0).getAddress());
+                break;
+            case "TokensReceived":
+                state.receivedAmounts.merge(args.get(2).getAddress(), args.get(1).getInteger(), BigInteger::add);
+                break;
+            case "TokenReleased":
+                state.releasedAmounts.merge(args.get(0).getAddress(), args.get(2).getInteger(), BigInteger::add);
+                break;
+            case "VestingScheduleCreated":
+                state.vestingScheduleTokens.put(args.get(0).getInteger().intValue(), args.get(1).getAddress());
+                break;
+            case "VestingClaimed":
+                String token = state.vestingScheduleTokens.get(args.get(0).getInteger().intValue());
+                if (token != null) {
+                    state.releasedAmounts.merge(token, args.get(2).getInteger(), BigInteger::add);
+                }
+                break;
+            case "BalanceReconciled":
+                state.reconciledAmounts.merge(args.get(0).getAddress(),
+                        args.get(2).getInteger().subtract(args.get(1).getInteger()), BigInteger::add);
+                break;
+            default:
+                break;
+        }
+    }
+
+}
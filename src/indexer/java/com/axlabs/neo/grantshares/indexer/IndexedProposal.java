@@ -0,0 +1,36 @@
+package com.axlabs.neo.grantshares.indexer;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A proposal as materialized from the events of the GrantSharesGov contract. Addresses are stored as Neo addresses.
+ */
+public class IndexedProposal {
+
+    public int id;
+    public String proposer;
+    public int acceptanceRate;
+    public int quorum;
+    public long createdAtBlock;
+    public String endorser;
+    public long endorsedAtBlock = -1;
+    public int approve;
+    public int reject;
+    public int abstain;
+    public Map<String, Integer> votes = new TreeMap<>();
+    public boolean executed;
+    public long executedAtBlock = -1;
+
+    public IndexedProposal() {
+    }
+
+    public IndexedProposal(int id, String proposer, int acceptanceRate, int quorum, long createdAtBlock) {
+        this.id = id;
+        this.proposer = proposer;
+        this.acceptanceRate = acceptanceRate;
+        this.quorum = quorum;
+        this.createdAtBlock = createdAtBlock;
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.axlabs.neo.grantshares.indexer;
+
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.http.HttpService;
+import io.neow3j.types.Hash160;
+
+import java.nio.file.Paths;
+
+/**
+ * Keeps a local copy of the GrantShares state up to date.
+ * <p>
+ * Usage: {@code Indexer <node-url> <gov-hash> <treasury-hash> <data-dir> [start-block]}
+ * <p>
+ * The start block is only used if the data directory doesn't contain a checkpoint yet. Otherwise, indexing resumes
+ * at the block after the last checkpoint.
+ */
+public class Indexer {
+
+    private static final int CHECKPOINT_INTERVAL = 1000;
+    private static final long POLL_INTERVAL_MS = 5000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: Indexer <node-url> <gov-hash> <treasury-hash> <data-dir> [start-block]");
+            System.exit(1);
+        }
+        Neow3j neow3j = Neow3j.build(new HttpService(args[0]));
+        long startBlock = args.length > 4 ? Long.parseLong(args[4]) : 0;
+        EventIndexer indexer = new EventIndexer(neow3j, new Hash160(args[1]), new Hash160(args[2]),
+                new StateStore(Paths.get(args[3])), startBlock, CHECKPOINT_INTERVAL);
+
+        while (true) {
+            long indexed = indexer.catchUp();
+            if (indexed > 0) {
+                IndexerState state = indexer.getState();
+                System.out.printf("Indexed %d blocks up to block %d (%d proposals).\n", indexed,
+                        state.getNextBlock() - 1, state.proposals.size());
+            }
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.axlabs.neo.grantshares.indexer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mapdb.Atomic;
+import org.mapdb.DB;
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+import org.mapdb.Serializer;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The state of the GrantSharesGov and GrantSharesTreasury contracts as materialized from their events, together with
+ * the height of the next block to index. The collections are backed by the {@link StateStore}, so every change is
+ * written to the store entry by entry. Proposals are read as copies, i.e., a changed proposal has to be put back.
+ * Addresses and token hashes are stored as strings.
+ */
+public class IndexerState {
+
+    private final Atomic.Long nextBlock;
+    private final Atomic.Boolean seeded;
+    private final Atomic.Boolean paused;
+
+    // GrantSharesGov
+    public final Map<Integer, IndexedProposal> proposals;
+    public final Set<String> members;
+    public final Map<String, BigInteger> parameters;
+
+    // GrantSharesTreasury
+    public final Set<String> funders;
+    public final Map<String, BigInteger> whitelistedTokens;
+    public final Map<Integer, String> vestingScheduleTokens;
+    public final Map<String, BigInteger> receivedAmounts;
+    // Released with releaseTokens, releaseTokensBatch or claimed from a vesting schedule.
+    public final Map<String, BigInteger> releasedAmounts;
+    public final Map<String, BigInteger> drainedAmounts;
+    // The sum of the corrections of the tracked balances, i.e., the real balance minus the tracked balance.
+    public final Map<String, BigInteger> reconciledAmounts;
+
+    IndexerState(DB db, long startBlock) {
+        nextBlock = db.atomicLong("nextBlock", startBlock).createOrOpen();
+        seeded = db.atomicBoolean("seeded").createOrOpen();
+        paused = db.atomicBoolean("paused").createOrOpen();
+        proposals = db.hashMap("proposals", Serializer.INTEGER, new ProposalSerializer()).createOrOpen();
+        members = db.hashSet("members", Serializer.STRING).createOrOpen();
+        parameters = db.hashMap("parameters", Serializer.STRING, Serializer.BIG_INTEGER).createOrOpen();
+        funders = db.hashSet("funders", Serializer.STRING).createOrOpen();
+        whitelistedTokens = db.hashMap("whitelistedTokens", Serializer.STRING, Serializer.BIG_INTEGER)
+                .createOrOpen();
+        vestingScheduleTokens = db.hashMap("vestingScheduleTokens", Serializer.INTEGER, Serializer.STRING)
+                .createOrOpen();
+        receivedAmounts = db.hashMap("receivedAmounts", Serializer.STRING, Serializer.BIG_INTEGER).createOrOpen();
+        releasedAmounts = db.hashMap("releasedAmounts", Serializer.STRING, Serializer.BIG_INTEGER).createOrOpen();
+        drainedAmounts = db.hashMap("drainedAmounts", Serializer.STRING, Serializer.BIG_INTEGER).createOrOpen();
+        reconciledAmounts = db.hashMap("reconciledAmounts", Serializer.STRING, Serializer.BIG_INTEGER)
+                .createOrOpen();
+    }
+
+    /**
+     * @return the index of the next block that has to be indexed. All blocks below have been applied to this state.
+     */
+    public long getNextBlock() {
+        return nextBlock.get();
+    }
+
+    void setNextBlock(long block) {
+        nextBlock.set(block);
+    }
+
+    /**
+     * Tells if the members, parameters, paused state, funders, whitelisted tokens and tokens of the vesting schedules
+     * were read from the contract storage at the state root of the block before the start block. The events of the
+     * indexed blocks are applied on top of these values.
+     *
+     * @return true if the state was seeded.
+     */
+    public boolean isSeeded() {
+        return seeded.get();
+    }
+
+    void setSeeded(boolean seeded) {
+        this.seeded.set(seeded);
+    }
+
+    public boolean isPaused() {
+        return paused.get();
+    }
+
+    void setPaused(boolean paused) {
+        this.paused.set(paused);
+    }
+
+    // Writes proposals as JSON, so that fields can be added to IndexedProposal without migrating existing stores.
+    private static class ProposalSerializer implements Serializer<IndexedProposal> {
+
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+
+        @Override
+        public void serialize(DataOutput2 out, IndexedProposal value) throws IOException {
+            byte[] json = MAPPER.writeValueAsBytes(value);
+            out.packInt(json.length);
+            out.write(json);
+        }
+
+        @Override
+        public IndexedProposal deserialize(DataInput2 in, int available) throws IOException {
+            byte[] json = new byte[in.unpackInt()];
+            in.readFully(json);
+            return MAPPER.readValue(json, IndexedProposal.class);
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.axlabs.neo.grantshares.indexer;
+
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Stores the {@link IndexerState} in a transactional MapDB file. Changes to the state are written per entry and become
+ * durable with {@link #checkpoint()}, which commits them together with the height of the next block to index. The
+ * changes since the last checkpoint are discarded on a crash or with {@link #rollback()}, i.e., indexing resumes at the
+ * block after the last checkpoint on the state of that checkpoint.
+ */
+public class StateStore implements Closeable {
+
+    private static final String STATE_FILE = "state.db";
+
+    private final DB db;
+
+    public StateStore(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.db = DBMaker.fileDB(directory.resolve(STATE_FILE).toFile()).transactionEnable().make();
+    }
+
+    /**
+     * Opens the state of the last checkpoint.
+     *
+     * @param startBlock The block to start indexing from if there is no checkpoint yet.
+     * @return the state of the last checkpoint.
+     */
+    public IndexerState load(long startBlock) {
+        return new IndexerState(db, startBlock);
+    }
+
+    /**
+     * Commits all changes to the state since the last checkpoint.
+     */
+    public void checkpoint() {
+        db.commit();
+    }
+
+    /**
+     * Discards all changes to the state since the last checkpoint.
+     */
+    public void rollback() {
+        db.rollback();
+    }
+
+    @Override
+    public void close() {
+        db.close();
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.axlabs.neo.grantshares;
+
+import com.axlabs.neo.grantshares.indexer.EventIndexer;
+import com.axlabs.neo.grantshares.indexer.IndexedProposal;
+import com.axlabs.neo.grantshares.indexer.IndexerState;
+import com.axlabs.neo.grantshares.indexer.StateStore;
+import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
+import com.axlabs.neo.grantshares.util.GrantSharesTreasuryContract;
+import com.axlabs.neo.grantshares.util.IntentParam;
+import com.axlabs.neo.grantshares.util.ProposalStruct;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
+import io.neow3j.contract.GasToken;
+import io.neow3j.contract.NeoToken;
+import io.neow3j.contract.SmartContract;
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.test.ContractTest;
+import io.neow3j.test.ContractTestExtension;
+import io.neow3j.test.DeployConfig;
+import io.neow3j.test.DeployConfiguration;
+import io.neow3j.test.DeployContext;
+import io.neow3j.transaction.AccountSigner;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.Hash160;
+import io.neow3j.types.Hash256;
+import io.neow3j.wallet.Account;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
+import static com.axlabs.neo.grantshares.util.TestHelper.BOB;
+import static com.axlabs.neo.grantshares.util.TestHelper.CHARLIE;
+import static com.axlabs.neo.grantshares.util.TestHelper.MIN_QUORUM_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.createAndExecuteProposal;
+import static com.axlabs.neo.grantshares.util.TestHelper.prepareDeployParameter;
+import static io.neow3j.types.ContractParameter.array;
+import static io.neow3j.types.ContractParameter.map;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+@ContractTest(contracts = {GrantSharesGov.class, GrantSharesTreasury.class},
+        blockTime = 1, configFile = "default.neo-express", batchFile = "setup.batch")
+public class IndexerTest {
+
+    @RegisterExtension
+    static ContractTestExtension ext = new ContractTestExtension();
+
+    static Neow3j neow3j;
+    static GrantSharesGovContract gov;
+    static GrantSharesTreasuryContract treasury;
+    static Account alice;
+    static Account bob;
+    static Account charlie;
+
+    @DeployConfig(GrantSharesGov.class)
+    public static DeployConfiguration deployConfigGov() throws Exception {
+        DeployConfiguration config = new DeployConfiguration();
+        config.setDeployParam(prepareDeployParameter(ext.getAccount(ALICE), ext.getAccount(CHARLIE)));
+        return config;
+    }
+
+    @DeployConfig(GrantSharesTreasury.class)
+    public static DeployConfiguration deployConfigTreasury(DeployContext ctx) throws Exception {
+        DeployConfiguration config = new DeployConfiguration();
+        SmartContract gov = ctx.getDeployedContract(GrantSharesGov.class);
+        Account bob = ext.getAccount(BOB);
+        ContractParameter funders = array(array(bob.getScriptHash(), array(bob.getECKeyPair().getPublicKey())));
+        Map<Hash160, Integer> tokens = new HashMap<>();
+        tokens.put(NeoToken.SCRIPT_HASH, 100);
+        tokens.put(GasToken.SCRIPT_HASH, 10000);
+        config.setDeployParam(array(gov.getScriptHash(), funders, map(tokens), 50));
+        return config;
+    }
+
+    @BeforeAll
+    public static void setUp() throws Throwable {
+        neow3j = ext.getNeow3j();
+        gov = new GrantSharesGovContract(ext.getDeployedContract(GrantSharesGov.class).getScriptHash(), neow3j);
+        treasury = new GrantSharesTreasuryContract(
+                ext.getDeployedContract(GrantSharesTreasury.class).getScriptHash(), neow3j);
+        alice = ext.getAccount(ALICE);
+        bob = ext.getAccount(BOB);
+        charlie = ext.getAccount(CHARLIE);
+    }
+
+    @Test
+    public void index_events_and_resume_from_checkpoint(@TempDir Path dataDir) throws Throwable {
+        EventIndexer indexer = new EventIndexer(neow3j, gov.getScriptHash(), treasury.getScriptHash(),
+                new StateStore(dataDir), 0, 10);
+        indexer.catchUp();
+        long checkpointedBlock = indexer.getState().getNextBlock();
+        indexer.close();
+
+        Hash256 tx = new GasToken(neow3j).transfer(bob, treasury.getScriptHash(), BigInteger.valueOf(100))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        createAndExecuteProposal(gov, neow3j, ext, alice,
+                array(IntentParam.changeParamProposal(gov.getScriptHash(), MIN_QUORUM_KEY, 60),
+                        IntentParam.createVestingScheduleProposal(treasury.getScriptHash(), GasToken.SCRIPT_HASH,
+                                charlie.getScriptHash(), new BigInteger[]{BigInteger.TEN}, new long[]{0})),
+                "indexer");
+        // The vesting schedule is the first one, i.e., it has id 0.
+        tx = treasury.claim(0).signers(AccountSigner.calledByEntry(charlie)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+
+        // A new indexer on the same data directory resumes at the last checkpoint.
+        indexer = new EventIndexer(neow3j, gov.getScriptHash(), treasury.getScriptHash(),
+                new StateStore(dataDir), 0, 10);
+        assertThat(indexer.getState().getNextBlock(), is(checkpointedBlock));
+        assertThat(indexer.catchUp() > 0, is(true));
+        IndexerState state = indexer.getState();
+
+        assertThat(state.proposals.size(), is(gov.getProposalCount()));
+        for (IndexedProposal indexed : state.proposals.values()) {
+            ProposalStruct p = gov.getProposal(indexed.id);
+            assertThat(indexed.proposer, is(p.proposer.toAddress()));
+            assertThat(indexed.endorser, is(p.endorser.toAddress()));
+            assertThat(indexed.acceptanceRate, is(p.acceptanceRate));
+            assertThat(indexed.quorum, is(p.quorum));
+            assertThat(indexed.approve, is(p.approve));
+            assertThat(indexed.reject, is(p.reject));
+            assertThat(indexed.abstain, is(p.abstain));
+            assertThat(indexed.votes, is(p.voters));
+            assertThat(indexed.executed, is(p.executed));
+        }
+        assertThat(new TreeMap<>(state.parameters), is(gov.getParameters()));
+        assertThat(state.parameters.get(MIN_QUORUM_KEY), is(BigInteger.valueOf(60)));
+        assertThat(new TreeSet<>(state.members), is(new TreeSet<>(asList(alice.getAddress(), charlie.getAddress()))));
+        assertThat(state.isPaused(), is(gov.isPaused()));
+        assertThat(new TreeSet<>(state.funders), is(new TreeSet<>(asList(bob.getAddress()))));
+        assertThat(state.whitelistedTokens.size(), is(2));
+        assertThat(state.receivedAmounts.get(GasToken.SCRIPT_HASH.toAddress()), is(BigInteger.valueOf(100)));
+        assertThat(state.vestingScheduleTokens.get(0), is(GasToken.SCRIPT_HASH.toAddress()));
+        assertThat(state.releasedAmounts.get(GasToken.SCRIPT_HASH.toAddress()), is(BigInteger.TEN));
+
+        // Catching up again only indexes the blocks added since, so votes are not counted twice.
+        indexer.catchUp();
+        assertThat(indexer.getState().proposals.get(0).approve, is(1));
+        indexer.close();
+    }
+
+    @Test
+    public void seed_from_storage_at_start_block(@TempDir Path dataDir) throws Throwable {
+        // Both contracts are deployed before the current block.
+        long startBlock = neow3j.getBlockCount().send().getBlockCount().longValue() - 1;
+        EventIndexer indexer = new EventIndexer(neow3j, gov.getScriptHash(), treasury.getScriptHash(),
+                new StateStore(dataDir), startBlock, 10);
+        indexer.catchUp();
+        IndexerState state = indexer.getState();
+
+        assertThat(state.isSeeded(), is(true));
+        assertThat(new TreeMap<>(state.parameters), is(gov.getParameters()));
+        assertThat(new TreeSet<>(state.members), is(new TreeSet<>(asList(alice.getAddress(), charlie.getAddress()))));
+        assertThat(state.isPaused(), is(gov.isPaused()));
+        assertThat(new TreeSet<>(state.funders), is(new TreeSet<>(asList(bob.getAddress()))));
+        Map<String, BigInteger> whitelistedTokens = new TreeMap<>();
+        treasury.getWhitelistedTokens().forEach((token, max) -> whitelistedTokens.put(token.toAddress(), max));
+        assertThat(new TreeMap<>(state.whitelistedTokens), is(whitelistedTokens));
+        indexer.close();
+    }
+
+}
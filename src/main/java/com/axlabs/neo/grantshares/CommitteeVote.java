@@ -0,0 +1,42 @@
+package com.axlabs.neo.grantshares;
+
+import io.neow3j.devpack.ECPoint;
+import io.neow3j.devpack.Map;
+import io.neow3j.devpack.contracts.NeoToken;
+
+/**
+ * Selects the committee member that the {@link GrantSharesTreasury} votes for with its NEO.
+ */
+public class CommitteeVote {
+
+    /**
+     * Gets the committee member with the least votes. Only the committee members are looked up among the candidates
+     * instead of comparing every candidate with every committee member, and the search stops as soon as all committee
+     * members were found. If several members have the least votes, the one that comes first among the candidates is
+     * selected.
+     *
+     * @param committee  The committee members.
+     * @param candidates The candidates with their votes.
+     * @return the committee member with the least votes or null if none of the members is a candidate.
+     */
+    static ECPoint memberWithLeastVotes(ECPoint[] committee, NeoToken.Candidate[] candidates) {
+        Map<ECPoint, Boolean> isCommitteeMember = new Map<>();
+        for (ECPoint member : committee) {
+            isCommitteeMember.put(member, true);
+        }
+        int leastVotes = 0;
+        ECPoint leastVotesMember = null;
+        int found = 0;
+        for (int i = 0; i < candidates.length && found < committee.length; i++) {
+            NeoToken.Candidate candidate = candidates[i];
+            if (isCommitteeMember.containsKey(candidate.publicKey)) {
+                found++;
+                if (leastVotesMember == null || candidate.votes < leastVotes) {
+                    leastVotesMember = candidate.publicKey;
+                    leastVotes = candidate.votes;
+                }
+            }
+        }
+        return leastVotesMember;
+    }
+}
@@ -23,6 +23,7 @@ import io.neow3j.devpack.annotations.Safe;
 import io.neow3j.devpack.constants.CallFlags;
 import io.neow3j.devpack.constants.FindOptions;
 import io.neow3j.devpack.contracts.ContractManagement;
+import io.neow3j.devpack.contracts.CryptoLib;
 import io.neow3j.devpack.events.Event;
 import io.neow3j.devpack.events.Event1Arg;
 import io.neow3j.devpack.events.Event2Args;
@@ -59,16 +60,74 @@ public class GrantSharesGov {
     static final String MULTI_SIG_THRESHOLD_KEY = "threshold"; // percentage
 
     static final String PROPOSALS_COUNT_KEY = "#_proposals"; //int
-    static final String PAUSED_KEY = "paused"; // boolean
+    public static final String PAUSED_KEY = "paused"; // boolean
     static final String MEMBERS_COUNT_KEY = "#_members"; // int
+    static final String MEMBERS_MULTI_SIG_ACCOUNT_KEY = "members_account"; // Hash160
+    static final String MEMBERS_MULTI_SIG_THRESHOLD_KEY = "members_threshold"; // int
+    static final String MIGRATION_CURSOR_KEY = "migration_cursor"; // int
+    static final String MIGRATION_END_KEY = "migration_end"; // int
+    static final String PHASE_LENGTHS_SNAPSHOT_KEY = "phase_snapshot"; // int
+    static final String TREASURY_KEY = "treasury"; // Hash160
+    static final String STORAGE_VERSION_KEY = "storage_version"; // int
+
+    // The version of the storage layout written by this contract. Storage without a version is from the contract
+    // version before the proposals were split into several storage maps.
+    static final int STORAGE_VERSION = 1;
+
+    // The number of proposals migrated in the update transaction itself. The rest is migrated with migrateBatch.
+    static final int DEPLOY_MIGRATION_BATCH_SIZE = 20;
+    // The maximum number of expired entries removed from the active proposals index when a proposal is created.
+    static final int ACTIVE_PROPOSALS_PRUNE_LIMIT = 10;
+
+    // The phases of active proposals that getActiveProposals can filter by.
+    static final int PHASE_ANY = 0;
+    static final int PHASE_NOT_ENDORSED = 1;
+    static final int PHASE_REVIEW = 2;
+    static final int PHASE_VOTING = 3;
+    static final int PHASE_QUEUED = 4;
+    static final int PHASE_EXECUTABLE = 5;
 
     static final StorageContext ctx = Storage.getStorageContext();
-    static final StorageMap proposals = new StorageMap(ctx, 1); // [int id: Proposal proposal]
-    static final StorageMap proposalData = new StorageMap(ctx, 2); // [int id: ProposalData proposalData]
-    static final StorageMap proposalVotes = new StorageMap(ctx, 3); // [int id: ProposalVotes proposalVotes]
-    static final StorageMap parameters = new StorageMap(ctx, 4); // [String param_key: int param_value ]
-    static final byte MEMBERS_MAP_PREFIX = 5;
+    // The prefixes that are public are also used by the clients that read the storage directly.
+    public static final int PROPOSALS_MAP_PREFIX = 1;
+    static final StorageMap proposals = new StorageMap(ctx, PROPOSALS_MAP_PREFIX); // [int id: Proposal proposal]
+    public static final int PROPOSAL_DATA_MAP_PREFIX = 2;
+    // [int id: ProposalData proposalData]
+    static final StorageMap proposalData = new StorageMap(ctx, PROPOSAL_DATA_MAP_PREFIX);
+    public static final int PROPOSAL_VOTES_MAP_PREFIX = 3;
+    // [int id: ProposalVotes proposalVotes]
+    static final StorageMap proposalVotes = new StorageMap(ctx, PROPOSAL_VOTES_MAP_PREFIX);
+    public static final int PARAMETERS_MAP_PREFIX = 4;
+    // [String param_key: int param_value ]
+    static final StorageMap parameters = new StorageMap(ctx, PARAMETERS_MAP_PREFIX);
+    public static final byte MEMBERS_MAP_PREFIX = 5;
     static final StorageMap members = new StorageMap(ctx, MEMBERS_MAP_PREFIX); // [Hash160 accHash: ECPoint publicKey]
+    public static final byte VOTES_MAP_PREFIX = 6;
+    static final StorageMap votes = new StorageMap(ctx, VOTES_MAP_PREFIX); // [4-byte int id + Hash160 voter: int vote]
+    public static final int PROPOSERS_MAP_PREFIX = 7;
+    static final StorageMap proposers = new StorageMap(ctx, PROPOSERS_MAP_PREFIX); // [int id: Hash160 proposer]
+    static final StorageMap blobs = new StorageMap(ctx, 8); // [ByteString sha256: Hash160 uploader]
+    // [Hash160 uploader + ByteString sha256: int chunkCount]
+    static final StorageMap stagedBlobs = new StorageMap(ctx, 9);
+    // [Hash160 uploader + ByteString sha256 + int index: ByteString chunk]
+    static final StorageMap blobChunks = new StorageMap(ctx, 10);
+    // Proposals that are neither executed nor expired, ordered by their expiration.
+    // [big-endian expiration + 4-byte int id: ByteString expiration and phase ends]
+    static final StorageMap activeProposals = new StorageMap(ctx, 11);
+    // The proposals of each proposer ordered by id. [Hash160 proposer + big-endian int id: int id]
+    static final byte PROPOSER_PROPOSALS_MAP_PREFIX = 12;
+    static final StorageMap proposerProposals = new StorageMap(ctx, PROPOSER_PROPOSALS_MAP_PREFIX);
+    static final StorageMap proposerProposalsCounts = new StorageMap(ctx, 13); // [Hash160 proposer: int count]
+    // The phase length parameters at the time of each of their changes. Endorsed proposals refer to the snapshot
+    // that was current at their endorsement. [int snapshotId: ByteString phaseLengths]
+    public static final int PHASE_LENGTH_SNAPSHOTS_MAP_PREFIX = 14;
+    static final StorageMap phaseLengthSnapshots = new StorageMap(ctx, PHASE_LENGTH_SNAPSHOTS_MAP_PREFIX);
+    public static final int PROPOSAL_INTENTS_MAP_PREFIX = 15;
+    // [int id: Intent[] intents]
+    static final StorageMap proposalIntents = new StorageMap(ctx, PROPOSAL_INTENTS_MAP_PREFIX);
+    public static final int OFFCHAIN_URIS_MAP_PREFIX = 16;
+    // [int id: String offchainUri]
+    static final StorageMap offchainUris = new StorageMap(ctx, OFFCHAIN_URIS_MAP_PREFIX);
     //endregion CONTRACT VARIABLES
 
     //region EVENTS
@@ -94,6 +153,10 @@ public class GrantSharesGov {
     static Event unpaused;
     @DisplayName("ProposalMigrated")
     static Event1Arg<Integer> migrated;
+    @DisplayName("BlobStaged")
+    static Event2Args<ByteString, Hash160> blobStaged;
+    @DisplayName("TreasuryChanged")
+    static Event1Arg<Hash160> treasuryChanged;
     @DisplayName("Error")
     static Event2Args<String, String> error;
     //endregion EVENTS
@@ -144,21 +207,19 @@ public class GrantSharesGov {
             Storage.put(ctx, MEMBERS_COUNT_KEY, pubKeys.length);
             Storage.put(ctx, PAUSED_KEY, 0);
             Storage.put(ctx, PROPOSALS_COUNT_KEY, 0);
+            Storage.put(ctx, STORAGE_VERSION_KEY, STORAGE_VERSION);
+            snapshotPhaseLengths();
+            updateMembersMultiSigAccount();
         } else {
-            // Migrate Storage
-            Iterator<Struct<ByteString, ByteString>> it = proposalData.find(FindOptions.RemovePrefix);
-            while (it.next()) {
-                Struct<ByteString, ByteString> item = it.get();
-                int proposalId = item.key.toInt();
-                ProposalDataOld pd = (ProposalDataOld) deserialize(item.value);
-                List<Intent> newIntents = new List<>();
-                for (IntentOld intent : pd.intents) {
-                    newIntents.add(new Intent(intent.targetContract, intent.method, intent.params, CallFlags.All));
-                }
-                ProposalData pdn = new ProposalData(pd.proposer, pd.linkedProposal, pd.acceptanceRate,
-                        pd.quorum, newIntents.toArray(), pd.offchainUri);
-                proposalData.put(proposalId, serialize(pdn));
-                migrated.fire(proposalId);
+            // Migrate storage if it was written in an older layout. All proposals that exist at this point are in
+            // that layout. Only the first batch is migrated here, the rest with migrateBatch, so that the update
+            // doesn't depend on the number of proposals.
+            ByteString version = Storage.get(getReadOnlyContext(), STORAGE_VERSION_KEY);
+            if (version == null || version.toInt() < STORAGE_VERSION) {
+                Storage.put(ctx, STORAGE_VERSION_KEY, STORAGE_VERSION);
+                Storage.put(ctx, MIGRATION_CURSOR_KEY, 0);
+                Storage.put(ctx, MIGRATION_END_KEY, Storage.getInt(getReadOnlyContext(), PROPOSALS_COUNT_KEY));
+                migrateBatch(DEPLOY_MIGRATION_BATCH_SIZE);
             }
 
             // Set parameters
@@ -169,6 +230,8 @@ public class GrantSharesGov {
                 abortOnInvalidValue(paramKey, value);
                 parameters.put(paramKey, value);
             }
+            snapshotPhaseLengths();
+            updateMembersMultiSigAccount();
         }
     }
 
@@ -199,6 +262,17 @@ public class GrantSharesGov {
         return params;
     }
 
+    /**
+     * Gets an iterator over all parameters. In contrast to {@link GrantSharesGov#getParameters()} the parameters are
+     * not collected in the invocation. Clients can traverse the iterator in an RPC session.
+     *
+     * @return an iterator over the parameter names mapped to their values.
+     */
+    @Safe
+    public static Iterator<Struct<String, Integer>> getParametersIterator() {
+        return parameters.find(FindOptions.RemovePrefix);
+    }
+
     /**
      * Gets all information of the proposal with {@code id}.
      *
@@ -210,20 +284,30 @@ public class GrantSharesGov {
         ProposalDTO dto = new ProposalDTO();
         dto.id = id;
         ByteString bytes = proposalData.get(id);
-        if (bytes != null) {
+        if (bytes == null) {
+            return null;
+        }
+        boolean isMigrated = isMigrated(id);
+        if (isMigrated) {
             ProposalData p = (ProposalData) deserialize(bytes);
             dto.proposer = p.proposer;
             dto.linkedProposal = p.linkedProposal;
             dto.acceptanceRate = p.acceptanceRate;
             dto.quorum = p.quorum;
-            dto.intents = p.intents;
-            dto.offchainUri = p.offchainUri;
+            dto.intents = (Intent[]) deserialize(proposalIntents.get(id));
+            dto.offchainUri = offchainUris.get(id).toString();
         } else {
-            return null;
+            ProposalDataOld p = (ProposalDataOld) deserialize(bytes);
+            dto.proposer = p.proposer;
+            dto.linkedProposal = p.linkedProposal;
+            dto.acceptanceRate = p.acceptanceRate;
+            dto.quorum = p.quorum;
+            dto.intents = migrateIntents(p.intents);
+            dto.offchainUri = p.offchainUri;
         }
         bytes = proposals.get(id);
         if (bytes != null) {
-            Proposal p = (Proposal) deserialize(bytes);
+            Proposal p = readProposal(id, bytes);
             dto.endorser = p.endorser;
             dto.reviewEnd = p.reviewEnd;
             dto.votingEnd = p.votingEnd;
@@ -232,16 +316,39 @@ public class GrantSharesGov {
             dto.executed = p.executed;
         }
         bytes = proposalVotes.get(id);
-        if (bytes != null) {
+        if (isMigrated) {
             ProposalVotes p = (ProposalVotes) deserialize(bytes);
             dto.approve = p.approve;
             dto.reject = p.reject;
             dto.abstain = p.abstain;
+            dto.voters = getVoters(id);
+        } else {
+            ProposalVotesOld p = (ProposalVotesOld) deserialize(bytes);
+            dto.approve = p.approve;
+            dto.reject = p.reject;
+            dto.abstain = p.abstain;
             dto.voters = p.voters;
         }
         return dto;
     }
 
+    private static Map<Hash160, Integer> getVoters(int id) {
+        Map<Hash160, Integer> voters = new Map<>();
+        ByteString prefix = new ByteString(new byte[]{VOTES_MAP_PREFIX}).concat(ProposalCodec.encodeId(id));
+        Iterator<Struct<ByteString, ByteString>> it = Storage.find(getReadOnlyContext(), prefix,
+                FindOptions.RemovePrefix);
+        while (it.next()) {
+            Struct<ByteString, ByteString> entry = it.get();
+            voters.put(new Hash160(entry.key), entry.value.toInt());
+        }
+        return voters;
+    }
+
+    // The id has a fixed width, so that finding the votes of one proposal doesn't iterate the votes of others.
+    private static ByteString voteKey(int id, Hash160 voter) {
+        return ProposalCodec.encodeId(id).concat(voter.toByteString());
+    }
+
     /**
      * Returns the public keys of the governance members.
      * <p>
@@ -259,6 +366,32 @@ public class GrantSharesGov {
         return members;
     }
 
+    /**
+     * Gets an iterator over the public keys of the governance members. In contrast to
+     * {@link GrantSharesGov#getMembers()} the members are not collected in the invocation. Clients can traverse the
+     * iterator in an RPC session.
+     *
+     * @return an iterator over the members' public keys.
+     */
+    @Safe
+    public static Iterator<ECPoint> getMembersIterator() {
+        return members.find(ValuesOnly);
+    }
+
+    /**
+     * Gets an iterator over the data of all proposals, i.e., their proposer, linked proposal, acceptance rate and
+     * quorum. Clients can traverse the iterator in an RPC session.
+     * <p>
+     * The data of proposals that were created before the last contract update and were not migrated yet also
+     * contains their intents and offchain URI after these four fields.
+     *
+     * @return an iterator over the proposal ids mapped to the proposal data.
+     */
+    @Safe
+    public static Iterator<Struct<Integer, ProposalData>> getProposalDataIterator() {
+        return proposalData.find((byte) (FindOptions.RemovePrefix | FindOptions.DeserializeValues));
+    }
+
     /**
      * Gets the number of members.
      *
@@ -302,6 +435,187 @@ public class GrantSharesGov {
         return new Paginator.Paginated(page, pagination[2], list);
     }
 
+    /**
+     * Gets a summary of the proposals on the given page. In contrast to {@link GrantSharesGov#getProposals(int, int)}
+     * the summaries don't include the intents, offchain URI and voters of the proposals. This makes this method a lot
+     * cheaper to invoke for large pages.
+     *
+     * @param page         The page.
+     * @param itemsPerPage The number of proposals per page.
+     * @return the chosen page, how many pages there are with the given page size and the summaries of the proposals
+     * on the given page.
+     */
+    @Safe
+    public static Paginator.Paginated getProposalSummaries(int page, int itemsPerPage) throws Exception {
+        if (page < 0)
+            throw new Exception("[GrantSharesGov.getProposalSummaries] Page number was negative");
+        if (itemsPerPage <= 0)
+            throw new Exception("[GrantSharesGov.getProposalSummaries] Page number was negative or zero");
+        int n = Storage.getInt(getReadOnlyContext(), PROPOSALS_COUNT_KEY);
+        int[] pagination = Paginator.calcPagination(n, page, itemsPerPage);
+        List<Object> list = new List<>();
+        for (int i = pagination[0]; i < pagination[1]; i++) {
+            list.add(getProposalSummary(i));
+        }
+        return new Paginator.Paginated(page, pagination[2], list);
+    }
+
+    /**
+     * Gets the ids of the proposals that are neither executed nor expired, i.e., the proposals that are in review, in
+     * voting, queued or executable, or that still wait for an endorsement. Proposals whose voting ended without being
+     * accepted are skipped.
+     *
+     * @param page         The page.
+     * @param itemsPerPage The number of proposal ids per page.
+     * @return the chosen page, how many pages there are at least with the given page size and the proposal ids on
+     * the given page.
+     * @see GrantSharesGov#getActiveProposals(int, int, int)
+     */
+    @Safe
+    public static Paginator.Paginated getActiveProposals(int page, int itemsPerPage) throws Exception {
+        return getActiveProposals(PHASE_ANY, page, itemsPerPage);
+    }
+
+    /**
+     * Gets the ids of the active proposals that are in the given phase. The phase is one of 0 (any phase), 1 (waiting
+     * for an endorsement), 2 (in review), 3 (in voting), 4 (queued in the time lock) and 5 (executable). Proposals
+     * whose voting ended without being accepted are skipped.
+     * <p>
+     * The ids are ordered by the expiration of the proposals. The page is read directly from the index, so the total
+     * number of active proposals is not known. The returned number of pages only includes the next page if there are
+     * more ids after the chosen page.
+     *
+     * @param phase        The phase.
+     * @param page         The page.
+     * @param itemsPerPage The number of proposal ids per page.
+     * @return the chosen page, how many pages there are at least with the given page size and the proposal ids on
+     * the given page.
+     */
+    @Safe
+    public static Paginator.Paginated getActiveProposals(int phase, int page, int itemsPerPage) throws Exception {
+        if (phase < PHASE_ANY || phase > PHASE_EXECUTABLE)
+            throw new Exception("[GrantSharesGov.getActiveProposals] Invalid phase");
+        if (page < 0)
+            throw new Exception("[GrantSharesGov.getActiveProposals] Page number was negative");
+        if (itemsPerPage <= 0)
+            throw new Exception("[GrantSharesGov.getActiveProposals] Page number was negative or zero");
+        int now = getTime();
+        int skip = page * itemsPerPage;
+        boolean hasMore = false;
+        List<Object> list = new List<>();
+        Iterator<Struct<ByteString, ByteString>> it = activeProposals.find(FindOptions.RemovePrefix);
+        while (it.next()) {
+            Struct<ByteString, ByteString> entry = it.get();
+            int id = entry.key.range(ProposalCodec.TIMESTAMP_SIZE, ProposalCodec.ID_SIZE).toInt();
+            int entryPhase = getActivePhase(ProposalCodec.decodeActive(id, entry.value), now);
+            // Expired entries are only removed lazily. Skip them here.
+            if (entryPhase < 0 || (phase != PHASE_ANY && entryPhase != phase)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+            } else if (list.size() < itemsPerPage) {
+                list.add(id);
+            } else {
+                hasMore = true;
+                break;
+            }
+        }
+        if (page > 0 && list.size() == 0)
+            throw new Exception("[GrantSharesGov.getActiveProposals] Page out of bounds");
+        return new Paginator.Paginated(page, hasMore ? page + 2 : page + 1, list);
+    }
+
+    // Gets the phase of the proposal from its entry in the active proposals index. Returns -1 if the proposal expired
+    // or if its voting ended without it being accepted.
+    private static int getActivePhase(Proposal p, int now) {
+        if (p.expiration <= now) {
+            return -1;
+        }
+        if (p.reviewEnd == 0) {
+            return PHASE_NOT_ENDORSED;
+        }
+        if (now < p.reviewEnd) {
+            return PHASE_REVIEW;
+        }
+        if (now < p.votingEnd) {
+            return PHASE_VOTING;
+        }
+        if (getRejectionReason(p.id) != null) {
+            return -1;
+        }
+        return now < p.timeLockEnd ? PHASE_QUEUED : PHASE_EXECUTABLE;
+    }
+
+    private static ByteString activeProposalKey(int expiration, int id) {
+        return ProposalCodec.encodeSortable(expiration, ProposalCodec.TIMESTAMP_SIZE)
+                .concat(ProposalCodec.encodeId(id));
+    }
+
+    private static void indexActiveProposal(Proposal proposal) {
+        activeProposals.put(activeProposalKey(proposal.expiration, proposal.id), ProposalCodec.encodeActive(proposal));
+    }
+
+    /**
+     * Gets a summary of the proposals created by the given proposer on the given page. The proposals are ordered by
+     * id.
+     * <p>
+     * Proposals created before the update to {@link GrantSharesGov#STORAGE_VERSION} 1 are only included once they are
+     * migrated, i.e., after the migration with {@link GrantSharesGov#migrateBatch(int)} is finished.
+     *
+     * @param proposer     The proposer.
+     * @param page         The page.
+     * @param itemsPerPage The number of proposals per page.
+     * @return the chosen page, how many pages there are with the given page size and the summaries of the proposer's
+     * proposals on the given page.
+     */
+    @Safe
+    public static Paginator.Paginated getProposalsByProposer(Hash160 proposer, int page, int itemsPerPage)
+            throws Exception {
+        if (page < 0)
+            throw new Exception("[GrantSharesGov.getProposalsByProposer] Page number was negative");
+        if (itemsPerPage <= 0)
+            throw new Exception("[GrantSharesGov.getProposalsByProposer] Page number was negative or zero");
+        ByteString countBytes = proposerProposalsCounts.get(proposer.toByteString());
+        int n = countBytes == null ? 0 : countBytes.toInt();
+        int[] pagination = Paginator.calcPagination(n, page, itemsPerPage);
+        List<Object> list = new List<>();
+        ByteString prefix = new ByteString(new byte[]{PROPOSER_PROPOSALS_MAP_PREFIX}).concat(proposer.toByteString());
+        Iterator<ByteString> it = Storage.find(getReadOnlyContext(), prefix, FindOptions.ValuesOnly);
+        int i = 0;
+        while (i < pagination[1] && it.next()) {
+            if (i >= pagination[0]) {
+                list.add(getProposalSummary(it.get().toInt()));
+            }
+            i++;
+        }
+        return new Paginator.Paginated(page, pagination[2], list);
+    }
+
+    private static ProposalSummary getProposalSummary(int id) {
+        ProposalSummary summary = new ProposalSummary();
+        summary.id = id;
+        ByteString proposer = proposers.get(id);
+        if (proposer != null) {
+            summary.proposer = new Hash160(proposer);
+        } else {
+            summary.proposer = ((ProposalDataOld) deserialize(proposalData.get(id))).proposer;
+        }
+        Proposal p = readProposal(id, proposals.get(id));
+        summary.endorser = p.endorser;
+        summary.reviewEnd = p.reviewEnd;
+        summary.votingEnd = p.votingEnd;
+        summary.queuedEnd = p.timeLockEnd;
+        summary.expiration = p.expiration;
+        summary.executed = p.executed;
+        // The tallies are at the same position in the old layout of not yet migrated proposals.
+        ProposalVotes v = (ProposalVotes) deserialize(proposalVotes.get(id));
+        summary.approve = v.approve;
+        summary.reject = v.reject;
+        summary.abstain = v.abstain;
+        return summary;
+    }
+
     /**
      * Checks if the contract is paused, i.e., if the corresponding value in the contract storage is
      * set to true.
@@ -314,25 +628,91 @@ public class GrantSharesGov {
     }
 
     /**
-     * Calculates the hash of the multi-sig account made up of the governance members. The signing threshold is
+     * Gets the treasury that the paused state of this contract is pushed to.
+     *
+     * @return the treasury's script hash or null if no treasury is set.
+     */
+    @Safe
+    public static Hash160 getTreasury() {
+        ByteString treasury = Storage.get(getReadOnlyContext(), TREASURY_KEY);
+        return treasury == null ? null : new Hash160(treasury);
+    }
+
+    /**
+     * Gets the hash of the multi-sig account made up of the governance members. The signing threshold is
      * calculated from the value of the {@link GrantSharesGov#MULTI_SIG_THRESHOLD_KEY} parameter and the number of
      * members.
+     * <p>
+     * The account is derived whenever the members or the threshold parameter change and is read from storage here.
      *
      * @return The multi-sig account hash.
      */
     @Safe
     public static Hash160 calcMembersMultiSigAccount() throws Exception {
-        return Account.createMultiSigAccount(calcMembersMultiSigAccountThreshold(), getMembers().toArray());
+        return new Hash160(Storage.get(getReadOnlyContext(), MEMBERS_MULTI_SIG_ACCOUNT_KEY));
     }
 
     /**
-     * Calculates the threshold of the multi-sig account made up of the governance members. It is calculated from the
+     * Gets the threshold of the multi-sig account made up of the governance members. It is calculated from the
      * value of the {@link GrantSharesGov#MULTI_SIG_THRESHOLD_KEY} parameter and the number of members.
+     * <p>
+     * The threshold is derived whenever the members or the threshold parameter change and is read from storage here.
      *
      * @return The multi-sig account signing threshold.
      */
     @Safe
     public static int calcMembersMultiSigAccountThreshold() throws Exception {
+        return Storage.getInt(getReadOnlyContext(), MEMBERS_MULTI_SIG_THRESHOLD_KEY);
+    }
+
+    /**
+     * Gets the staged blob with the given SHA-256 hash.
+     *
+     * @param hash The SHA-256 hash of the blob.
+     * @return the blob or null if no complete blob with that hash was staged.
+     */
+    @Safe
+    public static ByteString getBlob(ByteString hash) {
+        ByteString uploader = blobs.get(hash);
+        if (uploader == null) {
+            return null;
+        }
+        return concatBlobChunks(uploader.concat(hash));
+    }
+
+    private static ByteString concatBlobChunks(ByteString stagingKey) {
+        int count = stagedBlobs.getInt(stagingKey);
+        ByteString blob = new ByteString(new byte[0]);
+        for (int i = 0; i < count; i++) {
+            blob = blob.concat(blobChunks.get(blobChunkKey(stagingKey, i)));
+        }
+        return blob;
+    }
+
+    private static ByteString blobChunkKey(ByteString stagingKey, int index) {
+        return stagingKey.concat(new ByteString(Helper.toByteArray(index)));
+    }
+
+    //endregion SAFE METHODS
+
+    /**
+     * Derives the members multi-sig account and its threshold from the current members and the
+     * {@link GrantSharesGov#MULTI_SIG_THRESHOLD_KEY} parameter and stores them. Must be called whenever one of these
+     * changes.
+     */
+    private static void updateMembersMultiSigAccount() {
+        int threshold = 0;
+        try {
+            threshold = computeMembersMultiSigAccountThreshold();
+        } catch (Exception e) {
+            fireErrorAndAbort(e.getMessage(), "updateMembersMultiSigAccount");
+        }
+        Hash160 account = Account.createMultiSigAccount(threshold, getMembers().toArray());
+        Storage.put(ctx, MEMBERS_MULTI_SIG_ACCOUNT_KEY, account);
+        Storage.put(ctx, MEMBERS_MULTI_SIG_THRESHOLD_KEY, threshold);
+    }
+
+    private static int computeMembersMultiSigAccountThreshold() throws Exception {
         int count = Storage.getInt(getReadOnlyContext(), MEMBERS_COUNT_KEY);
         int thresholdRatio = parameters.getInt(MULTI_SIG_THRESHOLD_KEY);
         int thresholdTimes100 = count * thresholdRatio;
@@ -341,12 +721,10 @@ public class GrantSharesGov {
             threshold += 1; // Always round up.
         }
         if (threshold == 0)
-            throw new Exception("[GrantSharesGov.calcMembersMultiSigAccountThreshold] Threshold was zero");
+            throw new Exception("[GrantSharesGov.computeMembersMultiSigAccountThreshold] Threshold was zero");
         return threshold;
     }
 
-    //endregion SAFE METHODS
-
     // region GOVERNANCE PROCESS METHODS
 
     /**
@@ -387,18 +765,54 @@ public class GrantSharesGov {
         if (!areIntentsValid(intents)) fireErrorAndAbort("Invalid intents", "createProposal");
 
         int id = Storage.getInt(getReadOnlyContext(), PROPOSALS_COUNT_KEY);
+        if (!ProposalCodec.fits(id, ProposalCodec.ID_SIZE)) fireErrorAndAbort("Too many proposals", "createProposal");
         int expiration = parameters.getInt(EXPIRATION_LENGTH_KEY) + getTime();
-        proposals.put(id, serialize(new Proposal(id, expiration)));
-        proposalData.put(id, serialize(new ProposalData(proposer, linkedProposal, acceptanceRate,
-                quorum, intents, offchainUri)));
+        proposals.put(id, ProposalCodec.encodeCreated(expiration));
+        proposalData.put(id, serialize(new ProposalData(proposer, linkedProposal, acceptanceRate, quorum)));
+        proposalIntents.put(id, serialize(intents));
+        offchainUris.put(id, offchainUri);
         proposalVotes.put(id, serialize(new ProposalVotes()));
+        proposers.put(id, proposer.toByteString());
+        indexProposalByProposer(proposer, id);
         Storage.put(ctx, PROPOSALS_COUNT_KEY, id + 1);
+        removeExpiredActiveProposals();
+        indexActiveProposal(new Proposal(id, expiration));
 
         // An event can take max 1024 bytes data. Thus, we're not passing the offchainUri since it could be longer.
         created.fire(id, proposer, acceptanceRate, quorum);
         return id;
     }
 
+    /**
+     * Removes at most {@link GrantSharesGov#ACTIVE_PROPOSALS_PRUNE_LIMIT} expired proposals from the active proposals
+     * index. The index is ordered by expiration, so the expired proposals come first and the search stops at the
+     * first proposal that is not expired. Keeps the cost of this clean-up constant for each new proposal.
+     */
+    private static void removeExpiredActiveProposals() {
+        int now = getTime();
+        List<ByteString> expired = new List<>();
+        Iterator<Struct<ByteString, ByteString>> it = activeProposals.find(FindOptions.RemovePrefix);
+        while (expired.size() < ACTIVE_PROPOSALS_PRUNE_LIMIT && it.next()) {
+            Struct<ByteString, ByteString> entry = it.get();
+            if (entry.value.range(0, ProposalCodec.TIMESTAMP_SIZE).toInt() > now) {
+                break;
+            }
+            expired.add(entry.key);
+        }
+        for (int i = 0; i < expired.size(); i++) {
+            activeProposals.delete(expired.get(i));
+        }
+    }
+
+    private static void indexProposalByProposer(Hash160 proposer, int id) {
+        ByteString countBytes = proposerProposalsCounts.get(proposer.toByteString());
+        int count = countBytes == null ? 0 : countBytes.toInt();
+        // The id is big-endian, so that the proposals are ordered by id even if they are migrated out of order.
+        proposerProposals.put(proposer.toByteString().concat(ProposalCodec.encodeSortable(id, ProposalCodec.ID_SIZE)),
+                id);
+        proposerProposalsCounts.put(proposer.toByteString(), count + 1);
+    }
+
     private static boolean areIntentsValid(Intent[] intents) {
         for (Intent intent : intents) {
             if (!Hash160.isValid(intent.targetContract) ||
@@ -427,16 +841,18 @@ public class GrantSharesGov {
             fireErrorAndAbort("Not authorised", "endorseProposal");
         ByteString proposalBytes = proposals.get(id);
         if (proposalBytes == null) fireErrorAndAbort("Proposal doesn't exist", "endorseProposal");
-        Proposal proposal = (Proposal) deserialize(proposalBytes);
+        Proposal proposal = readProposal(id, proposalBytes);
         if (proposal.expiration <= getTime()) fireErrorAndAbort("Proposal expired", "endorseProposal");
         if (proposal.endorser != null) fireErrorAndAbort("Proposal already endorsed", "endorseProposal");
 
-        proposal.endorser = endorser;
-        proposal.reviewEnd = getTime() + parameters.getInt(REVIEW_LENGTH_KEY);
-        proposal.votingEnd = proposal.reviewEnd + parameters.getInt(VOTING_LENGTH_KEY);
-        proposal.timeLockEnd = proposal.votingEnd + parameters.getInt(TIMELOCK_LENGTH_KEY);
-        proposal.expiration = proposal.timeLockEnd + parameters.getInt(EXPIRATION_LENGTH_KEY);
-        proposals.put(id, serialize(proposal));
+        // Only the endorsement time and the current phase lengths snapshot are stored. The phase ends are derived
+        // from them when the proposal is read.
+        ByteString endorsedBytes = ProposalCodec.encodeEndorsed(endorser, getTime(),
+                Storage.getInt(getReadOnlyContext(), PHASE_LENGTHS_SNAPSHOT_KEY));
+        proposals.put(id, endorsedBytes);
+        // The endorsement sets a new expiration, which moves the proposal in the active proposals index.
+        activeProposals.delete(activeProposalKey(proposal.expiration, id));
+        indexActiveProposal(readProposal(id, endorsedBytes));
         endorsed.fire(id, endorser);
     }
 
@@ -454,16 +870,45 @@ public class GrantSharesGov {
         if (vote < -1 || vote > 1) fireErrorAndAbort("Invalid vote", "vote");
         if (members.get(voter.toByteString()) == null || !checkWitness(voter))
             fireErrorAndAbort("Not authorised", "vote");
-        ByteString proposalBytes = proposals.get(id);
-        if (proposalBytes == null) fireErrorAndAbort("Proposal doesn't exist", "vote");
-        Proposal proposal = (Proposal) deserialize(proposalBytes);
+        castVote(id, vote, voter, getTime(), "vote");
+    }
+
+    /**
+     * Casts the votes of the {@code voter} on several proposals at once. The voter is authorised only once for all
+     * votes. Either all votes are cast or none.
+     *
+     * @param ids   The ids of the proposals to vote on.
+     * @param votes The votes, one per proposal id. Each must be either -1 for rejecting, 1 for approving or 0 for
+     *              abstaining.
+     * @param voter The script hash of the voter. Must be a member of the DAO and the invoking script must hold a
+     *              witness of the voter.
+     */
+    public static void voteBatch(int[] ids, int[] votes, Hash160 voter) {
+        abortIfPaused();
+        if (ids.length != votes.length) fireErrorAndAbort("Number of ids and votes differ", "voteBatch");
+        for (int vote : votes) {
+            if (vote < -1 || vote > 1) fireErrorAndAbort("Invalid vote", "voteBatch");
+        }
+        if (members.get(voter.toByteString()) == null || !checkWitness(voter))
+            fireErrorAndAbort("Not authorised", "voteBatch");
         int time = getTime();
+        for (int i = 0; i < ids.length; i++) {
+            castVote(ids[i], votes[i], voter, time, "voteBatch");
+        }
+    }
+
+    private static void castVote(int id, int vote, Hash160 voter, int time, String method) {
+        ByteString proposalBytes = proposals.get(id);
+        if (proposalBytes == null) fireErrorAndAbort("Proposal doesn't exist", method);
+        Proposal proposal = readProposal(id, proposalBytes);
         if (proposal.endorser == null || time < proposal.reviewEnd || time >= proposal.votingEnd)
-            fireErrorAndAbort("Proposal not active", "vote");
-        ProposalVotes pv = (ProposalVotes) deserialize(proposalVotes.get(id));
-        if (pv.voters.containsKey(voter)) fireErrorAndAbort("Already voted on this proposal", "vote");
+            fireErrorAndAbort("Proposal not active", method);
+        migrateProposal(id);
+        ByteString voteKey = voteKey(id, voter);
+        if (votes.get(voteKey) != null) fireErrorAndAbort("Already voted on this proposal", method);
 
-        pv.voters.put(voter, vote);
+        votes.put(voteKey, vote);
+        ProposalVotes pv = (ProposalVotes) deserialize(proposalVotes.get(id));
         if (vote < 0) {
             pv.reject += 1;
         } else if (vote > 0) {
@@ -486,31 +931,271 @@ public class GrantSharesGov {
      */
     public static Object[] execute(int id) {
         abortIfPaused();
+        return executeIfExecutable(id, true);
+    }
+
+    /**
+     * Executes all proposals with the given ids that are executable. In contrast to
+     * {@link GrantSharesGov#execute(int)} proposals that are not executable, e.g., because they are still in their
+     * queued phase or were rejected, are skipped instead of aborting the invocation. Anyone can execute any proposal.
+     * <p>
+     * If an intent of one of the proposals fails, the whole invocation fails.
+     *
+     * @param ids The proposal ids.
+     * @return the ids of the executed proposals mapped to the values returned by their intents.
+     */
+    public static Map<Integer, Object[]> executeBatch(int[] ids) {
+        abortIfPaused();
+        Map<Integer, Object[]> results = new Map<>();
+        for (int id : ids) {
+            Object[] returnVals = executeIfExecutable(id, false);
+            if (returnVals != null) {
+                results.put(id, returnVals);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Executes the proposal if it is executable. Otherwise, aborts if {@code abortIfNotExecutable} is true or returns
+     * null if it is false.
+     */
+    private static Object[] executeIfExecutable(int id, boolean abortIfNotExecutable) {
         ByteString proposalBytes = proposals.get(id);
-        if (proposalBytes == null) fireErrorAndAbort("Proposal doesn't exist", "execute");
-        Proposal proposal = (Proposal) deserialize(proposalBytes);
+        if (proposalBytes == null) return notExecutable("Proposal doesn't exist", abortIfNotExecutable);
+        Proposal proposal = readProposal(id, proposalBytes);
         if (proposal.endorser == null || getTime() < proposal.timeLockEnd)
-            fireErrorAndAbort("Proposal not in execution phase", "execute");
-        if (proposal.executed) fireErrorAndAbort("Proposal already executed", "execute");
-        if (proposal.expiration <= getTime()) fireErrorAndAbort("Proposal expired", "execute");
+            return notExecutable("Proposal not in execution phase", abortIfNotExecutable);
+        if (proposal.executed) return notExecutable("Proposal already executed", abortIfNotExecutable);
+        if (proposal.expiration <= getTime()) return notExecutable("Proposal expired", abortIfNotExecutable);
+        if (migrateProposal(id)) {
+            proposalBytes = proposals.get(id);
+        }
+        String rejectionReason = getRejectionReason(id);
+        if (rejectionReason != null) return notExecutable(rejectionReason, abortIfNotExecutable);
+
+        Intent[] intents = (Intent[]) deserialize(proposalIntents.get(id));
+        Object[] returnVals = new Object[intents.length];
+        proposals.put(id, ProposalCodec.withExecuted(proposalBytes));
+        activeProposals.delete(activeProposalKey(proposal.expiration, id));
+        for (int i = 0; i < intents.length; i++) {
+            Intent t = intents[i];
+            returnVals[i] = Contract.call(t.targetContract, t.method, t.callFlags, t.params);
+        }
+        executed.fire(id);
+        return returnVals;
+    }
+
+    /**
+     * Checks the votes of the proposal against its quorum and acceptance rate. Also works for proposals that were not
+     * migrated yet because the old layout has the rates and tallies at the same positions.
+     *
+     * @return why the proposal is not accepted or null if it is accepted.
+     */
+    private static String getRejectionReason(int id) {
         ProposalData data = (ProposalData) deserialize(proposalData.get(id));
         ProposalVotes votes = (ProposalVotes) deserialize(proposalVotes.get(id));
         int voteCount = votes.approve + votes.abstain + votes.reject;
+        // The members count is read for each proposal because an earlier proposal in a batch could have changed it.
         if (voteCount * 100 / Storage.getInt(getReadOnlyContext(), MEMBERS_COUNT_KEY) < data.quorum)
-            fireErrorAndAbort("Quorum not reached", "execute");
+            return "Quorum not reached";
         int yesNoCount = votes.approve + votes.reject;
         if (yesNoCount == 0 || (votes.approve * 100 / yesNoCount <= data.acceptanceRate))
-            fireErrorAndAbort("Proposal rejected", "execute");
+            return "Proposal rejected";
+        return null;
+    }
 
-        proposal.executed = true;
-        Object[] returnVals = new Object[data.intents.length];
-        proposals.put(id, serialize(proposal));
-        for (int i = 0; i < data.intents.length; i++) {
-            Intent t = data.intents[i];
-            returnVals[i] = Contract.call(t.targetContract, t.method, t.callFlags, t.params);
+    private static Object[] notExecutable(String msg, boolean abort) {
+        if (abort) fireErrorAndAbort(msg, "execute");
+        return null;
+    }
+
+    /**
+     * Appends a chunk to the blob that the {@code uploader} is staging under the given SHA-256 hash. Blobs that are
+     * too large for a single transaction, e.g., the NEF and manifest of a contract update, can be uploaded in several
+     * chunks this way. Once all chunks are appended, the blob is completed with
+     * {@link GrantSharesGov#finalizeBlob(Hash160, ByteString)} and can then be referenced in a proposal's intents with
+     * {@link GrantSharesGov#callWithBlobs(Hash160, String, Object[], int[])}.
+     * <p>
+     * Each chunk is stored under its own index, so that appending a chunk costs the same regardless of the number of
+     * chunks staged before. Chunks are kept separately per uploader so that nobody can interfere with a blob staged
+     * by someone else.
+     *
+     * @param uploader The account staging the blob. The invoking script must hold its witness.
+     * @param hash     The SHA-256 hash of the complete blob.
+     * @param chunk    The next chunk of the blob.
+     * @return the number of chunks staged so far.
+     */
+    public static int stageBlobChunk(Hash160 uploader, ByteString hash, ByteString chunk) {
+        abortIfPaused();
+        if (!checkWitness(uploader)) fireErrorAndAbort("Not authorised", "stageBlobChunk");
+        if (hash.length() != 32) fireErrorAndAbort("Invalid blob hash", "stageBlobChunk");
+        if (chunk.length() == 0) fireErrorAndAbort("Empty blob chunk", "stageBlobChunk");
+        if (blobs.get(hash) != null) fireErrorAndAbort("Blob already staged", "stageBlobChunk");
+
+        ByteString stagingKey = uploader.toByteString().concat(hash);
+        ByteString countBytes = stagedBlobs.get(stagingKey);
+        int count = countBytes == null ? 0 : countBytes.toInt();
+        blobChunks.put(blobChunkKey(stagingKey, count), chunk);
+        stagedBlobs.put(stagingKey, count + 1);
+        return count + 1;
+    }
+
+    /**
+     * Completes the blob that the {@code uploader} staged under the given SHA-256 hash. The staged chunks are hashed
+     * once here and must hash to {@code hash}. The complete blob must not exceed the maximum size of a NeoVM stack
+     * item because it is passed to the called method as one parameter.
+     *
+     * @param uploader The account that staged the blob. The invoking script must hold its witness.
+     * @param hash     The SHA-256 hash of the complete blob.
+     */
+    public static void finalizeBlob(Hash160 uploader, ByteString hash) {
+        abortIfPaused();
+        if (!checkWitness(uploader)) fireErrorAndAbort("Not authorised", "finalizeBlob");
+        if (blobs.get(hash) != null) fireErrorAndAbort("Blob already staged", "finalizeBlob");
+        ByteString stagingKey = uploader.toByteString().concat(hash);
+        if (stagedBlobs.get(stagingKey) == null) fireErrorAndAbort("No blob chunks staged", "finalizeBlob");
+        if (CryptoLib.sha256(concatBlobChunks(stagingKey)) != hash)
+            fireErrorAndAbort("Blob doesn't match its hash", "finalizeBlob");
+        blobs.put(hash, uploader.toByteString());
+        blobStaged.fire(hash, uploader);
+    }
+
+    /**
+     * Deletes the chunks that the {@code uploader} staged under the given SHA-256 hash. Aborts the staging of an
+     * incomplete blob, e.g., after a wrong chunk was appended, or removes a complete blob of the uploader that is not
+     * needed anymore. Proposals that reference a removed blob fail on execution.
+     *
+     * @param uploader The account that staged the blob. The invoking script must hold its witness.
+     * @param hash     The SHA-256 hash of the blob.
+     */
+    public static void removeBlob(Hash160 uploader, ByteString hash) {
+        if (!checkWitness(uploader)) fireErrorAndAbort("Not authorised", "removeBlob");
+        ByteString stagingKey = uploader.toByteString().concat(hash);
+        ByteString countBytes = stagedBlobs.get(stagingKey);
+        if (countBytes == null) fireErrorAndAbort("No blob chunks staged", "removeBlob");
+        int count = countBytes.toInt();
+        for (int i = 0; i < count; i++) {
+            blobChunks.delete(blobChunkKey(stagingKey, i));
         }
-        executed.fire(id);
-        return returnVals;
+        stagedBlobs.delete(stagingKey);
+        if (blobs.get(hash) == uploader.toByteString()) {
+            blobs.delete(hash);
+        }
+    }
+
+    /**
+     * Migrates the next {@code maxItems} proposals that were created in an older storage layout to the current
+     * storage layout. A migration is only started by a contract update from a version with an older layout. Anyone
+     * can call this method until the migration is finished. Proposals that are voted on or executed before their turn
+     * are migrated right then.
+     *
+     * @param maxItems The maximum number of proposals to migrate in this invocation.
+     * @return true if all proposals are migrated. False otherwise.
+     */
+    public static boolean migrateBatch(int maxItems) {
+        if (maxItems <= 0) fireErrorAndAbort("Invalid batch size", "migrateBatch");
+        ByteString cursorBytes = Storage.get(getReadOnlyContext(), MIGRATION_CURSOR_KEY);
+        if (cursorBytes == null) {
+            return true;
+        }
+        int cursor = cursorBytes.toInt();
+        int end = Storage.getInt(getReadOnlyContext(), MIGRATION_END_KEY);
+        int batchEnd = cursor + maxItems;
+        if (batchEnd > end) {
+            batchEnd = end;
+        }
+        for (int id = cursor; id < batchEnd; id++) {
+            migrateProposal(id);
+        }
+        if (batchEnd == end) {
+            Storage.delete(ctx, MIGRATION_CURSOR_KEY);
+            Storage.delete(ctx, MIGRATION_END_KEY);
+            return true;
+        }
+        Storage.put(ctx, MIGRATION_CURSOR_KEY, batchEnd);
+        return false;
+    }
+
+    /**
+     * Proposals in the current storage layout have an entry in the proposers map. Proposals that were created before
+     * the update to {@link GrantSharesGov#STORAGE_VERSION} 1 and were not migrated yet don't.
+     */
+    private static boolean isMigrated(int id) {
+        return proposers.get(id) != null;
+    }
+
+    // Returns true if the proposal was migrated by this call.
+    private static boolean migrateProposal(int id) {
+        if (isMigrated(id)) {
+            return false;
+        }
+        ProposalDataOld pd = (ProposalDataOld) deserialize(proposalData.get(id));
+        proposalData.put(id, serialize(new ProposalData(pd.proposer, pd.linkedProposal, pd.acceptanceRate,
+                pd.quorum)));
+        proposalIntents.put(id, serialize(migrateIntents(pd.intents)));
+        offchainUris.put(id, pd.offchainUri);
+        proposers.put(id, pd.proposer.toByteString());
+        indexProposalByProposer(pd.proposer, id);
+
+        // Move the votes out of the voters map into their own storage entries.
+        ProposalVotesOld pvo = (ProposalVotesOld) deserialize(proposalVotes.get(id));
+        Hash160[] voters = pvo.voters.keys();
+        Integer[] voterVotes = pvo.voters.values();
+        for (int i = 0; i < voters.length; i++) {
+            votes.put(voteKey(id, voters[i]), voterVotes[i]);
+        }
+        ProposalVotes pv = new ProposalVotes();
+        pv.approve = pvo.approve;
+        pv.reject = pvo.reject;
+        pv.abstain = pvo.abstain;
+        proposalVotes.put(id, serialize(pv));
+        // A proposal that was endorsed after the update is already stored in the packed layout and indexed. Only the
+        // old struct is re-encoded. The phase ends of proposals endorsed before the update are kept as they are
+        // because the phase lengths at the time of their endorsement are unknown.
+        ByteString proposalBytes = proposals.get(id);
+        if (proposalBytes.range(0, 1).toInt() == ProposalCodec.STRUCT_TYPE) {
+            Proposal proposal = readProposal(id, proposalBytes);
+            proposals.put(id, ProposalCodec.encodeExplicit(proposal));
+            if (!proposal.executed && proposal.expiration > getTime()) {
+                indexActiveProposal(proposal);
+            }
+        }
+        migrated.fire(id);
+        return true;
+    }
+
+    private static Proposal readProposal(int id, ByteString bytes) {
+        int snapshotId = ProposalCodec.snapshotId(bytes);
+        ByteString phaseLengths = snapshotId < 0 ? null : phaseLengthSnapshots.get(snapshotId);
+        return ProposalCodec.decode(id, bytes, phaseLengths);
+    }
+
+    // Stores the current phase length parameters under a new snapshot id.
+    private static void snapshotPhaseLengths() {
+        ByteString current = Storage.get(getReadOnlyContext(), PHASE_LENGTHS_SNAPSHOT_KEY);
+        int snapshotId = current == null ? 0 : current.toInt() + 1;
+        if (!ProposalCodec.fits(snapshotId, ProposalCodec.SNAPSHOT_ID_SIZE))
+            fireErrorAndAbort("Too many phase length changes", "changeParam");
+        int reviewLength = parameters.getInt(REVIEW_LENGTH_KEY);
+        int votingLength = parameters.getInt(VOTING_LENGTH_KEY);
+        int timeLockLength = parameters.getInt(TIMELOCK_LENGTH_KEY);
+        int expirationLength = parameters.getInt(EXPIRATION_LENGTH_KEY);
+        // The phase ends of a proposal endorsed now must fit the timestamp fields.
+        if (!ProposalCodec.fits(getTime() + reviewLength + votingLength + timeLockLength + expirationLength,
+                ProposalCodec.TIMESTAMP_SIZE))
+            fireErrorAndAbort("Phase lengths too long", "changeParam");
+        phaseLengthSnapshots.put(snapshotId, ProposalCodec.encodePhaseLengths(reviewLength, votingLength,
+                timeLockLength, expirationLength));
+        Storage.put(ctx, PHASE_LENGTHS_SNAPSHOT_KEY, snapshotId);
+    }
+
+    private static Intent[] migrateIntents(IntentOld[] intents) {
+        List<Intent> newIntents = new List<>();
+        for (IntentOld intent : intents) {
+            newIntents.add(new Intent(intent.targetContract, intent.method, intent.params, CallFlags.All));
+        }
+        return newIntents.toArray();
     }
     // endregion GOVERNANCE PROCESS METHODS
 
@@ -529,6 +1214,12 @@ public class GrantSharesGov {
         abortIfCallerIsNotSelf();
         abortOnInvalidValue(paramKey, value);
         parameters.put(paramKey, value);
+        if (paramKey == MULTI_SIG_THRESHOLD_KEY) {
+            updateMembersMultiSigAccount();
+        } else if (paramKey == REVIEW_LENGTH_KEY || paramKey == VOTING_LENGTH_KEY || paramKey == TIMELOCK_LENGTH_KEY
+                || paramKey == EXPIRATION_LENGTH_KEY) {
+            snapshotPhaseLengths();
+        }
         paramChanged.fire(paramKey, value);
     }
 
@@ -538,7 +1229,8 @@ public class GrantSharesGov {
             case VOTING_LENGTH_KEY:
             case TIMELOCK_LENGTH_KEY:
             case EXPIRATION_LENGTH_KEY:
-                if (value < 0) fireErrorAndAbort("Invalid parameter value", "changeParam");
+                if (value < 0 || !ProposalCodec.fits(value, ProposalCodec.TIMESTAMP_SIZE))
+                    fireErrorAndAbort("Invalid parameter value", "changeParam");
                 break;
             case MIN_ACCEPTANCE_RATE_KEY:
             case MIN_QUORUM_KEY:
@@ -566,6 +1258,7 @@ public class GrantSharesGov {
         if (members.get(memberHash.toByteString()) != null) fireErrorAndAbort("Already a member", "addMember");
         members.put(memberHash.toByteString(), memberPubKey.toByteString());
         Storage.put(ctx, MEMBERS_COUNT_KEY, Storage.getInt(getReadOnlyContext(), MEMBERS_COUNT_KEY) + 1);
+        updateMembersMultiSigAccount();
         memberAdded.fire(memberHash);
     }
 
@@ -583,9 +1276,32 @@ public class GrantSharesGov {
         if (members.get(memberHash.toByteString()) == null) fireErrorAndAbort("Not a member", "removeMember");
         members.delete(memberHash.toByteString());
         Storage.put(ctx, MEMBERS_COUNT_KEY, Storage.getInt(getReadOnlyContext(), MEMBERS_COUNT_KEY) - 1);
+        updateMembersMultiSigAccount();
         memberRemoved.fire(memberHash);
     }
 
+    /**
+     * Sets the treasury that the paused state of this contract is pushed to on {@link GrantSharesGov#pause()} and
+     * {@link GrantSharesGov#unpause()}. The treasury keeps a copy of the paused state so that it doesn't have to call
+     * this contract on every operation.
+     * <p>
+     * This method can only be called by the contract itself.
+     *
+     * @param treasury The treasury's script hash. Null or the zero hash to remove the treasury.
+     */
+    public static void setTreasury(Hash160 treasury) {
+        abortIfPaused();
+        abortIfCallerIsNotSelf();
+        if (treasury == null || treasury == Hash160.zero()) {
+            Storage.delete(ctx, TREASURY_KEY);
+            treasuryChanged.fire(null);
+            return;
+        }
+        if (!Hash160.isValid(treasury)) fireErrorAndAbort("Invalid treasury", "setTreasury");
+        Storage.put(ctx, TREASURY_KEY, treasury);
+        treasuryChanged.fire(treasury);
+    }
+
     /**
      * Updates the contract to the new NEF and manifest.
      * <p>
@@ -602,32 +1318,70 @@ public class GrantSharesGov {
         updating.fire();
         ContractManagement.update(nef, manifest, data);
     }
+
+    /**
+     * Calls the given method with the parameters at {@code blobParams} replaced by the staged blobs they reference.
+     * This allows proposals to carry only the hashes of large parameters, e.g., the NEF and manifest of a contract
+     * update, instead of the parameters themselves. The blobs are resolved when the proposal is executed.
+     * <p>
+     * This method can only be called by the contract itself.
+     *
+     * @param targetContract The contract to call.
+     * @param method         The method to call.
+     * @param params         The parameters. The ones at the indices in {@code blobParams} must be blob hashes.
+     * @param blobParams     The indices of the parameters that reference a blob.
+     * @return the value returned by the called method.
+     */
+    public static Object callWithBlobs(Hash160 targetContract, String method, Object[] params, int[] blobParams) {
+        abortIfPaused();
+        abortIfCallerIsNotSelf();
+        if (targetContract == ContractManagement.getHash())
+            fireErrorAndAbort("Invalid target contract", "callWithBlobs");
+        for (int i : blobParams) {
+            ByteString blob = getBlob((ByteString) params[i]);
+            if (blob == null) fireErrorAndAbort("Blob doesn't exist", "callWithBlobs");
+            params[i] = blob;
+        }
+        return Contract.call(targetContract, method, CallFlags.All, params);
+    }
     //endregion PROPOSAL-INVOKED METHODS
 
     public static void pause() {
-        Hash160 membersMultiSigHash = null;
-        try {
-            membersMultiSigHash = calcMembersMultiSigAccount();
-        } catch (Exception e) {
-            fireErrorAndAbort(e.getMessage(), "pause");
-        }
+        Hash160 membersMultiSigHash = new Hash160(Storage.get(getReadOnlyContext(), MEMBERS_MULTI_SIG_ACCOUNT_KEY));
         if (!checkWitness(membersMultiSigHash)) fireErrorAndAbort("Not authorized", "pause");
         Storage.put(ctx, PAUSED_KEY, 1);
+        pushPausedState(true);
         paused.fire();
     }
 
     public static void unpause() {
-        Hash160 membersMultiSigHash = null;
-        try {
-            membersMultiSigHash = calcMembersMultiSigAccount();
-        } catch (Exception e) {
-            fireErrorAndAbort(e.getMessage(), "pause");
-        }
+        Hash160 membersMultiSigHash = new Hash160(Storage.get(getReadOnlyContext(), MEMBERS_MULTI_SIG_ACCOUNT_KEY));
         if (!checkWitness(membersMultiSigHash)) fireErrorAndAbort("Not authorized", "unpause");
         Storage.put(ctx, PAUSED_KEY, 0);
+        pushPausedState(false);
         unpaused.fire();
     }
 
+    // A failing treasury must not prevent pausing this contract. The treasury falls back to reading the paused state
+    // from this contract when it is drained. Aborts can't be caught, so the treasury is only called if it still has
+    // the setPaused method, e.g., it wasn't destroyed or updated to a version without it.
+    private static void pushPausedState(boolean isPaused) {
+        ByteString treasury = Storage.get(getReadOnlyContext(), TREASURY_KEY);
+        if (treasury == null) {
+            return;
+        }
+        Hash160 treasuryHash = new Hash160(treasury);
+        if (!ContractManagement.hasMethod(treasuryHash, "setPaused", 1)) {
+            error.fire("Treasury can't be paused", "pushPausedState");
+            return;
+        }
+        try {
+            Contract.call(treasuryHash, "setPaused", CallFlags.States, new Object[]{isPaused});
+        } catch (Exception e) {
+            error.fire("Failed to push the paused state to the treasury", "pushPausedState");
+        }
+    }
+
     private static void abortIfCallerIsNotSelf() {
         if (Runtime.getCallingScriptHash() != Runtime.getExecutingScriptHash()) {
             fireErrorAndAbort("Method only callable by the contract itself", "abortIfCallerIsNotSelf");
@@ -64,7 +64,7 @@ public class GrantSharesGovOld {
     static final StorageContext ctx = Storage.getStorageContext();
     static final StorageMap proposals = new StorageMap(ctx, 1); // [int id: Proposal proposal]
     static final StorageMap proposalData = new StorageMap(ctx, 2); // [int id: ProposalData proposalData]
-    static final StorageMap proposalVotes = new StorageMap(ctx, 3); // [int id: ProposalVotes proposalVotes]
+    static final StorageMap proposalVotes = new StorageMap(ctx, 3); // [int id: ProposalVotesOld proposalVotes]
     static final StorageMap parameters = new StorageMap(ctx, 4); // [String param_key: int param_value ]
     static final byte MEMBERS_MAP_PREFIX = 5;
     static final StorageMap members = new StorageMap(ctx, MEMBERS_MAP_PREFIX); // [Hash160 accHash: ECPoint publicKey]
@@ -205,7 +205,7 @@ public class GrantSharesGovOld {
         }
         bytes = proposalVotes.get(id);
         if (bytes != null) {
-            ProposalVotes p = (ProposalVotes) deserialize(bytes);
+            ProposalVotesOld p = (ProposalVotesOld) deserialize(bytes);
             dto.approve = p.approve;
             dto.reject = p.reject;
             dto.abstain = p.abstain;
@@ -368,7 +368,7 @@ public class GrantSharesGovOld {
         proposals.put(id, serialize(new Proposal(id, expiration)));
         proposalData.put(id, serialize(new ProposalDataOld(proposer, linkedProposal, acceptanceRate, quorum, intents,
                 offchainUri)));
-        proposalVotes.put(id, serialize(new ProposalVotes()));
+        proposalVotes.put(id, serialize(new ProposalVotesOld()));
         Storage.put(ctx, PROPOSALS_COUNT_KEY, id + 1);
 
         // An event can take max 1024 bytes data. Thus, we're not passing the offchainUri since it could be longer.
@@ -436,7 +436,7 @@ public class GrantSharesGovOld {
         int time = getTime();
         if (proposal.endorser == null || time < proposal.reviewEnd || time >= proposal.votingEnd)
             throw new Exception("[GrantSharesGov.vote] Proposal not active");
-        ProposalVotes pv = (ProposalVotes) deserialize(proposalVotes.get(id));
+        ProposalVotesOld pv = (ProposalVotesOld) deserialize(proposalVotes.get(id));
         if (pv.voters.containsKey(voter))
             throw new Exception("[GrantSharesGov.vote] Already voted on this proposal");
 
@@ -474,7 +474,7 @@ public class GrantSharesGovOld {
         if (proposal.expiration <= getTime())
             throw new Exception("[GrantSharesGov.execute] Proposal expired");
         ProposalDataOld data = (ProposalDataOld) deserialize(proposalData.get(id));
-        ProposalVotes votes = (ProposalVotes) deserialize(proposalVotes.get(id));
+        ProposalVotesOld votes = (ProposalVotesOld) deserialize(proposalVotes.get(id));
         int voteCount = votes.approve + votes.abstain + votes.reject;
         if (voteCount * 100 / Storage.getInt(getReadOnlyContext(), MEMBERS_COUNT_KEY) < data.quorum)
             throw new Exception("[GrantSharesGov.execute] Quorum not reached");
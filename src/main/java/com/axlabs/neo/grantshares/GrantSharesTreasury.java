@@ -36,6 +36,7 @@ import static io.neow3j.devpack.Hash160.zero;
 import static io.neow3j.devpack.Runtime.checkWitness;
 import static io.neow3j.devpack.Runtime.getCallingScriptHash;
 import static io.neow3j.devpack.Storage.getReadOnlyContext;
+import static io.neow3j.devpack.constants.FindOptions.DeserializeValues;
 import static io.neow3j.devpack.constants.FindOptions.KeysOnly;
 import static io.neow3j.devpack.constants.FindOptions.RemovePrefix;
 import static io.neow3j.devpack.constants.FindOptions.ValuesOnly;
@@ -53,13 +54,33 @@ import static io.neow3j.devpack.constants.FindOptions.ValuesOnly;
 public class GrantSharesTreasury {
 
     static final String OWNER_KEY = "owner";
-    static final String FUNDERS_PREFIX = "funders";
-    static final String WHITELISTED_TOKENS_PREFIX = "whitelistedTokens";
+    public static final String FUNDERS_PREFIX = "funders";
+    public static final String WHITELISTED_TOKENS_PREFIX = "whitelistedTokens";
     static final String MULTI_SIG_THRESHOLD_KEY = "threshold";
+    static final String FUNDER_KEYS_COUNT_KEY = "#_funder_keys"; // int
+    static final String FUNDERS_MULTI_SIG_ACCOUNT_KEY = "multisig_account"; // Hash160
+    static final String PAUSED_KEY = "paused"; // boolean, copy of the owner's paused state
+    public static final String VESTING_SCHEDULES_PREFIX = "vestingSchedules";
+    static final String VESTING_CLAIMED_TRANCHES_PREFIX = "vestingClaimed";
+    static final String VESTING_SCHEDULES_COUNT_KEY = "#_vesting_schedules"; // int
+    static final String BALANCES_PREFIX = "balances";
+    static final String BALANCE_TOKEN_INDEXES_PREFIX = "balanceTokenIndexes";
+    static final String BALANCE_TOKENS_PREFIX = "balanceTokens";
+    static final String BALANCE_TOKENS_COUNT_KEY = "#_balance_tokens"; // int
+    static final String DRAIN_CURSOR_KEY = "drain_cursor"; // int
 
     static final StorageContext ctx = Storage.getStorageContext();
     static final StorageMap funders = new StorageMap(ctx, FUNDERS_PREFIX); // [hash, List<ECPoint>]
     static final StorageMap whitelistedTokens = new StorageMap(ctx, WHITELISTED_TOKENS_PREFIX); // [hash, max_amount]
+    // [hash, balance] The treasury's balances as tracked from its in- and outflows.
+    static final StorageMap balances = new StorageMap(ctx, BALANCES_PREFIX);
+    // [hash, int index] and [int index, hash] Numbers the tokens with a tracked balance for batched draining.
+    static final StorageMap balanceTokenIndexes = new StorageMap(ctx, BALANCE_TOKEN_INDEXES_PREFIX);
+    static final StorageMap balanceTokens = new StorageMap(ctx, BALANCE_TOKENS_PREFIX);
+    // [int id, VestingSchedule schedule]
+    static final StorageMap vestingSchedules = new StorageMap(ctx, VESTING_SCHEDULES_PREFIX);
+    // [int id, int claimedTranches]
+    static final StorageMap vestingClaimedTranches = new StorageMap(ctx, VESTING_CLAIMED_TRANCHES_PREFIX);
 
     @DisplayName("FunderAdded")
     static Event1Arg<Hash160> funderAdded;
@@ -87,6 +108,16 @@ public class GrantSharesTreasury {
     static Event3Args<Hash160, Integer, Hash160> tokensReceived;
     @DisplayName("WhitelistedTokenMigrated")
     static Event2Args<Hash160, Integer> whitelistedTokenMigrated;
+    @DisplayName("VestingScheduleCreated")
+    static Event3Args<Integer, Hash160, Hash160> vestingScheduleCreated;
+    @DisplayName("VestingScheduleCancelled")
+    static Event1Arg<Integer> vestingScheduleCancelled;
+    @DisplayName("VestingClaimed")
+    static Event3Args<Integer, Hash160, Integer> vestingClaimed;
+    @DisplayName("DrainBatchProcessed")
+    static Event3Args<Integer, Integer, Integer> drainBatchProcessed;
+    @DisplayName("BalanceReconciled")
+    static Event3Args<Hash160, Integer, Integer> balanceReconciled;
     @DisplayName("Error")
     static Event2Args<String, String> error;
 
@@ -125,6 +156,7 @@ public class GrantSharesTreasury {
 
             // Set initial funders.
             Object[][] accounts = (Object[][]) config[1]; // [  [hash, [keys...]],  [hash, [keys...]]  ]
+            int keysCount = 0;
             for (Object[] account : accounts) {
                 Hash160 accountHash = (Hash160) account[0];
                 assert isValid(accountHash) && accountHash != Hash160.zero();
@@ -133,7 +165,9 @@ public class GrantSharesTreasury {
                     assert ECPoint.isValid(key);
                 }
                 funders.put(accountHash.toByteString(), StdLib.serialize(accountKeys));
+                keysCount += accountKeys.length;
             }
+            Storage.put(ctx, FUNDER_KEYS_COUNT_KEY, keysCount);
 
             // Set whitelisted tokens
             Map<Hash160, Integer> tokens = (Map<Hash160, Integer>) config[2];
@@ -142,12 +176,15 @@ public class GrantSharesTreasury {
             for (int i = 0; i < hashes.length; i++) {
                 assert isValid(hashes[i]) && hashes[i] != zero() && maxes[i] > 0;
                 whitelistedTokens.put(hashes[i].toByteString(), maxes[i]);
+                trackBalance(hashes[i]);
             }
 
             // set parameter
             int thresholdRatio = (int) config[3];
             assert thresholdRatio > 0 && thresholdRatio <= 100;
             Storage.put(ctx, MULTI_SIG_THRESHOLD_KEY, thresholdRatio);
+            updateFundersMultiSigAddress();
+            tryToSyncPausedState();
         } else {
             Map<Hash160, Integer> tokens = (Map<Hash160, Integer>) data;
             Hash160[] hashes = tokens.keys();
@@ -155,8 +192,12 @@ public class GrantSharesTreasury {
             for (int i = 0; i < hashes.length; i++) {
                 assert isValid(hashes[i]) && hashes[i] != zero() && maxes[i] > 0;
                 whitelistedTokens.put(hashes[i].toByteString(), maxes[i]);
+                trackBalance(hashes[i]);
                 whitelistedTokenMigrated.fire(hashes[i], maxes[i]);
             }
+            Storage.put(ctx, FUNDER_KEYS_COUNT_KEY, getFunderPublicKeys().size());
+            updateFundersMultiSigAddress();
+            tryToSyncPausedState();
         }
     }
 
@@ -178,9 +219,11 @@ public class GrantSharesTreasury {
         if (sender == null) {
             // Only allow new token minting from GasToken.
             assert getCallingScriptHash() == GasToken.getHash();
+            addToBalance(getCallingScriptHash(), amount);
             return;
         }
         assert funders.get(sender.toByteString()) != null;
+        addToBalance(getCallingScriptHash(), amount);
         tokensReceived.fire(sender, amount, Runtime.getCallingScriptHash());
     }
 
@@ -200,6 +243,17 @@ public class GrantSharesTreasury {
         return funders;
     }
 
+    /**
+     * Gets an iterator over all funders. In contrast to {@link GrantSharesTreasury#getFunders()} the funders are not
+     * collected in the invocation. Clients can traverse the iterator in an RPC session.
+     *
+     * @return an iterator over the funder's addresses mapped to their public keys.
+     */
+    @Safe
+    public static Iterator<Struct<Hash160, ECPoint[]>> getFundersIterator() {
+        return funders.find((byte) (RemovePrefix | DeserializeValues));
+    }
+
     private static List<ECPoint> getFunderPublicKeys() {
         Iterator<ByteString> it = funders.find(ValuesOnly);
         List<ECPoint> pubKeys = new List<>();
@@ -217,14 +271,32 @@ public class GrantSharesTreasury {
      * calculated from the value of the {@link GrantSharesGov#MULTI_SIG_THRESHOLD_KEY} parameter and the number of
      * public keys involved in the treasury as funders. This number can be higher than the number of funder
      * addresses because of possible multi-sig addresses.
+     * <p>
+     * The address is derived whenever the funders or the threshold ratio change and is read from storage here.
      *
      * @return The multi-sig account hash.
      */
     @Safe
     public static Hash160 calcFundersMultiSigAddress() throws Exception {
-        List<ECPoint> funderPublicKeys = getFunderPublicKeys();
-        return Account.createMultiSigAccount(calcFundersMultiSigAddressThreshold(funderPublicKeys.size()),
-                funderPublicKeys.toArray());
+        ByteString account = Storage.get(getReadOnlyContext(), FUNDERS_MULTI_SIG_ACCOUNT_KEY);
+        if (account == null)
+            throw new Exception("[GrantSharesTreasury.calcFundersMultiSigAddress] No funder public keys");
+        return new Hash160(account);
+    }
+
+    /**
+     * Derives the funders multi-sig address from the current funder public keys and threshold ratio and stores it.
+     * Must be called whenever one of these changes. If there are no funder public keys the stored address is removed.
+     */
+    private static void updateFundersMultiSigAddress() {
+        try {
+            int threshold = calcFundersMultiSigAddressThreshold(
+                    Storage.getInt(getReadOnlyContext(), FUNDER_KEYS_COUNT_KEY));
+            Storage.put(ctx, FUNDERS_MULTI_SIG_ACCOUNT_KEY,
+                    Account.createMultiSigAccount(threshold, getFunderPublicKeys().toArray()));
+        } catch (Exception e) {
+            Storage.delete(ctx, FUNDERS_MULTI_SIG_ACCOUNT_KEY);
+        }
     }
 
     /**
@@ -237,7 +309,7 @@ public class GrantSharesTreasury {
      */
     @Safe
     public static int calcFundersMultiSigAddressThreshold() throws Exception {
-        return calcFundersMultiSigAddressThreshold(getFunderPublicKeys().size());
+        return calcFundersMultiSigAddressThreshold(Storage.getInt(getReadOnlyContext(), FUNDER_KEYS_COUNT_KEY));
     }
 
     /**
@@ -276,15 +348,150 @@ public class GrantSharesTreasury {
         return tokens;
     }
 
+    /**
+     * Gets an iterator over all whitelisted tokens. In contrast to {@link GrantSharesTreasury#getWhitelistedTokens()}
+     * the tokens are not collected in the invocation. Clients can traverse the iterator in an RPC session.
+     *
+     * @return an iterator over the token hashes mapped to the corresponding max funding amount.
+     */
+    @Safe
+    public static Iterator<Struct<Hash160, Integer>> getWhitelistedTokensIterator() {
+        return whitelistedTokens.find(RemovePrefix);
+    }
+
+    /**
+     * Gets the balances of all whitelisted tokens and all tokens the treasury received. The balances are tracked from
+     * the treasury's in- and outflows, so that they can be read without calling each token contract. They can drift
+     * from the real balances, e.g., if a token changes balances without a transfer. Use
+     * {@link GrantSharesTreasury#reconcileBalances(int, int)} to correct them.
+     *
+     * @return the token hashes mapped to the treasury's balance.
+     */
+    @Safe
+    public static Map<Hash160, Integer> getTreasuryBalances() {
+        Iterator<Struct<Hash160, Integer>> it = balances.find(RemovePrefix);
+        Map<Hash160, Integer> tokens = new Map<>();
+        while (it.next()) {
+            Struct<Hash160, Integer> i = it.get();
+            tokens.put(i.key, i.value);
+        }
+        return tokens;
+    }
+
+    /**
+     * Sets the tracked balances of at most {@code maxTokens} tokens to the balances reported by the token contracts.
+     * Fires a {@code BalanceReconciled} event for every balance that had drifted. All whitelisted tokens and all
+     * tokens the treasury ever received have a tracked balance. They are reconciled in the order in which they were
+     * first tracked, so that all of them can be reconciled in several calls if one call would exceed the GAS limit.
+     * <p>
+     * The balances of a treasury that is updated from a version without tracked balances start at zero and must be
+     * reconciled after the update.
+     * <p>
+     * Can be called by anyone, also if the contract is paused, because it only corrects the tracked balances.
+     *
+     * @param start     The position of the first token to reconcile.
+     * @param maxTokens The maximum number of tokens to reconcile.
+     * @return the position to continue with or -1 if the last token was reconciled.
+     */
+    public static int reconcileBalances(int start, int maxTokens) {
+        if (start < 0 || maxTokens <= 0) fireErrorAndAbort("Invalid batch", "reconcileBalances");
+        int count = getBalanceTokensCount();
+        int end = start + maxTokens;
+        if (end > count) {
+            end = count;
+        }
+        Hash160 selfHash = Runtime.getExecutingScriptHash();
+        for (int i = start; i < end; i++) {
+            reconcileBalance(new Hash160(balanceTokens.get(i)), selfHash);
+        }
+        return end == count ? -1 : end;
+    }
+
+    private static void reconcileBalance(Hash160 token, Hash160 selfHash) {
+        int tracked = balances.getIntOrZero(token.toByteString());
+        int actual = (int) Contract.call(token, "balanceOf", CallFlags.ReadOnly, new Object[]{selfHash});
+        if (tracked != actual) {
+            setBalance(token, actual);
+            balanceReconciled.fire(token, tracked, actual);
+        }
+    }
+
+    // Adds the token to the tracked balances if it isn't tracked yet.
+    private static void trackBalance(Hash160 token) {
+        if (balances.get(token.toByteString()) == null) {
+            setBalance(token, 0);
+        }
+    }
+
+    private static void addToBalance(Hash160 token, int amount) {
+        setBalance(token, balances.getIntOrZero(token.toByteString()) + amount);
+    }
+
+    private static void setBalance(Hash160 token, int balance) {
+        ByteString key = token.toByteString();
+        if (balances.get(key) == null) {
+            int index = getBalanceTokensCount();
+            balanceTokenIndexes.put(key, index);
+            balanceTokens.put(index, key);
+            Storage.put(ctx, BALANCE_TOKENS_COUNT_KEY, index + 1);
+        }
+        balances.put(key, balance);
+    }
+
+    private static int getBalanceTokensCount() {
+        ByteString countBytes = Storage.get(getReadOnlyContext(), BALANCE_TOKENS_COUNT_KEY);
+        return countBytes == null ? 0 : countBytes.toInt();
+    }
+
     /**
      * Checks if the contract is paused.
+     * <p>
+     * The treasury is paused if its owner is paused. The owner's paused state is copied to this contract's storage
+     * whenever it changes, so that it can be checked without calling the owner. The copy is only kept up to date once
+     * the owner knows this treasury, i.e., after {@link GrantSharesGov#setTreasury(Hash160)}. Until then, the
+     * drain methods read the owner's state themselves and {@link GrantSharesTreasury#syncPausedState()} can be used
+     * to update the copy.
      *
      * @return true if paused. False otherwise.
      */
     @Safe
     public static boolean isPaused() {
-        return (boolean) Contract.call(new Hash160(Storage.get(getReadOnlyContext(), OWNER_KEY)),
+        return Storage.getBoolean(getReadOnlyContext(), PAUSED_KEY);
+    }
+
+    /**
+     * Sets the paused state of this contract.
+     * <p>
+     * This method can only be called by the owner. It can be called even if the contract is paused.
+     *
+     * @param isPaused The owner's paused state.
+     */
+    public static void setPaused(boolean isPaused) {
+        abortIfCallerIsNotOwner();
+        Storage.put(ctx, PAUSED_KEY, isPaused ? 1 : 0);
+    }
+
+    /**
+     * Reads the paused state of the owner and copies it to this contract's storage. Can be called by anyone in case
+     * the owner's state was changed without being pushed to this contract, e.g., because the owner doesn't know
+     * this treasury yet.
+     *
+     * @return true if paused. False otherwise.
+     */
+    public static boolean syncPausedState() {
+        boolean isPaused = (boolean) Contract.call(new Hash160(Storage.get(getReadOnlyContext(), OWNER_KEY)),
                 "isPaused", CallFlags.ReadOnly, new Object[]{});
+        Storage.put(ctx, PAUSED_KEY, isPaused ? 1 : 0);
+        return isPaused;
+    }
+
+    // Keeps the stored paused state if the owner can't be asked, e.g., because it isn't deployed yet.
+    private static boolean tryToSyncPausedState() {
+        try {
+            return syncPausedState();
+        } catch (Exception e) {
+            return isPaused();
+        }
     }
 
     /**
@@ -311,6 +518,7 @@ public class GrantSharesTreasury {
         if (value <= 0 || value > 100)
             fireErrorAndAbort("Invalid threshold ratio", "setFundersMultiSigThresholdRatio");
         Storage.put(ctx, MULTI_SIG_THRESHOLD_KEY, value);
+        updateFundersMultiSigAddress();
         thresholdChanged.fire(value);
     }
 
@@ -335,6 +543,9 @@ public class GrantSharesTreasury {
             if (!ECPoint.isValid(key)) fireErrorAndAbort("Invalid public key", "addFunder");
         }
         funders.put(accountHash.toByteString(), StdLib.serialize(publicKeys));
+        Storage.put(ctx, FUNDER_KEYS_COUNT_KEY,
+                Storage.getInt(getReadOnlyContext(), FUNDER_KEYS_COUNT_KEY) + publicKeys.length);
+        updateFundersMultiSigAddress();
         funderAdded.fire(accountHash);
     }
 
@@ -348,8 +559,12 @@ public class GrantSharesTreasury {
     public static void removeFunder(Hash160 accountHash) {
         abortIfPaused();
         abortIfCallerIsNotOwner();
-        if (funders.get(accountHash.toByteString()) == null) fireErrorAndAbort("Not a funder", "removeFunder");
+        ByteString publicKeys = funders.get(accountHash.toByteString());
+        if (publicKeys == null) fireErrorAndAbort("Not a funder", "removeFunder");
         funders.delete(accountHash.toByteString());
+        Storage.put(ctx, FUNDER_KEYS_COUNT_KEY, Storage.getInt(getReadOnlyContext(), FUNDER_KEYS_COUNT_KEY)
+                - ((ECPoint[]) StdLib.deserialize(publicKeys)).length);
+        updateFundersMultiSigAddress();
         funderRemoved.fire(accountHash);
     }
 
@@ -368,6 +583,7 @@ public class GrantSharesTreasury {
         if (!isValid(token) || token == zero()) fireErrorAndAbort("Invalid token hash", "addWhitelistedToken");
         if (maxFundingAmount <= 0) fireErrorAndAbort("Invalid max funding amount", "addWhitelistedToken");
         whitelistedTokens.put(token.toByteString(), maxFundingAmount);
+        trackBalance(token);
         whitelistedTokenAdded.fire(token, maxFundingAmount);
     }
 
@@ -406,6 +622,7 @@ public class GrantSharesTreasury {
         Object[] params = new Object[]{Runtime.getExecutingScriptHash(), to, amount, new Object[]{}};
         boolean success = (boolean) Contract.call(tokenContract, "transfer", CallFlags.All, params);
         if (success) {
+            addToBalance(tokenContract, -amount);
             tokensReleased.fire(tokenContract, to, amount);
         } else {
             releaseFailed.fire(tokenContract, to, amount);
@@ -413,68 +630,273 @@ public class GrantSharesTreasury {
     }
 
     /**
-     * Drain all tokens from the treasury contract to the funders multi-sig address.
+     * Calls the transfer method of {@code tokenContract} once for every receiver with the amount at the same index. The
+     * sender being this treasury contract. Each amount and the sum of all amounts must not exceed the token's max
+     * funding amount.
+     * <p>
+     * Fires a {@code TokenReleased} or {@code TokenReleaseFailed} event for each transfer.
+     * <p>
+     * This method fails if the contract is paused.
+     *
+     * @param tokenContract The token to transfer.
+     * @param to            The receivers of the transfers.
+     * @param amounts       The amounts to transfer.
+     */
+    public static void releaseTokensBatch(Hash160 tokenContract, Hash160[] to, int[] amounts) {
+        abortIfPaused();
+        abortIfCallerIsNotOwner();
+        int maxFundingAmount = whitelistedTokens.getIntOrZero(tokenContract.toByteString());
+        if (maxFundingAmount == 0) fireErrorAndAbort("Token not whitelisted", "releaseTokensBatch");
+        if (to.length != amounts.length)
+            fireErrorAndAbort("Number of receivers and amounts differ", "releaseTokensBatch");
+        int total = 0;
+        for (int i = 0; i < amounts.length; i++) {
+            if (amounts[i] > maxFundingAmount)
+                fireErrorAndAbort("Above token's max funding amount", "releaseTokensBatch");
+            total += amounts[i];
+        }
+        if (total > maxFundingAmount)
+            fireErrorAndAbort("Batch total above token's max funding amount", "releaseTokensBatch");
+        Hash160 selfHash = Runtime.getExecutingScriptHash();
+        for (int i = 0; i < to.length; i++) {
+            Object[] params = new Object[]{selfHash, to[i], amounts[i], new Object[]{}};
+            boolean success = (boolean) Contract.call(tokenContract, "transfer", CallFlags.All, params);
+            if (success) {
+                addToBalance(tokenContract, -amounts[i]);
+                tokensReleased.fire(tokenContract, to[i], amounts[i]);
+            } else {
+                releaseFailed.fire(tokenContract, to[i], amounts[i]);
+            }
+        }
+    }
+
+    /**
+     * Registers a schedule that pays out the given tranches to the beneficiary. The beneficiary claims each tranche
+     * with {@link GrantSharesTreasury#claim(int)} once its unlock time has passed. This way, a grant with several
+     * milestones only needs one proposal.
+     * <p>
+     * Each tranche must be positive and the sum of the tranches must not exceed the token's max funding amount. The
+     * unlock times must be strictly ascending.
+     * <p>
+     * This method can only be called by the treasury owner and fails if the contract is paused.
+     *
+     * @param tokenContract The token to pay out.
+     * @param beneficiary   The account that can claim the tranches.
+     * @param amounts       The amounts of the tranches.
+     * @param unlockTimes   The times (in milliseconds) at which the tranches can be claimed.
+     * @return the id of the vesting schedule.
+     */
+    public static int createVestingSchedule(Hash160 tokenContract, Hash160 beneficiary, int[] amounts,
+            int[] unlockTimes) {
+        abortIfPaused();
+        abortIfCallerIsNotOwner();
+        int maxFundingAmount = whitelistedTokens.getIntOrZero(tokenContract.toByteString());
+        if (maxFundingAmount == 0) fireErrorAndAbort("Token not whitelisted", "createVestingSchedule");
+        if (!isValid(beneficiary) || beneficiary == zero())
+            fireErrorAndAbort("Invalid beneficiary", "createVestingSchedule");
+        if (amounts.length == 0 || amounts.length != unlockTimes.length)
+            fireErrorAndAbort("Invalid tranches", "createVestingSchedule");
+        int total = 0;
+        for (int i = 0; i < amounts.length; i++) {
+            if (amounts[i] <= 0) fireErrorAndAbort("Invalid tranches", "createVestingSchedule");
+            if (i > 0 && unlockTimes[i] <= unlockTimes[i - 1])
+                fireErrorAndAbort("Unlock times not ascending", "createVestingSchedule");
+            total += amounts[i];
+        }
+        if (total > maxFundingAmount) fireErrorAndAbort("Above token's max funding amount", "createVestingSchedule");
+        ByteString countBytes = Storage.get(getReadOnlyContext(), VESTING_SCHEDULES_COUNT_KEY);
+        int id = countBytes == null ? 0 : countBytes.toInt();
+        vestingSchedules.put(id,
+                StdLib.serialize(new VestingSchedule(tokenContract, beneficiary, amounts, unlockTimes)));
+        Storage.put(ctx, VESTING_SCHEDULES_COUNT_KEY, id + 1);
+        vestingScheduleCreated.fire(id, tokenContract, beneficiary);
+        return id;
+    }
+
+    /**
+     * Removes the vesting schedule. Tranches that were not claimed yet stay in the treasury.
+     * <p>
+     * This method can only be called by the treasury owner and fails if the contract is paused.
+     *
+     * @param scheduleId The id of the vesting schedule.
+     */
+    public static void cancelVestingSchedule(int scheduleId) {
+        abortIfPaused();
+        abortIfCallerIsNotOwner();
+        if (vestingSchedules.get(scheduleId) == null)
+            fireErrorAndAbort("Vesting schedule not found", "cancelVestingSchedule");
+        vestingSchedules.delete(scheduleId);
+        vestingClaimedTranches.delete(scheduleId);
+        vestingScheduleCancelled.fire(scheduleId);
+    }
+
+    /**
+     * Transfers all tranches of the vesting schedule that are unlocked and were not claimed yet to the beneficiary.
+     * The number of claimed tranches is tracked, so each tranche is only looked at once over all claims.
+     * <p>
+     * This method must be signed by the beneficiary and fails if the contract is paused.
+     *
+     * @param scheduleId The id of the vesting schedule.
+     * @return the claimed amount.
+     */
+    public static int claim(int scheduleId) {
+        abortIfPaused();
+        ByteString bytes = vestingSchedules.get(scheduleId);
+        if (bytes == null) fireErrorAndAbort("Vesting schedule not found", "claim");
+        VestingSchedule schedule = (VestingSchedule) StdLib.deserialize(bytes);
+        if (!checkWitness(schedule.beneficiary)) fireErrorAndAbort("Not authorised", "claim");
+
+        ByteString claimedBytes = vestingClaimedTranches.get(scheduleId);
+        int tranche = claimedBytes == null ? 0 : claimedBytes.toInt();
+        int now = Runtime.getTime();
+        int amount = 0;
+        while (tranche < schedule.amounts.length && schedule.unlockTimes[tranche] <= now) {
+            amount += schedule.amounts[tranche];
+            tranche++;
+        }
+        if (amount == 0) fireErrorAndAbort("Nothing to claim", "claim");
+        vestingClaimedTranches.put(scheduleId, tranche);
+
+        Object[] params = new Object[]{Runtime.getExecutingScriptHash(), schedule.beneficiary, amount, new Object[]{}};
+        if (!(boolean) Contract.call(schedule.token, "transfer", CallFlags.All, params))
+            fireErrorAndAbort("Transfer failed", "claim");
+        addToBalance(schedule.token, -amount);
+        vestingClaimed.fire(scheduleId, schedule.beneficiary, amount);
+        return amount;
+    }
+
+    /**
+     * Gets the vesting schedule with the given id.
+     *
+     * @param scheduleId The id of the vesting schedule.
+     * @return the vesting schedule with the number of claimed tranches.
+     */
+    @Safe
+    public static VestingScheduleDTO getVestingSchedule(int scheduleId) throws Exception {
+        ByteString bytes = vestingSchedules.get(scheduleId);
+        if (bytes == null) throw new Exception("[GrantSharesTreasury.getVestingSchedule] Vesting schedule not found");
+        VestingSchedule schedule = (VestingSchedule) StdLib.deserialize(bytes);
+        ByteString claimedBytes = vestingClaimedTranches.get(scheduleId);
+        return new VestingScheduleDTO(schedule, claimedBytes == null ? 0 : claimedBytes.toInt());
+    }
+
+    /**
+     * Drain all tokens from the treasury contract to the funders multi-sig address. All tokens with a tracked balance
+     * are drained, i.e., all whitelisted tokens and all tokens the treasury ever received. The amount drained is the
+     * balance reported by the token contract, so that a drifted tracked balance doesn't leave tokens behind. The
+     * tracked balances are reconciled on the way.
      * <p>
      * This method can only be called by the funders multi-sig account when the {@link GrantSharesGov} contract is
      * paused.
      */
     public static void drain() {
-        if (!isPaused()) fireErrorAndAbort("Contract is not paused", "drain");
+        Hash160 fundersMultiAddress = abortIfNotDrainable("drain");
+        Hash160 selfHash = Runtime.getExecutingScriptHash();
+        Iterator<ByteString> it = balances.find((byte) (RemovePrefix | KeysOnly));
+        while (it.next()) {
+            drainToken(new Hash160(it.get()), selfHash, fundersMultiAddress);
+        }
+        drained.fire();
+    }
+
+    /**
+     * Drains at most {@code maxTokens} tokens from the treasury contract to the funders multi-sig address. Use this
+     * instead of {@link GrantSharesTreasury#drain()} if draining all tokens in one transaction exceeds the GAS limit.
+     * <p>
+     * The tokens are drained in the order in which their balances were first tracked. The position after the last
+     * drained token is stored, so that the next call continues from there if no start token is given. Every call fires
+     * a {@code DrainBatchProcessed} event with the start position, the position after the batch and the number of
+     * tokens. The call that drains the last token fires {@code DrainedTokens} and resets the position.
+     * <p>
+     * This method can only be called by the funders multi-sig account when the {@link GrantSharesGov} contract is
+     * paused.
+     *
+     * @param startToken The token to start with. Null to continue after the previous batch.
+     * @param maxTokens  The maximum number of tokens to drain.
+     */
+    public static void drainBatch(Hash160 startToken, int maxTokens) {
+        Hash160 fundersMultiAddress = abortIfNotDrainable("drainBatch");
+        if (maxTokens <= 0) fireErrorAndAbort("Invalid batch size", "drainBatch");
+        int start = 0;
+        if (startToken == null) {
+            ByteString cursor = Storage.get(getReadOnlyContext(), DRAIN_CURSOR_KEY);
+            start = cursor == null ? 0 : cursor.toInt();
+        } else {
+            ByteString index = balanceTokenIndexes.get(startToken.toByteString());
+            if (index == null) fireErrorAndAbort("Token has no balance", "drainBatch");
+            start = index.toInt();
+        }
+        int count = getBalanceTokensCount();
+        int end = start + maxTokens;
+        if (end > count) {
+            end = count;
+        }
+        Hash160 selfHash = Runtime.getExecutingScriptHash();
+        for (int i = start; i < end; i++) {
+            drainToken(new Hash160(balanceTokens.get(i)), selfHash, fundersMultiAddress);
+        }
+        drainBatchProcessed.fire(start, end, count);
+        if (end == count) {
+            Storage.put(ctx, DRAIN_CURSOR_KEY, 0);
+            drained.fire();
+        } else {
+            Storage.put(ctx, DRAIN_CURSOR_KEY, end);
+        }
+    }
+
+    private static Hash160 abortIfNotDrainable(String method) {
+        // The owner might have been paused without pushing its state, e.g., because it didn't know this treasury yet.
+        if (!isPaused() && !tryToSyncPausedState()) fireErrorAndAbort("Contract is not paused", method);
         Hash160 fundersMultiAddress = null;
         try {
             fundersMultiAddress = calcFundersMultiSigAddress();
         } catch (Exception e) {
-            fireErrorAndAbort(e.getMessage(), "drain");
+            fireErrorAndAbort(e.getMessage(), method);
         }
-        if (!checkWitness(fundersMultiAddress)) fireErrorAndAbort("Not authorized", "drain");
-        Hash160 selfHash = Runtime.getExecutingScriptHash();
-        Iterator<ByteString> it = whitelistedTokens.find((byte) (RemovePrefix | KeysOnly));
-        while (it.next()) {
-            Hash160 token = new Hash160(it.get());
-            int balance = (int) Contract.call(token, "balanceOf", CallFlags.ReadOnly, new Object[]{selfHash});
-            if (balance > 0) {
-                Object[] params = new Object[]{selfHash, fundersMultiAddress, balance, new Object[]{}};
-                try {
-                    Contract.call(token, "transfer", CallFlags.All, params);
-                } catch (Exception e) {
-                    drainingFailed.fire(token);
-                }
-            }
+        if (!checkWitness(fundersMultiAddress)) fireErrorAndAbort("Not authorized", method);
+        return fundersMultiAddress;
+    }
+
+    private static void drainToken(Hash160 token, Hash160 selfHash, Hash160 receiver) {
+        int balance = 0;
+        boolean drained = false;
+        try {
+            balance = (int) Contract.call(token, "balanceOf", CallFlags.ReadOnly, new Object[]{selfHash});
+            Object[] params = new Object[]{selfHash, receiver, balance, new Object[]{}};
+            drained = balance <= 0 || (boolean) Contract.call(token, "transfer", CallFlags.All, params);
+        } catch (Exception e) {
+            drained = false;
+        }
+        if (!drained) {
+            drainingFailed.fire(token);
+            return;
+        }
+        int tracked = balances.getIntOrZero(token.toByteString());
+        if (tracked != balance) {
+            balanceReconciled.fire(token, tracked, balance);
+        }
+        if (tracked != 0) {
+            setBalance(token, 0);
         }
-        drained.fire();
     }
 
     /**
-     * Places the treasury's vote on the committee member with the least votes.
+     * Places the treasury's vote on the committee member with the least votes. Does nothing if the treasury already
+     * votes for that member.
      */
     public static void voteCommitteeMemberWithLeastVotes() {
         abortIfPaused();
-        ECPoint c = getCommitteeMemberWithLeastVotes();
-        if (!NeoToken.vote(Runtime.getExecutingScriptHash(), c))
+        ECPoint c = CommitteeVote.memberWithLeastVotes(NeoToken.getCommittee(), NeoToken.getCandidates());
+        Hash160 selfHash = Runtime.getExecutingScriptHash();
+        NeoToken.NeoAccountState state = NeoToken.getAccountState(selfHash);
+        if (state != null && state.voteTo == c) {
+            return;
+        }
+        if (!NeoToken.vote(selfHash, c))
             fireErrorAndAbort("Failed voting on candidate", "voteCommitteeMemberWithLeastVotes");
         voted.fire(c);
     }
 
-    private static ECPoint getCommitteeMemberWithLeastVotes() {
-        NeoToken.Candidate[] candidates = NeoToken.getCandidates();
-        List<ECPoint> committee = new List<>(NeoToken.getCommittee());
-        int leastVotes = 100000000; // just a large number for initialisation
-        ECPoint leastVotesMember = null;
-        for (int i = 0; i < candidates.length; i++) {
-            NeoToken.Candidate candidate = candidates[i];
-            for (int j = 0; j < committee.size(); j++) {
-                if (committee.get(j) == candidate.publicKey) {
-                    committee.remove(j); // Remove the committee member from list to shorten the loop.
-                    if (candidate.votes < leastVotes) {
-                        leastVotesMember = candidate.publicKey;
-                        leastVotes = candidate.votes;
-                    }
-                }
-            }
-        }
-        return leastVotesMember;
-    }
-
     /**
      * Updates the contract to the new NEF and manifest.
      * <p>
@@ -0,0 +1,211 @@
+package com.axlabs.neo.grantshares;
+
+import io.neow3j.devpack.ByteString;
+import io.neow3j.devpack.Hash160;
+import io.neow3j.devpack.Helper;
+
+import static io.neow3j.devpack.contracts.StdLib.deserialize;
+
+/**
+ * Encodes {@link Proposal}s into a packed byte layout with fixed-width fields for storage. This is smaller and cheaper
+ * to parse than the generic {@code StdLib} serialization.
+ * <p>
+ * The proposal id is not part of the layout because it is already the storage key. Timestamps and durations are
+ * stored as 6-byte little-endian integers. The phase ends of an endorsed proposal are not stored. They are derived
+ * from the endorsement time and the snapshot of the phase length parameters that was current at the endorsement.
+ * <pre>
+ * not endorsed:           endorsed:                   endorsed before phase length snapshots existed:
+ * offset size field       offset size field           offset size field
+ *      0    1 flags            0    1 flags                0    1 flags
+ *      1    6 expiration       1   20 endorser             1   20 endorser
+ *                             21    6 endorsement time    21    6 reviewEnd
+ *                             27    4 snapshot id         27    6 votingEnd
+ *                                                         33    6 timeLockEnd
+ *                                                         39    6 expiration
+ * </pre>
+ * The flags byte has bit 0 set if the proposal was executed, bit 1 if it was endorsed and bit 2 if its phase ends are
+ * stored explicitly.
+ * <p>
+ * A snapshot of the phase lengths holds the review, voting, time lock and expiration length in that order.
+ * <p>
+ * The layout constants are public, so that clients that read the storage directly decode the same layout.
+ */
+public class ProposalCodec {
+
+    public static final int FLAG_EXECUTED = 1;
+    public static final int FLAG_ENDORSED = 2;
+    public static final int FLAG_EXPLICIT_PHASES = 4;
+    public static final int TIMESTAMP_SIZE = 6;
+    public static final int HASH160_SIZE = 20;
+    public static final int SNAPSHOT_ID_SIZE = 4;
+    public static final int ID_SIZE = 4;
+
+    public static final int EXPIRATION_OFFSET = 1;
+    public static final int ENDORSER_OFFSET = 1;
+    public static final int ENDORSEMENT_TIME_OFFSET = 21;
+    public static final int SNAPSHOT_ID_OFFSET = 27;
+    public static final int REVIEW_END_OFFSET = 21;
+    public static final int VOTING_END_OFFSET = 27;
+    public static final int TIME_LOCK_END_OFFSET = 33;
+    public static final int EXPLICIT_EXPIRATION_OFFSET = 39;
+
+    // Records serialized with StdLib start with the type byte of a struct. The flags byte of a packed record never
+    // takes that value.
+    public static final int STRUCT_TYPE = 0x41;
+
+    /**
+     * Encodes the proposal id with a fixed width. Used as a key prefix for entries that belong to a proposal, so that
+     * the prefix of one proposal is never the prefix of another proposal's keys.
+     */
+    static ByteString encodeId(int id) {
+        return toFixedWidth(id, ID_SIZE);
+    }
+
+    static ByteString encodeCreated(int expiration) {
+        return toFixedWidth(0, 1).concat(toFixedWidth(expiration, TIMESTAMP_SIZE));
+    }
+
+    static ByteString encodeEndorsed(Hash160 endorser, int endorsementTime, int snapshotId) {
+        return toFixedWidth(FLAG_ENDORSED, 1)
+                .concat(endorser.toByteString())
+                .concat(toFixedWidth(endorsementTime, TIMESTAMP_SIZE))
+                .concat(toFixedWidth(snapshotId, SNAPSHOT_ID_SIZE));
+    }
+
+    /**
+     * Encodes the proposal with its phase ends. Used for proposals that were endorsed before the phase lengths were
+     * snapshotted.
+     */
+    static ByteString encodeExplicit(Proposal proposal) {
+        int flags = 0;
+        if (proposal.executed) {
+            flags += FLAG_EXECUTED;
+        }
+        if (proposal.endorser == null) {
+            return toFixedWidth(flags, 1).concat(toFixedWidth(proposal.expiration, TIMESTAMP_SIZE));
+        }
+        flags += FLAG_ENDORSED + FLAG_EXPLICIT_PHASES;
+        return toFixedWidth(flags, 1)
+                .concat(proposal.endorser.toByteString())
+                .concat(toFixedWidth(proposal.reviewEnd, TIMESTAMP_SIZE))
+                .concat(toFixedWidth(proposal.votingEnd, TIMESTAMP_SIZE))
+                .concat(toFixedWidth(proposal.timeLockEnd, TIMESTAMP_SIZE))
+                .concat(toFixedWidth(proposal.expiration, TIMESTAMP_SIZE));
+    }
+
+    /**
+     * Sets the executed flag of a packed proposal.
+     */
+    static ByteString withExecuted(ByteString bytes) {
+        int flags = bytes.range(0, 1).toInt() | FLAG_EXECUTED;
+        return toFixedWidth(flags, 1).concat(bytes.range(1, bytes.length() - 1));
+    }
+
+    static ByteString encodePhaseLengths(int reviewLength, int votingLength, int timeLockLength,
+            int expirationLength) {
+        return toFixedWidth(reviewLength, TIMESTAMP_SIZE)
+                .concat(toFixedWidth(votingLength, TIMESTAMP_SIZE))
+                .concat(toFixedWidth(timeLockLength, TIMESTAMP_SIZE))
+                .concat(toFixedWidth(expirationLength, TIMESTAMP_SIZE));
+    }
+
+    /**
+     * Gets the id of the phase length snapshot that the stored proposal refers to.
+     *
+     * @return the snapshot id or -1 if the proposal doesn't refer to a snapshot.
+     */
+    static int snapshotId(ByteString bytes) {
+        int flags = bytes.range(0, 1).toInt();
+        if (flags == STRUCT_TYPE || (flags & FLAG_ENDORSED) == 0 || (flags & FLAG_EXPLICIT_PHASES) != 0) {
+            return -1;
+        }
+        return bytes.range(SNAPSHOT_ID_OFFSET, SNAPSHOT_ID_SIZE).toInt();
+    }
+
+    /**
+     * Decodes the stored proposal with the given id. Also reads proposals that were stored with {@code StdLib}
+     * serialization before the contract update that introduced the packed layout and that were not migrated yet.
+     *
+     * @param id           The proposal id.
+     * @param bytes        The stored proposal.
+     * @param phaseLengths The phase length snapshot the proposal refers to. Is ignored if it doesn't refer to one.
+     * @return the proposal.
+     */
+    static Proposal decode(int id, ByteString bytes, ByteString phaseLengths) {
+        int flags = bytes.range(0, 1).toInt();
+        if (flags == STRUCT_TYPE) {
+            return (Proposal) deserialize(bytes);
+        }
+        Proposal proposal;
+        if ((flags & FLAG_ENDORSED) == 0) {
+            proposal = new Proposal(id, bytes.range(EXPIRATION_OFFSET, TIMESTAMP_SIZE).toInt());
+        } else if ((flags & FLAG_EXPLICIT_PHASES) != 0) {
+            proposal = new Proposal(id, bytes.range(EXPLICIT_EXPIRATION_OFFSET, TIMESTAMP_SIZE).toInt());
+            proposal.reviewEnd = bytes.range(REVIEW_END_OFFSET, TIMESTAMP_SIZE).toInt();
+            proposal.votingEnd = bytes.range(VOTING_END_OFFSET, TIMESTAMP_SIZE).toInt();
+            proposal.timeLockEnd = bytes.range(TIME_LOCK_END_OFFSET, TIMESTAMP_SIZE).toInt();
+        } else {
+            proposal = new Proposal(id, 0);
+            proposal.reviewEnd = bytes.range(ENDORSEMENT_TIME_OFFSET, TIMESTAMP_SIZE).toInt()
+                    + phaseLengths.range(0, TIMESTAMP_SIZE).toInt();
+            proposal.votingEnd = proposal.reviewEnd + phaseLengths.range(TIMESTAMP_SIZE, TIMESTAMP_SIZE).toInt();
+            proposal.timeLockEnd = proposal.votingEnd
+                    + phaseLengths.range(2 * TIMESTAMP_SIZE, TIMESTAMP_SIZE).toInt();
+            proposal.expiration = proposal.timeLockEnd
+                    + phaseLengths.range(3 * TIMESTAMP_SIZE, TIMESTAMP_SIZE).toInt();
+        }
+        if ((flags & FLAG_ENDORSED) != 0) {
+            proposal.endorser = new Hash160(bytes.range(ENDORSER_OFFSET, HASH160_SIZE));
+        }
+        proposal.executed = (flags & FLAG_EXECUTED) != 0;
+        return proposal;
+    }
+
+    /**
+     * Encodes the expiration and phase ends of the proposal for the index of active proposals.
+     */
+    static ByteString encodeActive(Proposal proposal) {
+        return toFixedWidth(proposal.expiration, TIMESTAMP_SIZE)
+                .concat(toFixedWidth(proposal.reviewEnd, TIMESTAMP_SIZE))
+                .concat(toFixedWidth(proposal.votingEnd, TIMESTAMP_SIZE))
+                .concat(toFixedWidth(proposal.timeLockEnd, TIMESTAMP_SIZE));
+    }
+
+    /**
+     * Decodes an entry of the index of active proposals. Only the expiration and phase ends are set.
+     */
+    static Proposal decodeActive(int id, ByteString bytes) {
+        Proposal proposal = new Proposal(id, bytes.range(0, TIMESTAMP_SIZE).toInt());
+        proposal.reviewEnd = bytes.range(6, TIMESTAMP_SIZE).toInt();
+        proposal.votingEnd = bytes.range(12, TIMESTAMP_SIZE).toInt();
+        proposal.timeLockEnd = bytes.range(18, TIMESTAMP_SIZE).toInt();
+        return proposal;
+    }
+
+    /**
+     * Encodes the non-negative value big-endian with a fixed width. Keys that start with it are ordered by the value
+     * when a storage search iterates them.
+     */
+    static ByteString encodeSortable(int value, int width) {
+        ByteString littleEndian = toFixedWidth(value, width);
+        ByteString bigEndian = new ByteString(new byte[0]);
+        for (int i = width - 1; i >= 0; i--) {
+            bigEndian = bigEndian.concat(littleEndian.range(i, 1));
+        }
+        return bigEndian;
+    }
+
+    /**
+     * Checks if the non-negative value fits into a field of the given width. The contract rejects values that don't
+     * fit before encoding them, because the encoding would fault.
+     */
+    static boolean fits(int value, int width) {
+        return Helper.toByteArray(value).length <= width;
+    }
+
+    // Pads the little-endian representation of the non-negative value with zeros. The value must fit the width.
+    private static ByteString toFixedWidth(int value, int width) {
+        byte[] bytes = Helper.toByteArray(value);
+        return new ByteString(bytes).concat(new ByteString(new byte[width - bytes.length]));
+    }
+}
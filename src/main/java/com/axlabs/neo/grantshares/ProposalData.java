@@ -5,6 +5,9 @@ import io.neow3j.devpack.Hash160;
 /**
  * Proposal information that is set at the time of creation of a proposal and doesn't change after that.
  * This data was separated from {@link Proposal} in order to save storage costs when updating a proposal.
+ * <p>
+ * The proposal's intents and offchain URI are stored separately, so that reading the proposer and rates doesn't
+ * require deserializing them.
  */
 public class ProposalData {
 
@@ -30,24 +33,11 @@ public class ProposalData {
      */
     public int quorum;
 
-    /**
-     * The proposal's intents executed if it gets accepted.
-     */
-    public Intent[] intents;
-
-    /**
-     * The URL of the GitHub issue where this proposal is discussed.
-     */
-    public String offchainUri;
-
-    public ProposalData(Hash160 proposer, int linkedProposal, int acceptanceRate,
-            int quorum, Intent[] intents, String offchainUri) {
+    public ProposalData(Hash160 proposer, int linkedProposal, int acceptanceRate, int quorum) {
         this.proposer = proposer;
         this.linkedProposal = linkedProposal;
         this.acceptanceRate = acceptanceRate;
         this.quorum = quorum;
-        this.intents = intents;
-        this.offchainUri = offchainUri;
     }
 
 }
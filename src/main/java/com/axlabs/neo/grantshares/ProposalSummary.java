@@ -0,0 +1,25 @@
+package com.axlabs.neo.grantshares;
+
+import io.neow3j.devpack.Hash160;
+
+/**
+ * Used to return a compact summary of a proposal in the {@link GrantSharesGov} contract. In contrast to
+ * {@link ProposalDTO} it doesn't contain the intents, the offchain URI and the voters of a proposal.
+ */
+public class ProposalSummary {
+
+    public int id;
+    public Hash160 proposer;
+    public Hash160 endorser;
+    public int reviewEnd;
+    public int votingEnd;
+    public int queuedEnd;
+    public int expiration;
+    public boolean executed;
+    public int approve;
+    public int reject;
+    public int abstain;
+
+    public ProposalSummary() {
+    }
+}
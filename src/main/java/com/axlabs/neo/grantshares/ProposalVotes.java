@@ -1,10 +1,10 @@
 package com.axlabs.neo.grantshares;
 
-import io.neow3j.devpack.Hash160;
-import io.neow3j.devpack.Map;
-
 /**
  * The struct holding the number of yes, no, and abstain votes for a proposal.
+ * <p>
+ * The individual votes of the members are not part of this struct. They are stored under their own key per proposal
+ * and voter, such that casting a vote doesn't require rewriting all previous votes.
  */
 public class ProposalVotes {
 
@@ -23,16 +23,10 @@ public class ProposalVotes {
      */
     public int abstain;
 
-    /**
-     * Holds information about what members voted on a porposal.
-     */
-    public Map<Hash160, Integer> voters;
-
     public ProposalVotes() {
         approve = 0;
         reject = 0;
         abstain = 0;
-        voters = new Map<>();
     }
 
 }
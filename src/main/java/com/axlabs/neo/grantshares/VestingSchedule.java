@@ -0,0 +1,41 @@
+package com.axlabs.neo.grantshares;
+
+import io.neow3j.devpack.Hash160;
+
+/**
+ * A payout schedule of the {@link GrantSharesTreasury}. The tranches are released to the beneficiary when they claim
+ * them after their unlock time.
+ * <p>
+ * The number of claimed tranches is stored separately, so that a claim doesn't have to rewrite the whole schedule. It
+ * is returned together with the schedule in a {@link VestingScheduleDTO}.
+ */
+public class VestingSchedule {
+
+    /**
+     * The token that is paid out.
+     */
+    public Hash160 token;
+
+    /**
+     * The account that can claim the tranches.
+     */
+    public Hash160 beneficiary;
+
+    /**
+     * The amounts of the tranches.
+     */
+    public int[] amounts;
+
+    /**
+     * The times (in milliseconds) at which the tranches can be claimed. In ascending order.
+     */
+    public int[] unlockTimes;
+
+    public VestingSchedule(Hash160 token, Hash160 beneficiary, int[] amounts, int[] unlockTimes) {
+        this.token = token;
+        this.beneficiary = beneficiary;
+        this.amounts = amounts;
+        this.unlockTimes = unlockTimes;
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.axlabs.neo.grantshares;
+
+import io.neow3j.devpack.Hash160;
+
+/**
+ * Used to return a {@link VestingSchedule} together with the number of its claimed tranches in getter methods of the
+ * {@link GrantSharesTreasury} contract.
+ */
+public class VestingScheduleDTO {
+
+    public Hash160 token;
+    public Hash160 beneficiary;
+    public int[] amounts;
+    public int[] unlockTimes;
+    public int claimedTranches;
+
+    public VestingScheduleDTO(VestingSchedule schedule, int claimedTranches) {
+        this.token = schedule.token;
+        this.beneficiary = schedule.beneficiary;
+        this.amounts = schedule.amounts;
+        this.unlockTimes = schedule.unlockTimes;
+        this.claimedTranches = claimedTranches;
+    }
+}
@@ -0,0 +1,17 @@
+package com.axlabs.neo.grantshares;
+
+import io.neow3j.devpack.ECPoint;
+import io.neow3j.devpack.annotations.Safe;
+import io.neow3j.devpack.contracts.NeoToken;
+
+/**
+ * Test contract that exposes the committee member selection of the treasury, so that it can be checked against
+ * committees and candidates that can't be set up on a single node network.
+ */
+public class CommitteeVoteFixture {
+
+    @Safe
+    public static ECPoint memberWithLeastVotes(ECPoint[] committee, NeoToken.Candidate[] candidates) {
+        return CommitteeVote.memberWithLeastVotes(committee, candidates);
+    }
+}
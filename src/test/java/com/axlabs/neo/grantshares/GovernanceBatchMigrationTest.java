@@ -0,0 +1,257 @@
+package com.axlabs.neo.grantshares;
+
+import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
+import com.axlabs.neo.grantshares.util.IntentParam;
+import com.axlabs.neo.grantshares.util.ProposalStruct;
+import com.axlabs.neo.grantshares.util.ProposalSummaryStruct;
+import com.axlabs.neo.grantshares.util.StorageReader;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
+import io.neow3j.compiler.CompilationUnit;
+import io.neow3j.compiler.Compiler;
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.core.response.NeoApplicationLog;
+import io.neow3j.test.ContractTest;
+import io.neow3j.test.ContractTestExtension;
+import io.neow3j.test.DeployConfig;
+import io.neow3j.test.DeployConfiguration;
+import io.neow3j.transaction.AccountSigner;
+import io.neow3j.types.CallFlags;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.Hash256;
+import io.neow3j.types.NeoVMStateType;
+import io.neow3j.wallet.Account;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
+import static com.axlabs.neo.grantshares.util.TestHelper.BOB;
+import static com.axlabs.neo.grantshares.util.TestHelper.CHARLIE;
+import static com.axlabs.neo.grantshares.util.TestHelper.ENDORSE;
+import static com.axlabs.neo.grantshares.util.TestHelper.EXPIRATION_LENGTH_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.MIN_ACCEPTANCE_RATE;
+import static com.axlabs.neo.grantshares.util.TestHelper.MIN_ACCEPTANCE_RATE_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.MIN_QUORUM;
+import static com.axlabs.neo.grantshares.util.TestHelper.MIN_QUORUM_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.MULTI_SIG_THRESHOLD_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.MULTI_SIG_THRESHOLD_RATIO;
+import static com.axlabs.neo.grantshares.util.TestHelper.PHASE_LENGTH;
+import static com.axlabs.neo.grantshares.util.TestHelper.REVIEW_LENGTH_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.TIMELOCK_LENGTH_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.VOTING_LENGTH_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.assertProposalsFromStorage;
+import static com.axlabs.neo.grantshares.util.TestHelper.createAndEndorseProposal;
+import static com.axlabs.neo.grantshares.util.TestHelper.voteForProposal;
+import static io.neow3j.types.ContractParameter.array;
+import static io.neow3j.types.ContractParameter.hash160;
+import static io.neow3j.types.ContractParameter.integer;
+import static io.neow3j.types.ContractParameter.publicKey;
+import static io.neow3j.types.ContractParameter.string;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Updates a governance contract holding more proposals than are migrated in the update transaction and migrates the
+ * rest in several batches.
+ */
+@ContractTest(contracts = GrantSharesGovOld.class, blockTime = 1, configFile = "default.neo-express",
+        batchFile = "setup.batch")
+public class GovernanceBatchMigrationTest {
+
+    // Proposals created before the update. The update proposal itself comes on top.
+    private static final int OLD_PROPOSALS = 44;
+    private static final int DEPLOY_MIGRATION_BATCH_SIZE = 20;
+    private static final int BATCH_SIZE = 10;
+    private static final int EXPIRATION_LENGTH = 24 * 3600; // seconds
+
+    @RegisterExtension
+    private static ContractTestExtension ext = new ContractTestExtension();
+
+    private static Neow3j neow3j;
+    private static GrantSharesGovContract gov;
+    private static Account alice; // Set to be a DAO member.
+    private static Account bob; // Set to be a DAO member.
+    private static Account charlie;
+
+    @DeployConfig(GrantSharesGovOld.class)
+    public static DeployConfiguration deployConfig() {
+        DeployConfiguration config = new DeployConfiguration();
+        // Long expiration so that old proposals can still be endorsed after the update.
+        config.setDeployParam(array(
+                array(publicKey(ext.getAccount(ALICE).getECKeyPair().getPublicKey().getEncoded(true)),
+                        publicKey(ext.getAccount(BOB).getECKeyPair().getPublicKey().getEncoded(true))),
+                array(
+                        REVIEW_LENGTH_KEY, PHASE_LENGTH * 1000,
+                        VOTING_LENGTH_KEY, PHASE_LENGTH * 1000,
+                        TIMELOCK_LENGTH_KEY, PHASE_LENGTH * 1000,
+                        EXPIRATION_LENGTH_KEY, EXPIRATION_LENGTH * 1000,
+                        MIN_ACCEPTANCE_RATE_KEY, MIN_ACCEPTANCE_RATE,
+                        MIN_QUORUM_KEY, MIN_QUORUM,
+                        MULTI_SIG_THRESHOLD_KEY, MULTI_SIG_THRESHOLD_RATIO
+                )
+        ));
+        return config;
+    }
+
+    @BeforeAll
+    public static void setUp() throws Throwable {
+        neow3j = ext.getNeow3j();
+        neow3j.allowTransmissionOnFault();
+        gov = new GrantSharesGovContract(ext.getDeployedContract(GrantSharesGovOld.class).getScriptHash(), neow3j);
+        alice = ext.getAccount(ALICE);
+        bob = ext.getAccount(BOB);
+        charlie = ext.getAccount(CHARLIE);
+
+        ContractParameter intent = array(hash160(gov.getScriptHash()), string("changeParam"),
+                array(VOTING_LENGTH_KEY, 100));
+        List<Hash256> txs = new ArrayList<>();
+        for (int i = 0; i < OLD_PROPOSALS; i++) {
+            txs.add(gov.createProposal(charlie.getScriptHash(), "proposal" + i, -1, intent)
+                    .signers(AccountSigner.calledByEntry(charlie)).sign().send().getSendRawTransaction().getHash());
+        }
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txs.toArray(new Hash256[0]));
+    }
+
+    @Test
+    public void updateContractAndMigrateStorageInBatches() throws Throwable {
+        // A vote cast before the update ends up in the voters map of the old layout.
+        final int votedBeforeUpdate = OLD_PROPOSALS - 1;
+        endorse(votedBeforeUpdate);
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, votedBeforeUpdate, alice);
+
+        CompilationUnit res = new Compiler().compile(GrantSharesGov.class.getCanonicalName());
+        ContractParameter i = IntentParam.updateContractProposal(gov.getScriptHash(), res.getNefFile(),
+                res.getManifest(), array());
+        int updateId = createAndEndorseProposal(gov, neow3j, alice, alice, array(i), "updateContract");
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, updateId, alice);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+        Hash256 tx = gov.execute(updateId).signers(AccountSigner.none(bob)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+
+        // Only the first batch is migrated in the update.
+        List<Integer> migratedIds = getMigratedIds(tx);
+        assertThat(migratedIds.size(), is(DEPLOY_MIGRATION_BATCH_SIZE));
+        assertThat(migratedIds.get(0), is(0));
+        assertThat(migratedIds.get(DEPLOY_MIGRATION_BATCH_SIZE - 1), is(DEPLOY_MIGRATION_BATCH_SIZE - 1));
+
+        // Proposals that are not migrated yet are still readable.
+        ProposalStruct p = gov.getProposal(votedBeforeUpdate);
+        assertThat(p.proposer, is(charlie.getScriptHash()));
+        assertThat(p.intents.size(), is(1));
+        assertThat(p.intents.get(0).callFlags, is((int) CallFlags.ALL.getValue()));
+        assertThat(p.approve, is(1));
+        assertThat(p.voters.get(alice.getAddress()), is(1));
+        ProposalSummaryStruct summary = gov.getProposalSummaries(votedBeforeUpdate, 1).items.get(0);
+        assertThat(summary.proposer, is(charlie.getScriptHash()));
+        assertThat(summary.approve, is(1));
+
+        // The storage holds proposals in the packed layout, endorsed and executed ones among them, next to proposals
+        // in the old layout. Reading them from the storage gives the same proposals as the contract's getters.
+        List<ProposalStruct> fromStorage = assertProposalsFromStorage(gov, StorageReader.atLatestStateRoot(neow3j));
+        assertTrue(fromStorage.get(updateId).executed);
+        assertThat(fromStorage.get(votedBeforeUpdate).endorser, is(alice.getScriptHash()));
+
+        // Voting on a proposal that is not migrated yet migrates it right away.
+        final int votedAfterUpdate = OLD_PROPOSALS - 2;
+        endorse(votedAfterUpdate);
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        tx = gov.vote(votedAfterUpdate, 1, alice.getScriptHash()).signers(AccountSigner.calledByEntry(alice))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        assertThat(getMigratedIds(tx), is(Collections.singletonList(votedAfterUpdate)));
+        p = gov.getProposal(votedAfterUpdate);
+        assertThat(p.approve, is(1));
+        assertThat(p.voters.get(alice.getAddress()), is(1));
+
+        // A proposal that is endorsed after the update is migrated by the batches.
+        final int endorsedAfterUpdate = OLD_PROPOSALS - 3;
+        endorse(endorsedAfterUpdate);
+
+        // Anyone can migrate the remaining proposals.
+        List<Integer> batchMigratedIds = new ArrayList<>();
+        boolean finished = false;
+        int batches = 0;
+        while (!finished) {
+            tx = gov.migrateBatch(BATCH_SIZE).signers(AccountSigner.calledByEntry(charlie)).sign().send()
+                    .getSendRawTransaction().getHash();
+            TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+            finished = neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0).getStack()
+                    .get(0).getBoolean();
+            batchMigratedIds.addAll(getMigratedIds(tx));
+            batches++;
+        }
+        // The proposals from the first batch up to and including the update proposal.
+        int remaining = OLD_PROPOSALS + 1 - DEPLOY_MIGRATION_BATCH_SIZE;
+        assertThat(batches, is((remaining + BATCH_SIZE - 1) / BATCH_SIZE));
+        assertThat(batchMigratedIds.size(), is(remaining - 1));
+        assertFalse(batchMigratedIds.contains(votedAfterUpdate));
+        assertTrue(batchMigratedIds.contains(votedBeforeUpdate));
+        assertTrue(batchMigratedIds.contains(updateId));
+        assertTrue(batchMigratedIds.contains(endorsedAfterUpdate));
+        assertThat(gov.getProposal(endorsedAfterUpdate).endorser, is(alice.getScriptHash()));
+
+        p = gov.getProposal(votedBeforeUpdate);
+        assertThat(p.approve, is(1));
+        assertThat(p.voters.get(alice.getAddress()), is(1));
+
+        // The migration fills the proposer index. It is ordered by id although one proposal was migrated early.
+        List<Integer> charliesProposals = gov.getProposalsByProposer(charlie.getScriptHash(), 0, OLD_PROPOSALS)
+                .items.stream().map(s -> s.id).collect(Collectors.toList());
+        assertThat(charliesProposals, is(IntStream.range(0, OLD_PROPOSALS).boxed().collect(Collectors.toList())));
+
+        assertProposalsFromStorage(gov, StorageReader.atLatestStateRoot(neow3j));
+
+        // Further calls don't do anything.
+        tx = gov.migrateBatch(BATCH_SIZE).signers(AccountSigner.calledByEntry(charlie)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send().getApplicationLog()
+                .getExecutions().get(0);
+        assertTrue(execution.getStack().get(0).getBoolean());
+        assertTrue(execution.getNotifications().isEmpty());
+
+        // A later update doesn't start another migration because the storage is already in the current layout.
+        updateId = createAndEndorseProposal(gov, neow3j, alice, alice, array(i), "updateContractAgain");
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, updateId, alice);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+        tx = gov.execute(updateId).signers(AccountSigner.none(bob)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        assertThat(neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0).getState(),
+                is(NeoVMStateType.HALT));
+        assertTrue(getMigratedIds(tx).isEmpty());
+        tx = gov.migrateBatch(BATCH_SIZE).signers(AccountSigner.calledByEntry(charlie)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        assertTrue(neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0).getStack()
+                .get(0).getBoolean());
+    }
+
+    private void endorse(int id) throws Throwable {
+        Hash256 tx = gov.invokeFunction(ENDORSE, integer(id), hash160(alice))
+                .signers(AccountSigner.calledByEntry(alice))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+    }
+
+    private List<Integer> getMigratedIds(Hash256 tx) throws IOException {
+        return neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0).getNotifications()
+                .stream()
+                .filter(n -> n.getEventName().equals("ProposalMigrated"))
+                .map(n -> n.getState().getList().get(0).getInteger().intValue())
+                .collect(Collectors.toList());
+    }
+}
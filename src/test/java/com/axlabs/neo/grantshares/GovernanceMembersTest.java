@@ -1,6 +1,8 @@
 package com.axlabs.neo.grantshares;
 
 import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
+import com.axlabs.neo.grantshares.util.IntentParam;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
 import io.neow3j.crypto.ECKeyPair;
 import io.neow3j.protocol.Neow3j;
 import io.neow3j.protocol.core.response.NeoApplicationLog;
@@ -13,7 +15,6 @@ import io.neow3j.transaction.AccountSigner;
 import io.neow3j.types.CallFlags;
 import io.neow3j.types.ContractParameter;
 import io.neow3j.types.Hash256;
-import io.neow3j.utils.Await;
 import io.neow3j.wallet.Account;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer;
@@ -35,6 +36,8 @@ import static com.axlabs.neo.grantshares.util.TestHelper.DENISE;
 import static com.axlabs.neo.grantshares.util.TestHelper.GET_MEMBERS;
 import static com.axlabs.neo.grantshares.util.TestHelper.MEMBER_ADDED;
 import static com.axlabs.neo.grantshares.util.TestHelper.MEMBER_REMOVED;
+import static com.axlabs.neo.grantshares.util.TestHelper.MULTI_SIG_THRESHOLD_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.MULTI_SIG_THRESHOLD_RATIO;
 import static com.axlabs.neo.grantshares.util.TestHelper.PHASE_LENGTH;
 import static com.axlabs.neo.grantshares.util.TestHelper.PROPOSAL_EXECUTED;
 import static com.axlabs.neo.grantshares.util.TestHelper.REMOVE_MEMBER;
@@ -120,7 +123,7 @@ public class GovernanceMembersTest {
         ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
         Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(charlie)).sign().send()
                 .getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -141,6 +144,7 @@ public class GovernanceMembersTest {
                 denise.getECKeyPair().getPublicKey()));
 
         assertThat(gov.getMembersCount(), is(4));
+        assertMembersMultiSigAccountIsUpToDate();
     }
 
     @Test
@@ -222,7 +226,7 @@ public class GovernanceMembersTest {
         ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
         Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(charlie)).sign().send()
                 .getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -240,6 +244,7 @@ public class GovernanceMembersTest {
                 charlie.getECKeyPair().getPublicKey(),
                 alice.getECKeyPair().getPublicKey(),
                 denise.getECKeyPair().getPublicKey()));
+        assertMembersMultiSigAccountIsUpToDate();
     }
 
     @Test
@@ -267,6 +272,43 @@ public class GovernanceMembersTest {
 
     //endregion REMOVE MEMBER
 
+    @Order(3) // Is executed after adding and removing bob. Resets the threshold to its initial value.
+    @Test
+    public void execute_change_threshold_updates_members_multisig_account() throws Throwable {
+        changeThreshold(100, "execute_change_threshold_updates_members_multisig_account_1");
+        assertThat(gov.calcMembersMultiSigAccountThreshold(), is(3));
+        assertMembersMultiSigAccountIsUpToDate();
+
+        changeThreshold(MULTI_SIG_THRESHOLD_RATIO, "execute_change_threshold_updates_members_multisig_account_2");
+        assertThat(gov.calcMembersMultiSigAccountThreshold(), is(2));
+        assertMembersMultiSigAccountIsUpToDate();
+    }
+
+    private void changeThreshold(int ratio, String offchainUri) throws Throwable {
+        IntentParam intent = IntentParam.changeParamProposal(gov.getScriptHash(), MULTI_SIG_THRESHOLD_KEY, ratio);
+        int id = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent), offchainUri);
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, id, alice);
+        voteForProposal(gov, neow3j, id, charlie);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(charlie)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+    }
+
+    /**
+     * Checks that the members multi-sig account stored in the contract matches one that is freshly computed from the
+     * current members and threshold ratio.
+     */
+    private void assertMembersMultiSigAccountIsUpToDate() throws IOException {
+        List<ECKeyPair.ECPublicKey> members = gov.getMembers();
+        int ratio = gov.getParameter(MULTI_SIG_THRESHOLD_KEY).getInteger().intValue();
+        int threshold = (int) Math.ceil(members.size() * ratio / 100.0);
+        Account expected = Account.createMultiSigAccount(members, threshold);
+        assertThat(gov.calcMembersMultiSigAccountThreshold(), is(threshold));
+        assertThat(gov.calcMembersMultiSigAccount(), is(expected.getAddress()));
+    }
+
     @Test
     public void get_members() throws IOException {
         List<byte[]> members = gov.callInvokeFunction(GET_MEMBERS).getInvocationResult()
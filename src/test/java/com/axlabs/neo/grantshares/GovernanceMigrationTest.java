@@ -4,6 +4,7 @@ import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
 import com.axlabs.neo.grantshares.util.IntentParam;
 import com.axlabs.neo.grantshares.util.ProposalStruct;
 import com.axlabs.neo.grantshares.util.TestHelper;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
 import io.neow3j.compiler.CompilationUnit;
 import io.neow3j.compiler.Compiler;
 import io.neow3j.protocol.Neow3j;
@@ -17,7 +18,6 @@ import io.neow3j.transaction.AccountSigner;
 import io.neow3j.types.CallFlags;
 import io.neow3j.types.ContractParameter;
 import io.neow3j.types.Hash256;
-import io.neow3j.utils.Await;
 import io.neow3j.wallet.Account;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -77,10 +77,10 @@ public class GovernanceMigrationTest {
                 array(VOTING_LENGTH_KEY, 100));
         Hash256 txHash = gov.createProposal(alice.getScriptHash(), "proposal1", -1, intent1, intent2)
                 .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(txHash, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txHash);
         txHash = gov.createProposal(alice.getScriptHash(), "proposal2", -1, intent1)
                 .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(txHash, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txHash);
     }
 
     @Test
@@ -105,7 +105,7 @@ public class GovernanceMigrationTest {
         TestHelper.voteForProposal(gov, neow3j, id, alice);
         ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
         Hash256 tx = gov.execute(id).signers(AccountSigner.none(bob)).sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         ProposalStruct p = gov.getProposal(0);
         assertThat(p.intents.size(), is(2));
@@ -118,6 +118,10 @@ public class GovernanceMigrationTest {
         p = gov.getProposal(id);
         assertThat(p.intents.size(), is(1));
         assertThat(p.intents.get(0).callFlags, is((int) CallFlags.ALL.getValue()));
+        // the vote cast before the update was moved out of the voters map
+        assertThat(p.approve, is(1));
+        assertThat(p.voters.size(), is(1));
+        assertThat(p.voters.get(alice.getAddress()), is(1));
 
         assertThat(gov.getParameter(EXPIRATION_LENGTH_KEY).getInteger().intValue(), is(newExpirationLength));
 
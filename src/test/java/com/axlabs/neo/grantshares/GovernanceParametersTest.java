@@ -1,7 +1,10 @@
 package com.axlabs.neo.grantshares;
 
+import com.axlabs.neo.grantshares.client.GrantSharesGovClient;
 import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
 import com.axlabs.neo.grantshares.util.IntentParam;
+import com.axlabs.neo.grantshares.util.ProposalStruct;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
 import io.neow3j.protocol.Neow3j;
 import io.neow3j.protocol.core.response.NeoApplicationLog;
 import io.neow3j.protocol.core.stackitem.StackItem;
@@ -12,7 +15,6 @@ import io.neow3j.test.DeployConfiguration;
 import io.neow3j.transaction.AccountSigner;
 import io.neow3j.types.ContractParameter;
 import io.neow3j.types.Hash256;
-import io.neow3j.utils.Await;
 import io.neow3j.wallet.Account;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -99,6 +101,15 @@ public class GovernanceParametersTest {
         assertThat(params.get(MULTI_SIG_THRESHOLD_KEY).intValue(), is(MULTI_SIG_THRESHOLD_RATIO));
     }
 
+    @Test
+    public void get_parameters_with_generated_client() throws IOException {
+        GrantSharesGovClient client = new GrantSharesGovClient(gov.getScriptHash(), neow3j);
+        assertThat(client.getParameter(REVIEW_LENGTH_KEY).getInteger().intValue(), is(PHASE_LENGTH * 1000));
+        assertThat(client.getParameters().size(), is(gov.getParameters().size()));
+        assertThat(client.getMembersCount(), is(BigInteger.valueOf(2)));
+        assertThat(client.isPaused(), is(false));
+    }
+
     //region CHANGE PARAMETER
     @Test
     public void execute_change_parameter() throws Throwable {
@@ -117,7 +128,7 @@ public class GovernanceParametersTest {
         ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
         Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(bob))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -136,6 +147,48 @@ public class GovernanceParametersTest {
         assertThat(gov.getParameter(MIN_ACCEPTANCE_RATE_KEY).getInteger().intValue(), is(newValue));
     }
 
+    @Test
+    public void changing_phase_length_does_not_change_phases_of_endorsed_proposals() throws Throwable {
+        int expirationLength = PHASE_LENGTH * 1000;
+        IntentParam change = IntentParam.changeParamProposal(gov.getScriptHash(), EXPIRATION_LENGTH_KEY,
+                2 * expirationLength);
+        int changeId = createAndEndorseProposal(gov, neow3j, bob, alice, array(change),
+                "changing_phase_length_does_not_change_phases_of_endorsed_proposals");
+        ProposalStruct before = gov.getProposal(changeId);
+        assertThat(before.expiration, is(before.timelockEnd.add(BigInteger.valueOf(expirationLength))));
+
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, changeId, alice);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+        Hash256 tx = gov.execute(changeId).signers(AccountSigner.calledByEntry(bob))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+
+        // The proposal endorsed before the change keeps its phases.
+        ProposalStruct after = gov.getProposal(changeId);
+        assertThat(after.reviewEnd, is(before.reviewEnd));
+        assertThat(after.votingEnd, is(before.votingEnd));
+        assertThat(after.timelockEnd, is(before.timelockEnd));
+        assertThat(after.expiration, is(before.expiration));
+
+        // Proposals endorsed after the change get the new expiration length. That proposal reverts the change.
+        IntentParam revert = IntentParam.changeParamProposal(gov.getScriptHash(), EXPIRATION_LENGTH_KEY,
+                expirationLength);
+        int revertId = createAndEndorseProposal(gov, neow3j, bob, alice, array(revert),
+                "changing_phase_length_does_not_change_phases_of_endorsed_proposals_revert");
+        ProposalStruct p = gov.getProposal(revertId);
+        assertThat(p.expiration, is(p.timelockEnd.add(BigInteger.valueOf(2 * expirationLength))));
+
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, revertId, alice);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+        tx = gov.execute(revertId).signers(AccountSigner.calledByEntry(bob))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        assertThat(gov.getParameter(EXPIRATION_LENGTH_KEY).getInteger().intValue(), is(expirationLength));
+        assertThat(gov.getProposal(revertId).expiration, is(p.expiration));
+    }
+
     @Test
     public void fail_calling_change_parameter_directly() throws Throwable {
         Hash256 tx = gov.invokeFunction(CHANGE_PARAM, string(REVIEW_LENGTH_KEY), integer(100))
@@ -182,6 +235,42 @@ public class GovernanceParametersTest {
         assertThat(gov.getParameter(VOTING_LENGTH_KEY).getInteger().intValue(), is(PHASE_LENGTH * 1000));
     }
 
+    @Test
+    public void fail_changing_voting_length_to_value_above_timestamp_width() throws Throwable {
+        // Timestamps and phase lengths are stored in 6 bytes.
+        IntentParam i = IntentParam.changeParamProposal(gov.getScriptHash(), VOTING_LENGTH_KEY,
+                BigInteger.ONE.shiftLeft(47));
+        String uri = "fail_changing_voting_length_to_value_above_timestamp_width";
+        int id = createAndEndorseProposal(gov, neow3j, bob, alice, array(i), uri);
+
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, id, alice);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(bob))
+                .sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "Invalid parameter value", neow3j);
+        assertThat(gov.getParameter(VOTING_LENGTH_KEY).getInteger().intValue(), is(PHASE_LENGTH * 1000));
+    }
+
+    @Test
+    public void fail_changing_expiration_length_so_that_phase_ends_exceed_timestamp_width() throws Throwable {
+        // The value itself fits the 6 bytes, but not when added to the current time and the other phase lengths.
+        IntentParam i = IntentParam.changeParamProposal(gov.getScriptHash(), EXPIRATION_LENGTH_KEY,
+                BigInteger.ONE.shiftLeft(47).subtract(BigInteger.ONE));
+        String uri = "fail_changing_expiration_length_so_that_phase_ends_exceed_timestamp_width";
+        int id = createAndEndorseProposal(gov, neow3j, bob, alice, array(i), uri);
+
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, id, alice);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(bob))
+                .sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "Phase lengths too long", neow3j);
+        assertThat(gov.getParameter(EXPIRATION_LENGTH_KEY).getInteger().intValue(), is(PHASE_LENGTH * 1000));
+    }
+
     @Test
     public void fail_changing_min_acceptance_rate_to_negative_value() throws Throwable {
         ContractParameter i = IntentParam.changeParamProposal(gov.getScriptHash(), MIN_ACCEPTANCE_RATE_KEY, -1);
@@ -2,12 +2,19 @@ package com.axlabs.neo.grantshares;
 
 import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
 import com.axlabs.neo.grantshares.util.IntentParam;
+import com.axlabs.neo.grantshares.util.ProposalDataStruct;
 import com.axlabs.neo.grantshares.util.ProposalPaginatedStruct;
 import com.axlabs.neo.grantshares.util.ProposalStruct;
+import com.axlabs.neo.grantshares.util.ProposalSummaryPaginatedStruct;
+import com.axlabs.neo.grantshares.util.ProposalSummaryStruct;
+import com.axlabs.neo.grantshares.util.SessionIterator;
 import com.axlabs.neo.grantshares.util.TestHelper;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
 import io.neow3j.contract.ContractManagement;
+import io.neow3j.contract.GasToken;
 import io.neow3j.contract.NefFile;
 import io.neow3j.contract.NeoToken;
+import io.neow3j.crypto.ECKeyPair;
 import io.neow3j.protocol.Neow3j;
 import io.neow3j.protocol.core.response.ContractManifest;
 import io.neow3j.protocol.core.response.InvocationResult;
@@ -25,7 +32,6 @@ import io.neow3j.types.CallFlags;
 import io.neow3j.types.ContractParameter;
 import io.neow3j.types.Hash160;
 import io.neow3j.types.Hash256;
-import io.neow3j.utils.Await;
 import io.neow3j.wallet.Account;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer;
@@ -39,18 +45,31 @@ import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 
 import static com.axlabs.neo.grantshares.util.TestHelper.ADD_MEMBER;
 import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
+import static com.axlabs.neo.grantshares.util.TestHelper.BLOB_STAGED;
 import static com.axlabs.neo.grantshares.util.TestHelper.BOB;
+import static com.axlabs.neo.grantshares.util.TestHelper.CALL_WITH_BLOBS;
 import static com.axlabs.neo.grantshares.util.TestHelper.CHANGE_PARAM;
 import static com.axlabs.neo.grantshares.util.TestHelper.CHARLIE;
 import static com.axlabs.neo.grantshares.util.TestHelper.CREATE;
 import static com.axlabs.neo.grantshares.util.TestHelper.ENDORSE;
 import static com.axlabs.neo.grantshares.util.TestHelper.EXECUTE;
 import static com.axlabs.neo.grantshares.util.TestHelper.GET_PROPOSAL;
+import static com.axlabs.neo.grantshares.util.TestHelper.GET_PROPOSALS;
+import static com.axlabs.neo.grantshares.util.TestHelper.GET_PROPOSALS_BY_PROPOSER;
 import static com.axlabs.neo.grantshares.util.TestHelper.GET_PROPOSAL_COUNT;
+import static com.axlabs.neo.grantshares.util.TestHelper.GET_PROPOSAL_SUMMARIES;
 import static com.axlabs.neo.grantshares.util.TestHelper.IS_PAUSED;
 import static com.axlabs.neo.grantshares.util.TestHelper.MIN_ACCEPTANCE_RATE;
 import static com.axlabs.neo.grantshares.util.TestHelper.MIN_ACCEPTANCE_RATE_KEY;
@@ -73,15 +92,19 @@ import static com.axlabs.neo.grantshares.util.TestHelper.voteForProposal;
 import static io.neow3j.protocol.ObjectMapperFactory.getObjectMapper;
 import static io.neow3j.test.TestProperties.defaultAccountScriptHash;
 import static io.neow3j.types.ContractParameter.array;
+import static io.neow3j.types.ContractParameter.byteArray;
 import static io.neow3j.types.ContractParameter.hash160;
 import static io.neow3j.types.ContractParameter.integer;
 import static io.neow3j.types.ContractParameter.publicKey;
 import static io.neow3j.types.ContractParameter.string;
 import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
@@ -131,7 +154,7 @@ public class GrantSharesGovTest {
                         integer(-1))
                 .signers(AccountSigner.calledByEntry(alice))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(creationTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(creationTx);
         defaultProposalId = neow3j.getApplicationLog(creationTx).send().getApplicationLog()
                 .getExecutions().get(0).getStack().get(0).getInteger().intValue();
     }
@@ -155,7 +178,7 @@ public class GrantSharesGovTest {
                         integer(-1)) // no linked proposal
                 .signers(AccountSigner.calledByEntry(alice))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(proposalCreationTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(proposalCreationTx);
 
         int id = neow3j.getApplicationLog(proposalCreationTx).send()
                 .getApplicationLog().getExecutions().get(0).getStack().get(0).getInteger().intValue();
@@ -241,7 +264,7 @@ public class GrantSharesGovTest {
     public void succeed_endorsing_with_member() throws Throwable {
         // 1. Create a proposal
         Hash256 creationTx = createSimpleProposal(gov, alice, "succeed_endorsing_with_member");
-        Await.waitUntilTransactionIsExecuted(creationTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(creationTx);
         int id = neow3j.getApplicationLog(creationTx).send()
                 .getApplicationLog().getExecutions().get(0).getStack().get(0).getInteger().intValue();
 
@@ -258,7 +281,7 @@ public class GrantSharesGovTest {
                         hash160(alice.getScriptHash()))
                 .signers(AccountSigner.calledByEntry(alice))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(endorseTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(endorseTx);
 
         // 4. Test the right setup of the proposal phases
         p = gov.getProposal(id);
@@ -307,14 +330,14 @@ public class GrantSharesGovTest {
     public void fail_endorsing_already_endorsed_proposal() throws Throwable {
         // 1. Create a proposal
         Hash256 creationTx = createSimpleProposal(gov, alice, "fail_endorsing_already_endorsed_proposal");
-        Await.waitUntilTransactionIsExecuted(creationTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(creationTx);
         int id = neow3j.getApplicationLog(creationTx).send().getApplicationLog().getExecutions().get(0).getStack()
                 .get(0).getInteger().intValue();
 
         // 2. Endorse
         Hash256 endorseTx = gov.endorseProposal(id, alice.getScriptHash()).signers(AccountSigner.calledByEntry(alice))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(endorseTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(endorseTx);
 
         // 3. Endorse again
         Hash256 tx = gov.endorseProposal(id, alice.getScriptHash()).signers(AccountSigner.calledByEntry(alice))
@@ -334,7 +357,7 @@ public class GrantSharesGovTest {
     @Order(0)
     public void fail_endorsing_expired_proposal() throws Throwable {
         Hash256 creationTx = createSimpleProposal(gov, bob, "fail_endorsing_expired_proposal");
-        Await.waitUntilTransactionIsExecuted(creationTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(creationTx);
         int id = neow3j.getApplicationLog(creationTx).send()
                 .getApplicationLog().getExecutions().get(0).getStack().get(0).getInteger().intValue();
         ext.fastForwardOneBlock(PHASE_LENGTH);
@@ -349,7 +372,7 @@ public class GrantSharesGovTest {
     public void succeed_voting() throws Throwable {
         // 1. Create proposal
         Hash256 creationTx = createSimpleProposal(gov, bob, "succeed_voting");
-        Await.waitUntilTransactionIsExecuted(creationTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(creationTx);
         int id = neow3j.getApplicationLog(creationTx).send()
                 .getApplicationLog().getExecutions().get(0).getStack().get(0).getInteger().intValue();
 
@@ -358,7 +381,7 @@ public class GrantSharesGovTest {
                         hash160(alice.getScriptHash()))
                 .signers(AccountSigner.calledByEntry(alice))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(endorseTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(endorseTx);
 
         // 3. Wait till review phase ends.
         ext.fastForwardOneBlock(PHASE_LENGTH);
@@ -368,7 +391,7 @@ public class GrantSharesGovTest {
                         hash160(charlie.getScriptHash()))
                 .signers(AccountSigner.calledByEntry(charlie))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(voteTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(voteTx);
 
         // 5. Test the right setting of the votes
         ProposalStruct proposal = gov.getProposal(id);
@@ -392,7 +415,7 @@ public class GrantSharesGovTest {
     @Order(0)
     public void fail_voting_in_review_and_queued_phase() throws Throwable {
         Hash256 creationTx = createSimpleProposal(gov, bob, "fail_voting_in_review_and_queued_phase");
-        Await.waitUntilTransactionIsExecuted(creationTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(creationTx);
         int id = neow3j.getApplicationLog(creationTx).send().getApplicationLog().getExecutions()
                 .get(0).getStack().get(0).getInteger().intValue();
 
@@ -401,7 +424,7 @@ public class GrantSharesGovTest {
                         hash160(alice.getScriptHash()))
                 .signers(AccountSigner.calledByEntry(alice))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(endorseTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(endorseTx);
 
         // 3. Vote in review phase
         Hash256 tx = gov.vote(id, -1, charlie.getScriptHash()).signers(AccountSigner.calledByEntry(charlie))
@@ -421,7 +444,7 @@ public class GrantSharesGovTest {
     @Order(0)
     public void fail_voting_multiple_times() throws Throwable {
         Hash256 creationTx = createSimpleProposal(gov, bob, "fail_voting_multiple_times");
-        Await.waitUntilTransactionIsExecuted(creationTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(creationTx);
         int id = neow3j.getApplicationLog(creationTx).send()
                 .getApplicationLog().getExecutions().get(0).getStack().get(0).getInteger().intValue();
 
@@ -430,7 +453,7 @@ public class GrantSharesGovTest {
                         hash160(alice.getScriptHash()))
                 .signers(AccountSigner.calledByEntry(alice))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(endorseTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(endorseTx);
 
         // 3. Fast-forward to the voting phase.
         ext.fastForwardOneBlock(PHASE_LENGTH);
@@ -440,7 +463,7 @@ public class GrantSharesGovTest {
                         hash160(charlie.getScriptHash()))
                 .signers(AccountSigner.calledByEntry(charlie))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(voteTx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(voteTx);
 
         // 5. Vote the second time
         Hash256 tx = gov.vote(id, 1, charlie.getScriptHash()).signers(AccountSigner.calledByEntry(charlie))
@@ -491,6 +514,68 @@ public class GrantSharesGovTest {
         assertAborted(tx, "Invalid vote", neow3j);
     }
 
+    @Test
+    @Order(0)
+    public void succeed_voting_in_batch() throws Throwable {
+        ContractParameter intents = array(array(NeoToken.SCRIPT_HASH, "balanceOf",
+                array(new Hash160(defaultAccountScriptHash())), CallFlags.ALL.getValue()));
+        int[] ids = new int[3];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = createAndEndorseProposal(gov, neow3j, bob, alice, intents, "succeed_voting_in_batch_" + i);
+        }
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+
+        Hash256 tx = gov.voteBatch(ids, new int[]{1, -1, 0}, charlie.getScriptHash())
+                .signers(AccountSigner.calledByEntry(charlie)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+
+        List<NeoApplicationLog.Execution.Notification> ntfs = neow3j.getApplicationLog(tx).send().getApplicationLog()
+                .getExecutions().get(0).getNotifications();
+        assertThat(ntfs.size(), is(3));
+        for (int i = 0; i < ids.length; i++) {
+            assertThat(ntfs.get(i).getEventName(), is(VOTED));
+            assertThat(ntfs.get(i).getState().getList().get(0).getInteger().intValue(), is(ids[i]));
+            assertThat(ntfs.get(i).getState().getList().get(1).getAddress(), is(charlie.getAddress()));
+        }
+        ProposalStruct p = gov.getProposal(ids[0]);
+        assertThat(p.approve, is(1));
+        assertThat(p.voters.get(charlie.getAddress()), is(1));
+        p = gov.getProposal(ids[1]);
+        assertThat(p.reject, is(1));
+        assertThat(p.voters.get(charlie.getAddress()), is(-1));
+        p = gov.getProposal(ids[2]);
+        assertThat(p.abstain, is(1));
+        assertThat(p.voters.get(charlie.getAddress()), is(0));
+
+        // Nothing is cast if one of the votes fails.
+        tx = gov.voteBatch(new int[]{ids[0], ids[1]}, new int[]{1, 1}, alice.getScriptHash())
+                .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        tx = gov.voteBatch(new int[]{ids[2], ids[0]}, new int[]{1, 1}, alice.getScriptHash())
+                .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "Already voted on this proposal", neow3j);
+        assertThat(gov.getProposal(ids[2]).approve, is(0));
+        // Only the votes of the proposal itself are read.
+        assertThat(gov.getProposal(ids[0]).voters.size(), is(2));
+        assertThat(gov.getProposal(ids[2]).voters.size(), is(1));
+    }
+
+    @Test
+    @Order(0)
+    public void fail_voting_in_batch_with_non_member() throws Throwable {
+        Hash256 tx = gov.voteBatch(new int[]{defaultProposalId}, new int[]{1}, bob.getScriptHash())
+                .signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "Not authorised", neow3j);
+    }
+
+    @Test
+    @Order(0)
+    public void fail_voting_in_batch_with_different_number_of_ids_and_votes() throws Throwable {
+        Hash256 tx = gov.voteBatch(new int[]{defaultProposalId}, new int[]{1, 1}, alice.getScriptHash())
+                .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "Number of ids and votes differ", neow3j);
+    }
+
     @Test
     @Order(0)
     public void create_proposal_with_large_intents_and_offchainUri() throws Throwable {
@@ -556,7 +641,7 @@ public class GrantSharesGovTest {
                         integer(-1))
                 .signers(AccountSigner.calledByEntry(bob))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         int id = neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0)
                 .getStack().get(0).getInteger().intValue();
@@ -612,6 +697,143 @@ public class GrantSharesGovTest {
         assertThat(exception, containsString("Page number was negative or zero"));
     }
 
+    @Test
+    @Order(0)
+    public void get_proposal_summaries() throws Throwable {
+        ContractParameter intents = array(array(NeoToken.SCRIPT_HASH, "balanceOf",
+                array(new Hash160(defaultAccountScriptHash())), CallFlags.ALL.getValue()));
+        int id = TestHelper.createAndEndorseProposal(gov, neow3j, bob, alice, intents, "get_proposal_summaries");
+
+        ProposalSummaryPaginatedStruct page = gov.getProposalSummaries(0, 1);
+        assertThat(page.page, is(0));
+        assertThat(page.pages, is(greaterThanOrEqualTo(2)));
+        assertThat(page.items.size(), is(1));
+        assertThat(page.items.get(0).id, is(defaultProposalId));
+        assertThat(page.items.get(0).proposer, is(alice.getScriptHash()));
+
+        ProposalStruct proposal = gov.getProposal(id);
+        ProposalSummaryStruct summary = gov.getProposalSummaries(id, 1).items.get(0);
+        assertThat(summary.id, is(id));
+        assertThat(summary.proposer, is(proposal.proposer));
+        assertThat(summary.endorser, is(alice.getScriptHash()));
+        assertThat(summary.reviewEnd, is(proposal.reviewEnd));
+        assertThat(summary.votingEnd, is(proposal.votingEnd));
+        assertThat(summary.timelockEnd, is(proposal.timelockEnd));
+        assertThat(summary.expiration, is(proposal.expiration));
+        assertThat(summary.executed, is(false));
+        assertThat(summary.approve, is(0));
+        assertThat(summary.reject, is(0));
+        assertThat(summary.abstain, is(0));
+
+        String exception = gov.callInvokeFunction(GET_PROPOSAL_SUMMARIES, asList(integer(-1), integer(1)))
+                .getInvocationResult().getException();
+        assertThat(exception, containsString("Page number was negative"));
+
+        exception = gov.callInvokeFunction(GET_PROPOSAL_SUMMARIES, asList(integer(0), integer(0)))
+                .getInvocationResult().getException();
+        assertThat(exception, containsString("Page number was negative or zero"));
+    }
+
+    @Test
+    @Order(0)
+    public void get_proposals_by_proposer() throws Throwable {
+        Account proposer = Account.create();
+        assertThat(gov.getProposalsByProposer(proposer.getScriptHash(), 0, 10).items.size(), is(0));
+
+        // Fund the proposer with 10 GAS for the transaction fees.
+        Hash256 tx = new GasToken(neow3j).transfer(alice, proposer.getScriptHash(), new BigInteger("1000000000"))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            tx = createSimpleProposal(gov, proposer, "get_proposals_by_proposer_" + i);
+            TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+            ids.add(neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0).getStack().get(0)
+                    .getInteger().intValue());
+        }
+
+        ProposalSummaryPaginatedStruct page = gov.getProposalsByProposer(proposer.getScriptHash(), 0, 2);
+        assertThat(page.pages, is(2));
+        assertThat(page.items.size(), is(2));
+        assertThat(page.items.get(0).id, is(ids.get(0)));
+        assertThat(page.items.get(1).id, is(ids.get(1)));
+        assertThat(page.items.get(0).proposer, is(proposer.getScriptHash()));
+        page = gov.getProposalsByProposer(proposer.getScriptHash(), 1, 2);
+        assertThat(page.items.size(), is(1));
+        assertThat(page.items.get(0).id, is(ids.get(2)));
+
+        String exception = gov.callInvokeFunction(GET_PROPOSALS_BY_PROPOSER,
+                asList(hash160(proposer), integer(2), integer(2))).getInvocationResult().getException();
+        assertThat(exception, containsString("Page out of bounds"));
+    }
+
+    @Test
+    @Order(1) // Creates many proposals. Is executed after the tests that page through the proposals.
+    public void get_large_page_of_proposal_summaries() throws Throwable {
+        final int pageSize = 100;
+        ContractParameter intent = array(NeoToken.SCRIPT_HASH, "balanceOf",
+                array(new Hash160(defaultAccountScriptHash())), CallFlags.ALL.getValue());
+        ContractParameter intents = array(intent, intent, intent, intent, intent, intent, intent, intent);
+        List<Hash256> txs = new ArrayList<>();
+        for (int i = gov.getProposalCount(); i < pageSize; i++) {
+            txs.add(gov.invokeFunction(CREATE, hash160(alice), intents, string("get_large_page_" + i), integer(-1))
+                    .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash());
+        }
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txs.toArray(new Hash256[0]));
+
+        InvocationResult full = gov.callInvokeFunction(GET_PROPOSALS, asList(integer(0), integer(pageSize)))
+                .getInvocationResult();
+        InvocationResult summaries = gov.callInvokeFunction(GET_PROPOSAL_SUMMARIES,
+                asList(integer(0), integer(pageSize))).getInvocationResult();
+        assertThat(summaries.getStack().get(0).getList().get(2).getList().size(), is(pageSize));
+        BigInteger fullGas = new BigInteger(full.getGasConsumed());
+        BigInteger summariesGas = new BigInteger(summaries.getGasConsumed());
+        assertThat("GAS of getProposalSummaries for " + pageSize + " proposals compared to getProposals",
+                summariesGas, is(lessThan(fullGas)));
+    }
+
+    @Test
+    @Order(1)
+    public void stream_proposal_data_with_iterator() throws Throwable {
+        int count = gov.getProposalCount();
+        Set<Integer> ids = new HashSet<>();
+        try (SessionIterator<ProposalDataStruct> it = gov.getProposalDataIterator(30)) {
+            while (it.hasNext()) {
+                ProposalDataStruct data = it.next();
+                assertThat(data.proposer, is(notNullValue()));
+                ids.add(data.id);
+            }
+        }
+        assertThat(ids.size(), is(count));
+    }
+
+    @Test
+    @Order(1)
+    public void close_proposal_data_iterator_before_all_items_were_consumed() throws Throwable {
+        SessionIterator<ProposalDataStruct> it = gov.getProposalDataIterator(1);
+        assertThat(it.next().proposer, is(notNullValue()));
+        it.close();
+        // The session is terminated, so no further page is fetched.
+        assertThat(it.hasNext(), is(false));
+    }
+
+    @Test
+    @Order(0)
+    public void stream_members_and_parameters_with_iterators() throws Throwable {
+        List<ECKeyPair.ECPublicKey> members = new ArrayList<>();
+        try (SessionIterator<ECKeyPair.ECPublicKey> it = gov.getMembersIterator(1)) {
+            it.forEachRemaining(members::add);
+        }
+        assertThat(members, containsInAnyOrder(alice.getECKeyPair().getPublicKey(),
+                charlie.getECKeyPair().getPublicKey()));
+
+        Map<String, BigInteger> params = new HashMap<>();
+        try (SessionIterator<Map.Entry<String, BigInteger>> it = gov.getParametersIterator(3)) {
+            it.forEachRemaining(e -> params.put(e.getKey(), e.getValue()));
+        }
+        assertThat(params, is(gov.getParameters()));
+    }
+
     @Test
     @Order(0)
     public void get_number_of_proposals() throws IOException {
@@ -637,6 +859,15 @@ public class GrantSharesGovTest {
         assertAborted(tx, "Not authorized", neow3j);
     }
 
+    // Sets a treasury that can't be paused. Pausing the contract must still succeed, which is checked in
+    // succeed_pausing_contract.
+    @Order(9)
+    @Test
+    public void set_treasury_that_cannot_be_paused() throws Throwable {
+        setTreasury(bob.getScriptHash(), "set_treasury_that_cannot_be_paused");
+        assertThat(gov.getTreasury(), is(bob.getScriptHash()));
+    }
+
     // Is executed as the first test of series of test that require the contract to be paused.
     @Order(10)
     @Test
@@ -652,10 +883,154 @@ public class GrantSharesGovTest {
                 .addWitness(Witness.create(tx.getHashData(), bob.getECKeyPair()))
                 .addMultiSigWitness(membersAccount.getVerificationScript(), alice)
                 .send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(txHash, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txHash);
 
         assertTrue(gov.callInvokeFunction(IS_PAUSED).getInvocationResult()
                 .getStack().get(0).getBoolean());
+        // The treasury is not a contract. Pushing the paused state to it fails without reverting the pause.
+        NeoApplicationLog.Execution.Notification n = neow3j.getApplicationLog(txHash).send().getApplicationLog()
+                .getExecutions().get(0).getNotifications().get(0);
+        assertThat(n.getEventName(), is("Error"));
+        assertThat(n.getState().getList().get(0).getString(), is("Treasury can't be paused"));
+    }
+
+    @Test
+    @Order(0)
+    public void stage_blob_in_chunks() throws Throwable {
+        byte[] blob = new byte[1000];
+        new Random().nextBytes(blob);
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(blob);
+        Hash256 tx = gov.stageBlobChunk(bob.getScriptHash(), hash, Arrays.copyOfRange(blob, 0, 600))
+                .signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        tx = gov.stageBlobChunk(bob.getScriptHash(), hash, Arrays.copyOfRange(blob, 600, 1000))
+                .signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        // The blob is not complete before it is finalized.
+        assertThat(gov.getBlob(hash), is(nullValue()));
+
+        tx = gov.finalizeBlob(bob.getScriptHash(), hash)
+                .signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        assertThat(gov.getBlob(hash), is(blob));
+
+        tx = gov.stageBlobChunk(alice.getScriptHash(), hash, new byte[]{0x01})
+                .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "Blob already staged", neow3j);
+
+        tx = gov.removeBlob(bob.getScriptHash(), hash)
+                .signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        assertThat(gov.getBlob(hash), is(nullValue()));
+    }
+
+    @Test
+    @Order(0)
+    public void finalize_blob_fires_event() throws Throwable {
+        byte[] blob = "finalize_blob_fires_event".getBytes();
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(blob);
+        Hash256 tx = gov.stageBlobChunk(alice.getScriptHash(), hash, blob)
+                .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        assertThat(neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0).getStack().get(0)
+                .getInteger().intValue(), is(1));
+
+        tx = gov.finalizeBlob(alice.getScriptHash(), hash)
+                .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        NeoApplicationLog.Execution.Notification n = neow3j.getApplicationLog(tx).send().getApplicationLog()
+                .getExecutions().get(0).getNotifications().get(0);
+        assertThat(n.getEventName(), is(BLOB_STAGED));
+        assertThat(n.getState().getList().get(0).getByteArray(), is(hash));
+        assertThat(n.getState().getList().get(1).getAddress(), is(alice.getAddress()));
+    }
+
+    @Test
+    @Order(0)
+    public void remove_blob_after_a_wrong_chunk() throws Throwable {
+        byte[] blob = "remove_blob_after_a_wrong_chunk".getBytes();
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(blob);
+        Hash256 tx = gov.stageBlobChunk(bob.getScriptHash(), hash, new byte[]{0x01})
+                .signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        tx = gov.finalizeBlob(bob.getScriptHash(), hash)
+                .signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "Blob doesn't match its hash", neow3j);
+
+        // Removing the staged chunks frees the staging slot for the correct chunks.
+        tx = gov.removeBlob(bob.getScriptHash(), hash)
+                .signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        TestHelper.stageBlob(gov, neow3j, bob, blob, 10);
+        assertThat(gov.getBlob(hash), is(blob));
+
+        tx = gov.removeBlob(alice.getScriptHash(), hash)
+                .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "No blob chunks staged", neow3j);
+    }
+
+    @Test
+    @Order(0)
+    public void fail_stage_blob_chunk_with_invalid_hash() throws Throwable {
+        Hash256 tx = gov.stageBlobChunk(alice.getScriptHash(), new byte[]{0x01, 0x02}, new byte[]{0x01})
+                .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "Invalid blob hash", neow3j);
+    }
+
+    @Test
+    @Order(0)
+    public void fail_stage_blob_chunk_without_witness() throws Throwable {
+        Hash256 tx = gov.stageBlobChunk(alice.getScriptHash(), new byte[32], new byte[]{0x01})
+                .signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "Not authorised", neow3j);
+    }
+
+    @Test
+    @Order(0)
+    public void fail_call_with_blobs_directly() throws Throwable {
+        Hash256 tx = gov.invokeFunction(CALL_WITH_BLOBS, hash160(NeoToken.SCRIPT_HASH), string("symbol"), array(),
+                        array()).signers(AccountSigner.calledByEntry(alice))
+                .sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "Method only callable by the contract itself", neow3j);
+    }
+
+    @Test
+    @Order(0)
+    public void execute_proposal_with_blob_params() throws Throwable {
+        byte[] hash = TestHelper.stageBlob(gov, neow3j, bob, alice.getScriptHash().toLittleEndianArray(), 8);
+        IntentParam intent = IntentParam.callWithBlobsProposal(gov.getScriptHash(), NeoToken.SCRIPT_HASH,
+                "balanceOf", new ContractParameter[]{byteArray(hash)}, 0);
+        int id = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent), "execute_proposal_with_blob_params");
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, id, alice);
+        voteForProposal(gov, neow3j, id, charlie);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(charlie))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+
+        NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send().getApplicationLog()
+                .getExecutions().get(0);
+        BigInteger balance = new NeoToken(neow3j).getBalanceOf(alice.getScriptHash());
+        assertThat(execution.getStack().get(0).getList().get(0).getInteger(), is(balance));
+    }
+
+    @Test
+    @Order(0)
+    public void fail_execute_proposal_with_missing_blob() throws Throwable {
+        IntentParam intent = IntentParam.callWithBlobsProposal(gov.getScriptHash(), NeoToken.SCRIPT_HASH,
+                "balanceOf", new ContractParameter[]{byteArray(new byte[32])}, 0);
+        int id = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent),
+                "fail_execute_proposal_with_missing_blob");
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, id, alice);
+        voteForProposal(gov, neow3j, id, charlie);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(charlie))
+                .sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "Blob doesn't exist", neow3j);
     }
 
     @Test
@@ -758,7 +1133,7 @@ public class GrantSharesGovTest {
                 .addWitness(Witness.create(tx.getHashData(), bob.getECKeyPair()))
                 .addMultiSigWitness(membersAccount.getVerificationScript(), alice)
                 .send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(txHash, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txHash);
 
         assertFalse(gov.callInvokeFunction(IS_PAUSED).getInvocationResult()
                 .getStack().get(0).getBoolean());
@@ -766,6 +1141,13 @@ public class GrantSharesGovTest {
 
     @Test
     @Order(20)
+    public void clear_treasury() throws Throwable {
+        setTreasury(Hash160.ZERO, "clear_treasury");
+        assertThat(gov.getTreasury(), is(nullValue()));
+    }
+
+    @Test
+    @Order(21)
     public void execute_proposal_with_update_contract() throws Throwable {
         File nefFile = new File(this.getClass().getClassLoader()
                 .getResource(TESTCONTRACT_NEF_FILE.toString()).toURI());
@@ -801,7 +1183,7 @@ public class GrantSharesGovTest {
         Hash256 tx = gov.invokeFunction(EXECUTE, integer(id))
                 .signers(AccountSigner.calledByEntry(charlie))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -810,4 +1192,15 @@ public class GrantSharesGovTest {
         assertThat(n.getContract(), is(gov.getScriptHash()));
     }
 
-}
\ No newline at end of file
+    private void setTreasury(Hash160 treasury, String offchainUri) throws Throwable {
+        int id = createAndEndorseProposal(gov, neow3j, bob, alice,
+                array(IntentParam.setTreasuryProposal(gov.getScriptHash(), treasury)), offchainUri);
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, id, alice);
+        voteForProposal(gov, neow3j, id, charlie);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(charlie))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+    }
+}
@@ -3,6 +3,8 @@ package com.axlabs.neo.grantshares;
 import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
 import com.axlabs.neo.grantshares.util.GrantSharesTreasuryContract;
 import com.axlabs.neo.grantshares.util.IntentParam;
+import com.axlabs.neo.grantshares.util.SessionIterator;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
 import io.neow3j.contract.GasToken;
 import io.neow3j.contract.NefFile;
 import io.neow3j.contract.NeoToken;
@@ -25,7 +27,6 @@ import io.neow3j.types.ContractParameter;
 import io.neow3j.types.Hash160;
 import io.neow3j.types.Hash256;
 import io.neow3j.types.NeoVMStateType;
-import io.neow3j.utils.Await;
 import io.neow3j.wallet.Account;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer;
@@ -39,9 +40,11 @@ import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
 import static com.axlabs.neo.grantshares.util.TestHelper.BOB;
@@ -56,6 +59,7 @@ import static com.axlabs.neo.grantshares.util.TestHelper.UNPAUSE;
 import static com.axlabs.neo.grantshares.util.TestHelper.UPDATE_CONTRACT;
 import static com.axlabs.neo.grantshares.util.TestHelper.assertAborted;
 import static com.axlabs.neo.grantshares.util.TestHelper.createAndEndorseProposal;
+import static com.axlabs.neo.grantshares.util.TestHelper.createAndExecuteProposal;
 import static com.axlabs.neo.grantshares.util.TestHelper.createMultiSigAccount;
 import static com.axlabs.neo.grantshares.util.TestHelper.prepareDeployParameter;
 import static com.axlabs.neo.grantshares.util.TestHelper.voteForProposal;
@@ -153,7 +157,37 @@ public class GrantSharesTreasuryTest {
         // fund the treasury
         Hash256 tx = new GasToken(neow3j).transfer(bob, treasury.getScriptHash(), BigInteger.valueOf(100))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+
+        // register the treasury in the governance contract so that pausing is pushed to it
+        createAndExecuteProposal(gov, neow3j, ext, alice,
+                array(IntentParam.setTreasuryProposal(gov.getScriptHash(), treasury.getScriptHash())),
+                "register_treasury");
+    }
+
+    @Test
+    @Order(0)
+    public void treasury_is_registered_in_governance() throws IOException {
+        assertThat(gov.getTreasury(), is(treasury.getScriptHash()));
+    }
+
+    @Test
+    @Order(0)
+    public void fail_calling_set_paused_directly() throws Throwable {
+        Hash256 tx = treasury.setPaused(true).signers(AccountSigner.calledByEntry(alice))
+                .sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "Not authorised", neow3j);
+        assertFalse(treasury.isPaused());
+    }
+
+    @Test
+    @Order(0)
+    public void paused_state_is_consistent_with_governance() throws Throwable {
+        assertThat(treasury.isPaused(), is(gov.isPaused()));
+        boolean synced = treasury.syncPausedState().signers(AccountSigner.calledByEntry(bob))
+                .callInvokeScript().getInvocationResult().getStack().get(0).getBoolean();
+        assertThat(synced, is(gov.isPaused()));
+        assertThat(treasury.isPaused(), is(gov.isPaused()));
     }
 
     @Test
@@ -173,6 +207,22 @@ public class GrantSharesTreasuryTest {
         assertThat(tokens.values(), containsInAnyOrder(NEO_MAX_AMOUNT, GAS_MAX_AMOUNT));
     }
 
+    @Test
+    @Order(0)
+    public void stream_funders_and_whitelisted_tokens_with_iterators() throws IOException {
+        Map<Hash160, List<ECPublicKey>> funders = new HashMap<>();
+        try (SessionIterator<Map.Entry<Hash160, List<ECPublicKey>>> it = treasury.getFundersIterator(1)) {
+            it.forEachRemaining(e -> funders.put(e.getKey(), e.getValue()));
+        }
+        assertThat(funders, is(treasury.getFunders()));
+
+        Map<Hash160, BigInteger> tokens = new HashMap<>();
+        try (SessionIterator<Map.Entry<Hash160, BigInteger>> it = treasury.getWhitelistedTokensIterator(1)) {
+            it.forEachRemaining(e -> tokens.put(e.getKey(), e.getValue()));
+        }
+        assertThat(tokens, is(treasury.getWhitelistedTokens()));
+    }
+
     @Test
     @Order(0)
     public void succeed_voting_on_committee_member() throws Throwable {
@@ -180,21 +230,21 @@ public class GrantSharesTreasuryTest {
         // register alice as candidate (is already a committee member by default in neo-express)
         Hash256 hash = neo.registerCandidate(alice.getECKeyPair().getPublicKey())
                 .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(hash, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(hash);
         // vote for alice
         hash = neo.vote(alice, alice.getECKeyPair().getPublicKey())
                 .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(hash, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(hash);
         assertThat(neo.getCandidates().get(alice.getECKeyPair().getPublicKey()).intValue(), is(1000));
 
         // fund treasury
         hash = new NeoToken(neow3j).transfer(bob, treasury.getScriptHash(), BigInteger.valueOf(100))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(hash, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(hash);
         // vote on Alice with treasury
         hash = treasury.voteCommitteeMemberWithLeastVotes().signers(AccountSigner.none(bob)).sign().send()
                 .getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(hash, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(hash);
         assertThat(neo.getCandidates().get(alice.getECKeyPair().getPublicKey()).intValue(), is(1100));
     }
 
@@ -303,6 +353,33 @@ public class GrantSharesTreasuryTest {
         assertAborted(tx, "Above token's max funding amount", neow3j);
     }
 
+    @Test
+    @Order(0)
+    public void fail_release_tokens_batch_with_to_high_total() throws Throwable {
+        ContractParameter intent = IntentParam.releaseTokensBatchProposal(treasury.getScriptHash(),
+                GasToken.SCRIPT_HASH, new Hash160[]{alice.getScriptHash(), charlie.getScriptHash()},
+                new BigInteger[]{GAS_MAX_AMOUNT, BigInteger.ONE});
+        String offchainUri = "fail_release_tokens_batch_with_to_high_total";
+
+        int id = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent), offchainUri);
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, id, alice);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(bob)).sign().send()
+                .getSendRawTransaction().getHash();
+        assertAborted(tx, "Batch total above token's max funding amount", neow3j);
+    }
+
+    @Test
+    @Order(0)
+    public void fail_calling_release_tokens_batch_directly() throws Throwable {
+        Hash256 tx = treasury.releaseTokensBatch(GasToken.SCRIPT_HASH, new Hash160[]{alice.getScriptHash()},
+                        new BigInteger[]{BigInteger.ONE})
+                .signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        assertAborted(tx, "Not authorised", neow3j);
+    }
+
     @Test
     @Order(0)
     public void fail_calling_release_tokens_directly() throws Throwable {
@@ -462,7 +539,7 @@ public class GrantSharesTreasuryTest {
         Hash256 tx = gov.execute(id)
                 .signers(AccountSigner.calledByEntry(charlie))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -496,7 +573,7 @@ public class GrantSharesTreasuryTest {
         Hash256 tx = gov.execute(id)
                 .signers(AccountSigner.calledByEntry(charlie))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -548,7 +625,7 @@ public class GrantSharesTreasuryTest {
         Hash256 tx = gov.invokeFunction(EXECUTE, integer(id))
                 .signers(AccountSigner.calledByEntry(alice))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -597,7 +674,7 @@ public class GrantSharesTreasuryTest {
         Hash256 tx = gov.execute(id)
                 .signers(AccountSigner.calledByEntry(alice))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -636,7 +713,7 @@ public class GrantSharesTreasuryTest {
         Hash256 tx = gov.execute(id)
                 .signers(AccountSigner.calledByEntry(alice))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -670,7 +747,7 @@ public class GrantSharesTreasuryTest {
         Hash256 tx = gov.execute(id)
                 .signers(AccountSigner.calledByEntry(alice))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -691,7 +768,7 @@ public class GrantSharesTreasuryTest {
         Hash256 tx = gas.transfer(bob, treasury.getScriptHash(), BigInteger.ONE)
                 .signers(AccountSigner.calledByEntry(bob))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -727,7 +804,7 @@ public class GrantSharesTreasuryTest {
         Hash256 tx = gov.invokeFunction(EXECUTE, integer(id))
                 .signers(AccountSigner.calledByEntry(bob))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -737,6 +814,151 @@ public class GrantSharesTreasuryTest {
         assertThat(new GasToken(neow3j).getBalanceOf(acc), is(fundingAmount));
     }
 
+    @Test
+    @Order(16)
+    public void execute_proposal_with_release_tokens_batch() throws Throwable {
+        Account[] receivers = new Account[]{Account.create(), Account.create(), Account.create()};
+        BigInteger[] amounts = new BigInteger[]{BigInteger.ONE, BigInteger.valueOf(2), BigInteger.valueOf(3)};
+        ContractParameter intent = IntentParam.releaseTokensBatchProposal(treasury.getScriptHash(),
+                GasToken.SCRIPT_HASH, Arrays.stream(receivers).map(Account::getScriptHash).toArray(Hash160[]::new),
+                amounts);
+        String offchainUri = "execute_proposal_with_release_tokens_batch";
+
+        int id = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent), offchainUri);
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, id, alice);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(bob)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+
+        List<NeoApplicationLog.Execution.Notification> released = neow3j.getApplicationLog(tx).send()
+                .getApplicationLog().getExecutions().get(0).getNotifications().stream()
+                .filter(n -> n.getEventName().equals("TokenReleased")).collect(Collectors.toList());
+        assertThat(released.size(), is(receivers.length));
+        GasToken gas = new GasToken(neow3j);
+        for (int i = 0; i < receivers.length; i++) {
+            assertThat(released.get(i).getState().getList().get(1).getAddress(), is(receivers[i].getAddress()));
+            assertThat(released.get(i).getState().getList().get(2).getInteger(), is(amounts[i]));
+            assertThat(gas.getBalanceOf(receivers[i]), is(amounts[i]));
+        }
+    }
+
+    @Test
+    @Order(17)
+    public void execute_proposal_with_vesting_schedule_and_claim_tranches() throws Throwable {
+        GasToken gas = new GasToken(neow3j);
+        long now = neow3j.getBlock(neow3j.getBlockCount().send().getBlockCount().subtract(BigInteger.ONE), false)
+                .send().getBlock().getTime();
+        long secondUnlock = now + 10 * PHASE_LENGTH * 1000;
+        ContractParameter intent = IntentParam.createVestingScheduleProposal(treasury.getScriptHash(),
+                GasToken.SCRIPT_HASH, denise.getScriptHash(), new BigInteger[]{BigInteger.ONE, BigInteger.TEN},
+                new long[]{now, secondUnlock});
+        String offchainUri = "execute_proposal_with_vesting_schedule_and_claim_tranches";
+
+        int id = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent), offchainUri);
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, id, alice);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(bob)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        NeoApplicationLog.Execution.Notification created = neow3j.getApplicationLog(tx).send().getApplicationLog()
+                .getExecutions().get(0).getNotifications().stream()
+                .filter(n -> n.getEventName().equals("VestingScheduleCreated")).findFirst().get();
+        int scheduleId = created.getState().getList().get(0).getInteger().intValue();
+
+        // only the beneficiary can claim
+        tx = treasury.claim(scheduleId).signers(AccountSigner.calledByEntry(eve)).sign().send()
+                .getSendRawTransaction().getHash();
+        assertAborted(tx, "Not authorised", neow3j);
+
+        // the first tranche is unlocked
+        BigInteger balance = gas.getBalanceOf(treasury.getScriptHash());
+        tx = treasury.claim(scheduleId).signers(AccountSigner.calledByEntry(denise)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        assertThat(gas.getBalanceOf(treasury.getScriptHash()), is(balance.subtract(BigInteger.ONE)));
+        assertThat(treasury.getVestingScheduleClaimedTranches(scheduleId), is(1));
+
+        // the second tranche is still locked
+        tx = treasury.claim(scheduleId).signers(AccountSigner.calledByEntry(denise)).sign().send()
+                .getSendRawTransaction().getHash();
+        assertAborted(tx, "Nothing to claim", neow3j);
+
+        ext.fastForwardOneBlock(10 * PHASE_LENGTH);
+        tx = treasury.claim(scheduleId).signers(AccountSigner.calledByEntry(denise)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        NeoApplicationLog.Execution.Notification claimed = neow3j.getApplicationLog(tx).send().getApplicationLog()
+                .getExecutions().get(0).getNotifications().stream()
+                .filter(n -> n.getEventName().equals("VestingClaimed")).findFirst().get();
+        assertThat(claimed.getState().getList().get(2).getInteger(), is(BigInteger.TEN));
+        assertThat(gas.getBalanceOf(treasury.getScriptHash()),
+                is(balance.subtract(BigInteger.ONE).subtract(BigInteger.TEN)));
+        assertThat(treasury.getVestingScheduleClaimedTranches(scheduleId), is(2));
+    }
+
+    @Test
+    @Order(0)
+    public void fail_creating_vesting_schedule_with_unordered_unlock_times() throws Throwable {
+        ContractParameter intent = IntentParam.createVestingScheduleProposal(treasury.getScriptHash(),
+                GasToken.SCRIPT_HASH, denise.getScriptHash(), new BigInteger[]{BigInteger.ONE, BigInteger.ONE},
+                new long[]{2000, 1000});
+        String offchainUri = "fail_creating_vesting_schedule_with_unordered_unlock_times";
+
+        int id = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent), offchainUri);
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, id, alice);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(bob)).sign().send()
+                .getSendRawTransaction().getHash();
+        assertAborted(tx, "Unlock times not ascending", neow3j);
+    }
+
+    @Test
+    @Order(0)
+    public void fail_creating_vesting_schedule_with_tranches_above_max_funding_amount_in_total() throws Throwable {
+        // Each tranche is below the max funding amount, but their sum is above it.
+        BigInteger tranche = GAS_MAX_AMOUNT.divide(BigInteger.valueOf(2)).add(BigInteger.ONE);
+        ContractParameter intent = IntentParam.createVestingScheduleProposal(treasury.getScriptHash(),
+                GasToken.SCRIPT_HASH, denise.getScriptHash(), new BigInteger[]{tranche, tranche},
+                new long[]{1000, 2000});
+        String offchainUri = "fail_creating_vesting_schedule_with_tranches_above_max_funding_amount_in_total";
+
+        int id = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent), offchainUri);
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, id, alice);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(bob)).sign().send()
+                .getSendRawTransaction().getHash();
+        assertAborted(tx, "Above token's max funding amount", neow3j);
+    }
+
+    @Test
+    @Order(18)
+    public void tracked_balances_match_token_balances() throws Throwable {
+        Map<Hash160, BigInteger> balances = treasury.getTreasuryBalances();
+        assertThat(balances.get(GasToken.SCRIPT_HASH), is(new GasToken(neow3j).getBalanceOf(treasury.getScriptHash())));
+        assertThat(balances.get(NeoToken.SCRIPT_HASH), is(new NeoToken(neow3j).getBalanceOf(treasury.getScriptHash())));
+
+        // Nothing drifted, so reconciling doesn't change any balance. One token is reconciled per call.
+        int start = 0;
+        for (int i = 0; i < balances.size(); i++) {
+            Hash256 tx = treasury.reconcileBalances(start, 1).signers(AccountSigner.calledByEntry(bob)).sign()
+                    .send().getSendRawTransaction().getHash();
+            TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+            NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send().getApplicationLog()
+                    .getExecutions().get(0);
+            assertThat(execution.getState(), is(NeoVMStateType.HALT));
+            assertThat(execution.getNotifications().size(), is(0));
+            start = execution.getStack().get(0).getInteger().intValue();
+        }
+        // The last call reconciled the last token.
+        assertThat(start, is(-1));
+        assertThat(treasury.getTreasuryBalances(), is(balances));
+    }
+
     @Order(20)
     @Test
     public void succeed_pausing_contract() throws Throwable {
@@ -751,7 +973,7 @@ public class GrantSharesTreasuryTest {
                 .addWitness(Witness.create(tx.getHashData(), bob.getECKeyPair()))
                 .addMultiSigWitness(membersAccount.getVerificationScript(), alice)
                 .send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(txHash, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txHash);
 
         assertTrue(treasury.callInvokeFunction(IS_PAUSED).getInvocationResult()
                 .getStack().get(0).getBoolean());
@@ -836,7 +1058,7 @@ public class GrantSharesTreasuryTest {
                 .addWitness(Witness.create(tx.getHashData(), bob.getECKeyPair()))
                 .addMultiSigWitness(membersAccount.getVerificationScript(), alice)
                 .send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(txHash, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txHash);
 
         assertFalse(treasury.callInvokeFunction(IS_PAUSED).getInvocationResult()
                 .getStack().get(0).getBoolean());
@@ -873,7 +1095,7 @@ public class GrantSharesTreasuryTest {
         Hash256 tx = gov.invokeFunction(EXECUTE, integer(id))
                 .signers(AccountSigner.calledByEntry(alice))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
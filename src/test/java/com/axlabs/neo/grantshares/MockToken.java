@@ -0,0 +1,84 @@
+package com.axlabs.neo.grantshares;
+
+import io.neow3j.devpack.Contract;
+import io.neow3j.devpack.Hash160;
+import io.neow3j.devpack.Runtime;
+import io.neow3j.devpack.Storage;
+import io.neow3j.devpack.StorageContext;
+import io.neow3j.devpack.StorageMap;
+import io.neow3j.devpack.annotations.DisplayName;
+import io.neow3j.devpack.annotations.OnDeployment;
+import io.neow3j.devpack.annotations.Permission;
+import io.neow3j.devpack.annotations.Safe;
+import io.neow3j.devpack.annotations.SupportedStandard;
+import io.neow3j.devpack.constants.CallFlags;
+import io.neow3j.devpack.constants.NeoStandard;
+import io.neow3j.devpack.contracts.ContractManagement;
+import io.neow3j.devpack.events.Event3Args;
+
+/**
+ * A minimal NEP-17 token used in tests that need many different tokens. The whole supply is minted to the account
+ * given as deployment data.
+ */
+@SupportedStandard(neoStandard = NeoStandard.NEP_17)
+@Permission(contract = "*", methods = "onNEP17Payment")
+@DisplayName("MockToken")
+public class MockToken {
+
+    static final int SUPPLY = 1000000;
+    static final String TOTAL_SUPPLY_KEY = "totalSupply";
+
+    static final StorageContext ctx = Storage.getStorageContext();
+    static final StorageMap balances = new StorageMap(ctx, "balances");
+
+    @DisplayName("Transfer")
+    static Event3Args<Hash160, Hash160, Integer> onTransfer;
+
+    @OnDeployment
+    public static void deploy(Object data, boolean update) {
+        if (!update) {
+            Hash160 owner = (Hash160) data;
+            Storage.put(ctx, TOTAL_SUPPLY_KEY, SUPPLY);
+            balances.put(owner.toByteString(), SUPPLY);
+            onTransfer.fire(null, owner, SUPPLY);
+        }
+    }
+
+    @Safe
+    public static String symbol() {
+        return "MOCK";
+    }
+
+    @Safe
+    public static int decimals() {
+        return 0;
+    }
+
+    @Safe
+    public static int totalSupply() {
+        return Storage.getInt(Storage.getReadOnlyContext(), TOTAL_SUPPLY_KEY);
+    }
+
+    @Safe
+    public static int balanceOf(Hash160 account) {
+        return balances.getIntOrZero(account.toByteString());
+    }
+
+    public static boolean transfer(Hash160 from, Hash160 to, int amount, Object data) {
+        if (amount < 0 || !Runtime.checkWitness(from)) {
+            return false;
+        }
+        int fromBalance = balanceOf(from);
+        if (fromBalance < amount) {
+            return false;
+        }
+        balances.put(from.toByteString(), fromBalance - amount);
+        balances.put(to.toByteString(), balanceOf(to) + amount);
+        onTransfer.fire(from, to, amount);
+        if (ContractManagement.getContract(to) != null) {
+            Contract.call(to, "onNEP17Payment", CallFlags.All, new Object[]{from, amount, data});
+        }
+        return true;
+    }
+
+}
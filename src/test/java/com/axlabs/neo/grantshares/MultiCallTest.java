@@ -0,0 +1,139 @@
+package com.axlabs.neo.grantshares;
+
+import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
+import com.axlabs.neo.grantshares.util.GrantSharesTreasuryContract;
+import com.axlabs.neo.grantshares.util.MultiCall;
+import com.axlabs.neo.grantshares.util.ProposalStruct;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
+import io.neow3j.contract.GasToken;
+import io.neow3j.contract.NeoToken;
+import io.neow3j.contract.SmartContract;
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.test.ContractTest;
+import io.neow3j.test.ContractTestExtension;
+import io.neow3j.test.DeployConfig;
+import io.neow3j.test.DeployConfiguration;
+import io.neow3j.test.DeployContext;
+import io.neow3j.transaction.AccountSigner;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.Hash160;
+import io.neow3j.types.Hash256;
+import io.neow3j.wallet.Account;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
+import static com.axlabs.neo.grantshares.util.TestHelper.BOB;
+import static com.axlabs.neo.grantshares.util.TestHelper.CHARLIE;
+import static com.axlabs.neo.grantshares.util.TestHelper.CREATE;
+import static com.axlabs.neo.grantshares.util.TestHelper.PHASE_LENGTH;
+import static com.axlabs.neo.grantshares.util.TestHelper.REVIEW_LENGTH_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.prepareDeployParameter;
+import static io.neow3j.types.ContractParameter.array;
+import static io.neow3j.types.ContractParameter.hash160;
+import static io.neow3j.types.ContractParameter.integer;
+import static io.neow3j.types.ContractParameter.map;
+import static io.neow3j.types.ContractParameter.string;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Reads proposals and other state with a single {@code invokescript} call that combines all reads and compares the
+ * results with the ones of one {@code invokefunction} call per value.
+ */
+@ContractTest(contracts = {GrantSharesGov.class, GrantSharesTreasury.class},
+        blockTime = 1, configFile = "default.neo-express", batchFile = "setup.batch")
+public class MultiCallTest {
+
+    private static final int PROPOSALS = 50;
+
+    @RegisterExtension
+    static ContractTestExtension ext = new ContractTestExtension();
+
+    static Neow3j neow3j;
+    static GrantSharesGovContract gov;
+    static GrantSharesTreasuryContract treasury;
+    static Account alice;
+
+    @DeployConfig(GrantSharesGov.class)
+    public static DeployConfiguration deployConfigGov() throws Exception {
+        DeployConfiguration config = new DeployConfiguration();
+        config.setDeployParam(prepareDeployParameter(ext.getAccount(ALICE), ext.getAccount(CHARLIE)));
+        return config;
+    }
+
+    @DeployConfig(GrantSharesTreasury.class)
+    public static DeployConfiguration deployConfigTreasury(DeployContext ctx) throws Exception {
+        DeployConfiguration config = new DeployConfiguration();
+        SmartContract gov = ctx.getDeployedContract(GrantSharesGov.class);
+        Account bob = ext.getAccount(BOB);
+        ContractParameter funders = array(array(bob.getScriptHash(), array(bob.getECKeyPair().getPublicKey())));
+        Map<Hash160, Integer> tokens = new HashMap<>();
+        tokens.put(NeoToken.SCRIPT_HASH, 100);
+        tokens.put(GasToken.SCRIPT_HASH, 10000);
+        config.setDeployParam(array(gov.getScriptHash(), funders, map(tokens), 50));
+        return config;
+    }
+
+    @BeforeAll
+    public static void setUp() throws Throwable {
+        neow3j = ext.getNeow3j();
+        gov = new GrantSharesGovContract(ext.getDeployedContract(GrantSharesGov.class).getScriptHash(), neow3j);
+        treasury = new GrantSharesTreasuryContract(
+                ext.getDeployedContract(GrantSharesTreasury.class).getScriptHash(), neow3j);
+        alice = ext.getAccount(ALICE);
+
+        Hash256 tx = null;
+        for (int i = 0; i < PROPOSALS; i++) {
+            tx = gov.invokeFunction(CREATE, hash160(alice), array(), string("multicall_" + i), integer(-1))
+                    .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
+        }
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        assertThat(gov.getProposalCount(), is(PROPOSALS));
+    }
+
+    @Test
+    public void read_proposals_and_state_with_one_invocation() throws Throwable {
+        int[] ids = new int[PROPOSALS];
+        for (int i = 0; i < PROPOSALS; i++) {
+            ids[i] = i;
+        }
+
+        List<ProposalStruct> sequential = new ArrayList<>();
+        for (int id : ids) {
+            sequential.add(gov.getProposal(id));
+        }
+        List<ProposalStruct> multiCall = gov.getProposalsById(ids);
+
+        assertThat(multiCall.size(), is(PROPOSALS));
+        for (int i = 0; i < PROPOSALS; i++) {
+            assertThat(multiCall.get(i).id, is(sequential.get(i).id));
+            assertThat(multiCall.get(i).proposer, is(sequential.get(i).proposer));
+            assertThat(multiCall.get(i).offchainUri, is(sequential.get(i).offchainUri));
+        }
+
+        // Different read calls on both contracts can be mixed.
+        MultiCall calls = new MultiCall(neow3j);
+        MultiCall.Result<ProposalStruct> proposal = gov.getProposal(calls, PROPOSALS - 1);
+        MultiCall.Result<BigInteger> reviewLength = gov.getParameter(calls, REVIEW_LENGTH_KEY);
+        MultiCall.Result<Integer> membersCount = gov.getMembersCount(calls);
+        MultiCall.Result<Integer> proposalCount = gov.getProposalCount(calls);
+        MultiCall.Result<Map<Hash160, BigInteger>> tokens = treasury.getWhitelistedTokens(calls);
+        MultiCall.Result<Boolean> paused = treasury.isPaused(calls);
+        calls.execute();
+
+        assertThat(proposal.get().offchainUri, is("multicall_" + (PROPOSALS - 1)));
+        assertThat(reviewLength.get(), is(BigInteger.valueOf(PHASE_LENGTH * 1000)));
+        assertThat(membersCount.get(), is(2));
+        assertThat(proposalCount.get(), is(PROPOSALS));
+        assertThat(tokens.get(), is(treasury.getWhitelistedTokens()));
+        assertThat(paused.get(), is(false));
+    }
+}
@@ -0,0 +1,69 @@
+package com.axlabs.neo.grantshares;
+
+import io.neow3j.devpack.ByteString;
+import io.neow3j.devpack.Hash160;
+import io.neow3j.devpack.Storage;
+import io.neow3j.devpack.StorageContext;
+import io.neow3j.devpack.StorageMap;
+
+import static io.neow3j.devpack.contracts.StdLib.deserialize;
+import static io.neow3j.devpack.contracts.StdLib.serialize;
+
+/**
+ * Test contract that stores and reads {@link Proposal}s once with the packed {@link ProposalCodec} layout and once
+ * with {@code StdLib} serialization, so that the two can be compared.
+ */
+public class ProposalCodecBenchmark {
+
+    static final StorageContext ctx = Storage.getStorageContext();
+    static final StorageMap packed = new StorageMap(ctx, 1);
+    static final StorageMap serialized = new StorageMap(ctx, 2);
+    static final StorageMap phaseLengths = new StorageMap(ctx, 3);
+
+    public static void storePhaseLengths(int reviewLength, int votingLength, int timeLockLength,
+            int expirationLength) {
+        phaseLengths.put(0, ProposalCodec.encodePhaseLengths(reviewLength, votingLength, timeLockLength,
+                expirationLength));
+    }
+
+    // Endorsed proposals refer to the phase lengths snapshot 0.
+    public static ByteString storePacked(int id, Hash160 endorser, int endorsementTime, int expiration,
+            boolean executed) {
+        ByteString bytes = endorser == null
+                ? ProposalCodec.encodeCreated(expiration)
+                : ProposalCodec.encodeEndorsed(endorser, endorsementTime, 0);
+        if (executed) {
+            bytes = ProposalCodec.withExecuted(bytes);
+        }
+        packed.put(id, bytes);
+        return bytes;
+    }
+
+    public static ByteString storeSerialized(int id, Hash160 endorser, int reviewEnd, int votingEnd, int timeLockEnd,
+            int expiration, boolean executed) {
+        ByteString bytes = serialize(proposal(id, endorser, reviewEnd, votingEnd, timeLockEnd, expiration, executed));
+        serialized.put(id, bytes);
+        return bytes;
+    }
+
+    public static Proposal readPacked(int id) {
+        ByteString bytes = packed.get(id);
+        int snapshotId = ProposalCodec.snapshotId(bytes);
+        return ProposalCodec.decode(id, bytes, snapshotId < 0 ? null : phaseLengths.get(snapshotId));
+    }
+
+    public static Proposal readSerialized(int id) {
+        return (Proposal) deserialize(serialized.get(id));
+    }
+
+    private static Proposal proposal(int id, Hash160 endorser, int reviewEnd, int votingEnd, int timeLockEnd,
+            int expiration, boolean executed) {
+        Proposal proposal = new Proposal(id, expiration);
+        proposal.endorser = endorser;
+        proposal.reviewEnd = reviewEnd;
+        proposal.votingEnd = votingEnd;
+        proposal.timeLockEnd = timeLockEnd;
+        proposal.executed = executed;
+        return proposal;
+    }
+}
@@ -0,0 +1,126 @@
+package com.axlabs.neo.grantshares;
+
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
+import io.neow3j.contract.SmartContract;
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.core.response.NeoApplicationLog;
+import io.neow3j.protocol.core.stackitem.StackItem;
+import io.neow3j.test.ContractTest;
+import io.neow3j.test.ContractTestExtension;
+import io.neow3j.transaction.AccountSigner;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.Hash256;
+import io.neow3j.wallet.Account;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
+import static io.neow3j.types.ContractParameter.any;
+import static io.neow3j.types.ContractParameter.bool;
+import static io.neow3j.types.ContractParameter.hash160;
+import static io.neow3j.types.ContractParameter.integer;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Compares the packed encoding of proposals with the {@code StdLib} serialization in terms of storage bytes and GAS
+ * and checks that both decode to the same proposal.
+ */
+@ContractTest(contracts = ProposalCodecBenchmark.class, blockTime = 1, configFile = "default.neo-express",
+        batchFile = "setup.batch")
+public class ProposalCodecTest {
+
+    private static final BigInteger NOW = BigInteger.valueOf(System.currentTimeMillis());
+    private static final BigInteger PHASE = BigInteger.valueOf(7 * 24 * 3600 * 1000L); // one week in milliseconds
+
+    @RegisterExtension
+    private static ContractTestExtension ext = new ContractTestExtension();
+
+    private static Neow3j neow3j;
+    private static SmartContract benchmark;
+    private static Account alice;
+
+    @BeforeAll
+    public static void setUp() throws Throwable {
+        neow3j = ext.getNeow3j();
+        benchmark = ext.getDeployedContract(ProposalCodecBenchmark.class);
+        alice = ext.getAccount(ALICE);
+        store("storePhaseLengths", new ContractParameter[]{integer(PHASE), integer(PHASE), integer(PHASE),
+                integer(PHASE)});
+    }
+
+    @Test
+    public void compare_packed_encoding_with_serialization() throws Throwable {
+        ContractParameter[][] proposals = new ContractParameter[][]{
+                proposal(1, false, false), // created
+                proposal(2, true, false), // endorsed
+                proposal(3, true, true) // executed
+        };
+
+        for (int i = 0; i < proposals.length; i++) {
+            ContractParameter[] p = proposals[i];
+            int id = i + 1;
+            NeoApplicationLog.Execution packed = store("storePacked", packedParams(p));
+            NeoApplicationLog.Execution serialized = store("storeSerialized", p);
+            int packedSize = packed.getStack().get(0).getByteArray().length;
+            int serializedSize = serialized.getStack().get(0).getByteArray().length;
+            BigInteger packedGas = new BigInteger(packed.getGasConsumed());
+            BigInteger serializedGas = new BigInteger(serialized.getGasConsumed());
+
+            List<StackItem> packedProposal = read("readPacked", id);
+            List<StackItem> serializedProposal = read("readSerialized", id);
+            assertSameProposal(packedProposal, serializedProposal);
+
+            assertThat("bytes of packed proposal " + id, packedSize, is(lessThan(serializedSize)));
+            assertThat("GAS of storing packed proposal " + id, packedGas, is(lessThan(serializedGas)));
+        }
+    }
+
+    private ContractParameter[] proposal(int id, boolean endorsed, boolean executed) {
+        if (!endorsed) {
+            return new ContractParameter[]{integer(id), any(null), integer(0), integer(0), integer(0),
+                    integer(NOW.add(PHASE)), bool(executed)};
+        }
+        return new ContractParameter[]{integer(id), hash160(alice), integer(NOW.add(PHASE)), integer(NOW.add(
+                PHASE.multiply(BigInteger.valueOf(2)))), integer(NOW.add(PHASE.multiply(BigInteger.valueOf(3)))),
+                integer(NOW.add(PHASE.multiply(BigInteger.valueOf(4)))), bool(executed)};
+    }
+
+    // The packed layout of an endorsed proposal only holds the endorsement time. The phase ends in the serialized
+    // proposal are one phase length apart starting from it.
+    private ContractParameter[] packedParams(ContractParameter[] p) {
+        return new ContractParameter[]{p[0], p[1], integer(NOW), p[5], p[6]};
+    }
+
+    private static NeoApplicationLog.Execution store(String method, ContractParameter[] params) throws Throwable {
+        Hash256 tx = benchmark.invokeFunction(method, params).signers(AccountSigner.calledByEntry(alice))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        return neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0);
+    }
+
+    private List<StackItem> read(String method, int id) throws Throwable {
+        return benchmark.callInvokeFunction(method, asList(integer(id))).getInvocationResult().getStack().get(0)
+                .getList();
+    }
+
+    private void assertSameProposal(List<StackItem> actual, List<StackItem> expected) {
+        assertThat(actual.size(), is(expected.size()));
+        assertThat(actual.get(0).getInteger(), is(expected.get(0).getInteger()));
+        if (expected.get(1).getValue() == null) {
+            assertThat(actual.get(1).getValue() == null, is(true));
+        } else {
+            assertThat(actual.get(1).getByteArray(), is(expected.get(1).getByteArray()));
+        }
+        for (int i = 2; i < 6; i++) {
+            assertThat(actual.get(i).getInteger(), is(expected.get(i).getInteger()));
+        }
+        assertThat(actual.get(6).getBoolean(), is(expected.get(6).getBoolean()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.axlabs.neo.grantshares;
+
+import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
+import com.axlabs.neo.grantshares.util.ProposalStruct;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
+import io.neow3j.contract.NeoToken;
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.core.response.NeoApplicationLog;
+import io.neow3j.test.ContractTest;
+import io.neow3j.test.ContractTestExtension;
+import io.neow3j.test.DeployConfig;
+import io.neow3j.test.DeployConfiguration;
+import io.neow3j.transaction.AccountSigner;
+import io.neow3j.types.CallFlags;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.Hash256;
+import io.neow3j.types.NeoVMStateType;
+import io.neow3j.wallet.Account;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
+import static com.axlabs.neo.grantshares.util.TestHelper.PHASE_LENGTH;
+import static com.axlabs.neo.grantshares.util.TestHelper.createAndEndorseProposal;
+import static com.axlabs.neo.grantshares.util.TestHelper.prepareDeployParameter;
+import static com.axlabs.neo.grantshares.util.TestHelper.voteForProposal;
+import static io.neow3j.types.ContractParameter.array;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Compares the GAS consumed by {@code getProposals} and {@code execute} for proposals with large intents and offchain
+ * URIs on the old storage layout, where the intents and offchain URI are part of the proposal data, with the layout
+ * that stores them in their own storage maps.
+ */
+@ContractTest(contracts = {GrantSharesGovOld.class, GrantSharesGov.class}, blockTime = 1,
+        configFile = "default.neo-express", batchFile = "setup.batch")
+public class ProposalDataGasTest {
+
+    private static final int INTENTS = 16;
+    private static final int PROPOSALS = 5;
+
+    @RegisterExtension
+    private static ContractTestExtension ext = new ContractTestExtension();
+
+    private static Neow3j neow3j;
+    private static GrantSharesGovContract govOld;
+    private static GrantSharesGovContract gov;
+    private static Account alice;
+
+    @DeployConfig(GrantSharesGovOld.class)
+    public static DeployConfiguration deployConfigOld() {
+        DeployConfiguration config = new DeployConfiguration();
+        config.setDeployParam(prepareDeployParameter(ext.getAccount(ALICE)));
+        return config;
+    }
+
+    @DeployConfig(GrantSharesGov.class)
+    public static DeployConfiguration deployConfig() {
+        DeployConfiguration config = new DeployConfiguration();
+        config.setDeployParam(prepareDeployParameter(ext.getAccount(ALICE)));
+        return config;
+    }
+
+    @BeforeAll
+    public static void setUp() {
+        neow3j = ext.getNeow3j();
+        govOld = new GrantSharesGovContract(ext.getDeployedContract(GrantSharesGovOld.class).getScriptHash(), neow3j);
+        gov = new GrantSharesGovContract(ext.getDeployedContract(GrantSharesGov.class).getScriptHash(), neow3j);
+        alice = ext.getAccount(ALICE);
+    }
+
+    @Test
+    public void compare_gas_of_proposals_with_large_intents() throws Throwable {
+        String offchainUri = String.join("", Collections.nCopies(50, "https://github.com/axlabs/grantshares/"));
+        List<ContractParameter> intentsOld = new ArrayList<>();
+        List<ContractParameter> intents = new ArrayList<>();
+        for (int i = 0; i < INTENTS; i++) {
+            intentsOld.add(array(NeoToken.SCRIPT_HASH, "balanceOf", array(alice.getScriptHash())));
+            intents.add(array(NeoToken.SCRIPT_HASH, "balanceOf", array(alice.getScriptHash()),
+                    CallFlags.ALL.getValue()));
+        }
+        int[] idsOld = new int[PROPOSALS];
+        int[] ids = new int[PROPOSALS];
+        for (int i = 0; i < PROPOSALS; i++) {
+            idsOld[i] = createAndEndorseProposal(govOld, neow3j, alice, alice, array(intentsOld), offchainUri);
+            ids[i] = createAndEndorseProposal(gov, neow3j, alice, alice, array(intents), offchainUri);
+        }
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(govOld, neow3j, idsOld[0], alice);
+        voteForProposal(gov, neow3j, ids[0], alice);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+
+        NeoApplicationLog.Execution executeOld = execute(govOld, idsOld[0]);
+        NeoApplicationLog.Execution execute = execute(gov, ids[0]);
+        assertThat(executeOld.getState(), is(NeoVMStateType.HALT));
+        assertThat(execute.getState(), is(NeoVMStateType.HALT));
+        assertThat(execute.getStack().get(0).getList().size(), is(INTENTS));
+
+        // Storing the intents and offchain URI separately must not make executing a proposal more expensive.
+        assertThat("GAS of executing a proposal with " + INTENTS + " intents compared to the old layout",
+                new BigInteger(execute.getGasConsumed()),
+                lessThanOrEqualTo(new BigInteger(executeOld.getGasConsumed())));
+
+        ProposalStruct p = gov.getProposal(ids[0]);
+        assertThat(p.intents.size(), is(INTENTS));
+        assertThat(p.offchainUri, is(offchainUri));
+        assertThat(p.executed, is(true));
+    }
+
+    private NeoApplicationLog.Execution execute(GrantSharesGovContract gov, int id) throws Throwable {
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(alice)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        return neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0);
+    }
+}
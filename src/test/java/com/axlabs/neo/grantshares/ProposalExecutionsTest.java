@@ -1,9 +1,13 @@
 package com.axlabs.neo.grantshares;
 
 import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
+import com.axlabs.neo.grantshares.util.ProposalIdsPaginatedStruct;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
 import io.neow3j.contract.GasToken;
+import io.neow3j.contract.NeoToken;
 import io.neow3j.protocol.Neow3j;
 import io.neow3j.protocol.core.response.NeoApplicationLog;
+import io.neow3j.protocol.core.stackitem.StackItem;
 import io.neow3j.test.ContractTest;
 import io.neow3j.test.ContractTestExtension;
 import io.neow3j.test.DeployConfig;
@@ -13,13 +17,15 @@ import io.neow3j.types.CallFlags;
 import io.neow3j.types.ContractParameter;
 import io.neow3j.types.Hash256;
 import io.neow3j.types.NeoVMStateType;
-import io.neow3j.utils.Await;
 import io.neow3j.wallet.Account;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
 import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
 import static com.axlabs.neo.grantshares.util.TestHelper.BOB;
@@ -44,13 +50,23 @@ import static io.neow3j.types.ContractParameter.hash160;
 import static io.neow3j.types.ContractParameter.integer;
 import static io.neow3j.types.ContractParameter.string;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ContractTest(contracts = GrantSharesGov.class, blockTime = 1, configFile = "default.neo-express",
         batchFile = "setup.batch")
 public class ProposalExecutionsTest {
 
+    // The phases that getActiveProposals filters by.
+    private static final int PHASE_NOT_ENDORSED = 1;
+    private static final int PHASE_REVIEW = 2;
+    private static final int PHASE_VOTING = 3;
+    private static final int PHASE_EXECUTABLE = 5;
+
     @RegisterExtension
     static ContractTestExtension ext = new ContractTestExtension();
 
@@ -103,7 +119,7 @@ public class ProposalExecutionsTest {
                         integer(-1))
                 .signers(AccountSigner.calledByEntry(bob))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
         ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH + PHASE_LENGTH);
         int id = neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0)
                 .getStack().get(0).getInteger().intValue();
@@ -151,7 +167,7 @@ public class ProposalExecutionsTest {
         Hash256 tx = gov.invokeFunction(EXECUTE, integer(id))
                 .signers(AccountSigner.calledByEntry(bob))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
         assertThat(neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0)
                 .getNotifications().get(1).getEventName(), is(PROPOSAL_EXECUTED));
 
@@ -185,7 +201,7 @@ public class ProposalExecutionsTest {
                 .signers(AccountSigner.calledByEntry(alice)
                         .setAllowedContracts(GasToken.SCRIPT_HASH))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -348,6 +364,116 @@ public class ProposalExecutionsTest {
         assertThat(state, is(NeoVMStateType.HALT));
     }
 
+    @Test
+    public void active_proposals_exclude_executed_and_expired_proposals() throws Throwable {
+        ContractParameter intent = array(NeoToken.SCRIPT_HASH, "symbol", array(), CallFlags.ALL.getValue());
+        int executedId = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent),
+                "active_proposals_exclude_executed_proposals");
+        Hash256 tx = gov.createProposal(bob.getScriptHash(), "active_proposals_exclude_expired_proposals", -1,
+                intent).signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        int expiredId = neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0).getStack()
+                .get(0).getInteger().intValue();
+        assertThat(gov.getActiveProposals(0, 100).items, hasItems(executedId, expiredId));
+
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, executedId, alice);
+        voteForProposal(gov, neow3j, executedId, charlie);
+        voteForProposal(gov, neow3j, executedId, eve);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+        tx = gov.execute(executedId).signers(AccountSigner.calledByEntry(bob)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+
+        // The un-endorsed proposal expired after one phase.
+        List<Integer> active = gov.getActiveProposals(0, 100).items;
+        assertThat(active, not(hasItem(executedId)));
+        assertThat(active, not(hasItem(expiredId)));
+    }
+
+    @Test
+    public void get_active_proposals_by_phase() throws Throwable {
+        ContractParameter intent = array(NeoToken.SCRIPT_HASH, "symbol", array(), CallFlags.ALL.getValue());
+        int acceptedId = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent),
+                "get_active_proposals_by_phase_accepted");
+        int rejectedId = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent),
+                "get_active_proposals_by_phase_rejected");
+        Hash256 tx = gov.createProposal(bob.getScriptHash(), "get_active_proposals_by_phase_not_endorsed", -1,
+                intent).signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        int notEndorsedId = neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0)
+                .getStack().get(0).getInteger().intValue();
+
+        List<Integer> notEndorsed = gov.getActiveProposals(PHASE_NOT_ENDORSED, 0, 100).items;
+        assertThat(notEndorsed, hasItem(notEndorsedId));
+        assertThat(notEndorsed, not(hasItem(acceptedId)));
+        assertThat(gov.getActiveProposals(PHASE_REVIEW, 0, 100).items, hasItems(acceptedId, rejectedId));
+        // A page is read without counting all active proposals. The pages only include the next one.
+        ProposalIdsPaginatedStruct firstPage = gov.getActiveProposals(PHASE_REVIEW, 0, 1);
+        assertThat(firstPage.items.size(), is(1));
+        assertThat(firstPage.pages, is(2));
+
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        assertThat(gov.getActiveProposals(PHASE_VOTING, 0, 100).items, hasItems(acceptedId, rejectedId));
+        voteForProposal(gov, neow3j, acceptedId, alice);
+        voteForProposal(gov, neow3j, acceptedId, charlie);
+        voteForProposal(gov, neow3j, acceptedId, eve);
+        voteForProposal(gov, neow3j, rejectedId, -1, alice);
+        voteForProposal(gov, neow3j, rejectedId, -1, charlie);
+        voteForProposal(gov, neow3j, rejectedId, -1, eve);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+
+        assertThat(gov.getActiveProposals(PHASE_EXECUTABLE, 0, 100).items, hasItem(acceptedId));
+        // The rejected proposal is not active anymore once its voting ended.
+        List<Integer> active = gov.getActiveProposals(0, 100).items;
+        assertThat(active, hasItem(acceptedId));
+        assertThat(active, not(hasItem(rejectedId)));
+        assertThat(active, not(hasItem(notEndorsedId)));
+    }
+
+    @Test
+    public void execute_batch_with_ready_and_not_ready_proposals() throws Throwable {
+        ContractParameter intent = array(NeoToken.SCRIPT_HASH, "symbol", array(), CallFlags.ALL.getValue());
+        int acceptedId = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent),
+                "execute_batch_accepted");
+        int rejectedId = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent),
+                "execute_batch_rejected");
+        Hash256 tx = gov.createProposal(bob.getScriptHash(), "execute_batch_not_endorsed", -1, intent)
+                .signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        int notEndorsedId = neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0)
+                .getStack().get(0).getInteger().intValue();
+
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, acceptedId, alice);
+        voteForProposal(gov, neow3j, acceptedId, charlie);
+        voteForProposal(gov, neow3j, acceptedId, eve);
+        voteForProposal(gov, neow3j, rejectedId, -1, alice);
+        voteForProposal(gov, neow3j, rejectedId, -1, charlie);
+        voteForProposal(gov, neow3j, rejectedId, -1, eve);
+        int queuedId = createAndEndorseProposal(gov, neow3j, bob, alice, array(intent), "execute_batch_queued");
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+
+        tx = gov.executeBatch(notEndorsedId, acceptedId, rejectedId, queuedId, 1000, acceptedId)
+                .signers(AccountSigner.calledByEntry(bob)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+
+        NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send().getApplicationLog()
+                .getExecutions().get(0);
+        assertThat(execution.getState(), is(NeoVMStateType.HALT));
+        Map<StackItem, StackItem> results = execution.getStack().get(0).getMap();
+        assertThat(results.size(), is(1));
+        Map.Entry<StackItem, StackItem> result = results.entrySet().iterator().next();
+        assertThat(result.getKey().getInteger().intValue(), is(acceptedId));
+        assertThat(result.getValue().getList().get(0).getString(), is("NEO"));
+        List<NeoApplicationLog.Execution.Notification> executedEvents = execution.getNotifications().stream()
+                .filter(n -> n.getEventName().equals(PROPOSAL_EXECUTED)).collect(Collectors.toList());
+        assertThat(executedEvents.size(), is(1));
+        assertThat(executedEvents.get(0).getState().getList().get(0).getInteger().intValue(), is(acceptedId));
+        assertTrue(gov.getProposal(acceptedId).executed);
+        assertFalse(gov.getProposal(rejectedId).executed);
+    }
+
     @Test
     public void fail_executing_expired_proposal() throws Throwable {
         ContractParameter intents = array(array(gov.getScriptHash(), CHANGE_PARAM, array(REVIEW_LENGTH_KEY, 1),
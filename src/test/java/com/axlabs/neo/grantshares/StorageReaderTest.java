@@ -0,0 +1,122 @@
+package com.axlabs.neo.grantshares;
+
+import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
+import com.axlabs.neo.grantshares.util.GrantSharesTreasuryContract;
+import com.axlabs.neo.grantshares.util.IntentParam;
+import com.axlabs.neo.grantshares.util.ProposalStruct;
+import com.axlabs.neo.grantshares.util.StorageReader;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
+import io.neow3j.contract.GasToken;
+import io.neow3j.contract.NeoToken;
+import io.neow3j.contract.SmartContract;
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.test.ContractTest;
+import io.neow3j.test.ContractTestExtension;
+import io.neow3j.test.DeployConfig;
+import io.neow3j.test.DeployConfiguration;
+import io.neow3j.test.DeployContext;
+import io.neow3j.transaction.AccountSigner;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.Hash160;
+import io.neow3j.types.Hash256;
+import io.neow3j.wallet.Account;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
+import static com.axlabs.neo.grantshares.util.TestHelper.BOB;
+import static com.axlabs.neo.grantshares.util.TestHelper.CHARLIE;
+import static com.axlabs.neo.grantshares.util.TestHelper.CREATE;
+import static com.axlabs.neo.grantshares.util.TestHelper.MIN_QUORUM_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.assertProposalsFromStorage;
+import static com.axlabs.neo.grantshares.util.TestHelper.createAndEndorseProposal;
+import static com.axlabs.neo.grantshares.util.TestHelper.createAndExecuteProposal;
+import static com.axlabs.neo.grantshares.util.TestHelper.prepareDeployParameter;
+import static io.neow3j.types.ContractParameter.array;
+import static io.neow3j.types.ContractParameter.hash160;
+import static io.neow3j.types.ContractParameter.integer;
+import static io.neow3j.types.ContractParameter.map;
+import static io.neow3j.types.ContractParameter.string;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Reads all proposals and other state from the contract storage with {@code findstates} and compares it with the
+ * values returned by the contracts' getters.
+ */
+@ContractTest(contracts = {GrantSharesGov.class, GrantSharesTreasury.class},
+        blockTime = 1, configFile = "default.neo-express", batchFile = "setup.batch")
+public class StorageReaderTest {
+
+    private static final int PROPOSALS = 50;
+
+    @RegisterExtension
+    static ContractTestExtension ext = new ContractTestExtension();
+
+    static Neow3j neow3j;
+    static GrantSharesGovContract gov;
+    static GrantSharesTreasuryContract treasury;
+    static Account alice;
+
+    @DeployConfig(GrantSharesGov.class)
+    public static DeployConfiguration deployConfigGov() throws Exception {
+        DeployConfiguration config = new DeployConfiguration();
+        config.setDeployParam(prepareDeployParameter(ext.getAccount(ALICE), ext.getAccount(CHARLIE)));
+        return config;
+    }
+
+    @DeployConfig(GrantSharesTreasury.class)
+    public static DeployConfiguration deployConfigTreasury(DeployContext ctx) throws Exception {
+        DeployConfiguration config = new DeployConfiguration();
+        SmartContract gov = ctx.getDeployedContract(GrantSharesGov.class);
+        Account bob = ext.getAccount(BOB);
+        ContractParameter funders = array(array(bob.getScriptHash(), array(bob.getECKeyPair().getPublicKey())));
+        Map<Hash160, Integer> tokens = new HashMap<>();
+        tokens.put(NeoToken.SCRIPT_HASH, 100);
+        tokens.put(GasToken.SCRIPT_HASH, 10000);
+        config.setDeployParam(array(gov.getScriptHash(), funders, map(tokens), 50));
+        return config;
+    }
+
+    @BeforeAll
+    public static void setUp() throws Throwable {
+        neow3j = ext.getNeow3j();
+        gov = new GrantSharesGovContract(ext.getDeployedContract(GrantSharesGov.class).getScriptHash(), neow3j);
+        treasury = new GrantSharesTreasuryContract(
+                ext.getDeployedContract(GrantSharesTreasury.class).getScriptHash(), neow3j);
+        alice = ext.getAccount(ALICE);
+
+        // An executed proposal with a vote and an endorsed one, followed by proposals that are only created.
+        createAndExecuteProposal(gov, neow3j, ext, alice,
+                array(IntentParam.changeParamProposal(gov.getScriptHash(), MIN_QUORUM_KEY, 60)), "storage_0");
+        createAndEndorseProposal(gov, neow3j, alice, alice, array(), "storage_1");
+        Hash256 tx = null;
+        for (int i = 2; i < PROPOSALS; i++) {
+            tx = gov.invokeFunction(CREATE, hash160(alice), array(), string("storage_" + i), integer(-1))
+                    .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
+        }
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+    }
+
+    @Test
+    public void read_proposals_and_state_from_storage() throws Throwable {
+        StorageReader storage = StorageReader.atLatestStateRoot(neow3j);
+        List<ProposalStruct> proposals = assertProposalsFromStorage(gov, storage);
+        assertThat(proposals.size(), is(PROPOSALS));
+        assertThat(proposals.get(0).executed, is(true));
+        assertThat(proposals.get(1).endorser, is(alice.getScriptHash()));
+
+        assertThat(gov.getParametersFromStorage(storage), is(gov.getParameters()));
+        assertThat(gov.getParametersFromStorage(storage).get(MIN_QUORUM_KEY), is(BigInteger.valueOf(60)));
+        assertThat(new HashSet<>(gov.getMembersFromStorage(storage)), is(new HashSet<>(gov.getMembers())));
+        assertThat(treasury.getFundersFromStorage(storage), is(treasury.getFunders()));
+        assertThat(treasury.getWhitelistedTokensFromStorage(storage), is(treasury.getWhitelistedTokens()));
+    }
+}
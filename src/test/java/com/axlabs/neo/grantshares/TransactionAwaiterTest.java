@@ -0,0 +1,105 @@
+package com.axlabs.neo.grantshares;
+
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
+import io.neow3j.contract.GasToken;
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.test.ContractTest;
+import io.neow3j.test.ContractTestExtension;
+import io.neow3j.test.DeployConfig;
+import io.neow3j.test.DeployConfiguration;
+import io.neow3j.transaction.AccountSigner;
+import io.neow3j.types.Hash256;
+import io.neow3j.wallet.Account;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+
+import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
+import static com.axlabs.neo.grantshares.util.TestHelper.BOB;
+import static com.axlabs.neo.grantshares.util.TestHelper.CHARLIE;
+import static com.axlabs.neo.grantshares.util.TestHelper.prepareDeployParameter;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ContractTest(contracts = GrantSharesGov.class,
+        blockTime = 1, configFile = "default.neo-express", batchFile = "setup.batch")
+public class TransactionAwaiterTest {
+
+    private static final int TRANSACTIONS = 20;
+
+    @RegisterExtension
+    static ContractTestExtension ext = new ContractTestExtension();
+
+    static Neow3j neow3j;
+    static Account alice;
+    static Account bob;
+
+    @DeployConfig(GrantSharesGov.class)
+    public static DeployConfiguration deployConfigGov() throws Exception {
+        DeployConfiguration config = new DeployConfiguration();
+        config.setDeployParam(prepareDeployParameter(ext.getAccount(ALICE), ext.getAccount(CHARLIE)));
+        return config;
+    }
+
+    @BeforeAll
+    public static void setUp() throws Throwable {
+        neow3j = ext.getNeow3j();
+        alice = ext.getAccount(ALICE);
+        bob = ext.getAccount(BOB);
+    }
+
+    @Test
+    public void await_many_transactions_at_once() throws Throwable {
+        GasToken gas = new GasToken(neow3j);
+        BigInteger balanceBefore = gas.getBalanceOf(bob);
+        Hash256[] txs = new Hash256[TRANSACTIONS];
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            txs[i] = gas.transfer(alice, bob.getScriptHash(), BigInteger.ONE)
+                    .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
+        }
+
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txs);
+
+        assertThat(gas.getBalanceOf(bob), is(balanceBefore.add(BigInteger.valueOf(TRANSACTIONS))));
+        // Transactions that are already executed complete right away with their block index.
+        CompletableFuture<Long> future = TransactionAwaiter.of(neow3j).register(txs[0]);
+        assertThat(future.isDone(), is(true));
+        assertThat(future.get(), greaterThan(0L));
+    }
+
+    @Test
+    public void find_transaction_that_was_executed_before_the_looked_back_blocks() throws Throwable {
+        GasToken gas = new GasToken(neow3j);
+        Hash256 tx = gas.transfer(alice, bob.getScriptHash(), BigInteger.ONE)
+                .signers(AccountSigner.calledByEntry(alice)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        long block = TransactionAwaiter.of(neow3j).register(tx).get();
+
+        // A new awaiter doesn't know the transaction and only reads the last few blocks when it starts polling.
+        TransactionAwaiter.of(neow3j).close();
+        for (int i = 0; i < 20; i++) {
+            ext.fastForwardOneBlock(1);
+        }
+        assertThat(TransactionAwaiter.of(neow3j).register(tx).get(20, SECONDS), is(block));
+    }
+
+    @Test
+    public void fail_pending_transactions_when_closed() {
+        TransactionAwaiter awaiter = TransactionAwaiter.of(neow3j);
+        CompletableFuture<Long> future = awaiter.register(
+                new Hash256("0000000000000000000000000000000000000000000000000000000000000001"));
+        awaiter.close();
+
+        assertThat(future.isCompletedExceptionally(), is(true));
+        assertThrows(IllegalStateException.class, () -> awaiter.register(Hash256.ZERO));
+        assertThat(TransactionAwaiter.of(neow3j), is(not(sameInstance(awaiter))));
+    }
+}
@@ -0,0 +1,228 @@
+package com.axlabs.neo.grantshares;
+
+import com.axlabs.neo.grantshares.util.GrantSharesTreasuryContract;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
+import io.neow3j.contract.GasToken;
+import io.neow3j.contract.NeoToken;
+import io.neow3j.contract.SmartContract;
+import io.neow3j.crypto.ECKeyPair;
+import io.neow3j.crypto.ECKeyPair.ECPublicKey;
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.core.response.NeoApplicationLog;
+import io.neow3j.protocol.core.stackitem.StackItem;
+import io.neow3j.test.ContractTest;
+import io.neow3j.test.ContractTestExtension;
+import io.neow3j.test.DeployConfig;
+import io.neow3j.test.DeployConfiguration;
+import io.neow3j.test.DeployContext;
+import io.neow3j.transaction.AccountSigner;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.Hash160;
+import io.neow3j.types.Hash256;
+import io.neow3j.types.NeoVMStateType;
+import io.neow3j.wallet.Account;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.math.BigInteger;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
+import static com.axlabs.neo.grantshares.util.TestHelper.BOB;
+import static com.axlabs.neo.grantshares.util.TestHelper.CHARLIE;
+import static com.axlabs.neo.grantshares.util.TestHelper.DENISE;
+import static com.axlabs.neo.grantshares.util.TestHelper.EVE;
+import static com.axlabs.neo.grantshares.util.TestHelper.FLORIAN;
+import static com.axlabs.neo.grantshares.util.TestHelper.prepareDeployParameter;
+import static io.neow3j.types.ContractParameter.array;
+import static io.neow3j.types.ContractParameter.integer;
+import static io.neow3j.types.ContractParameter.map;
+import static io.neow3j.types.ContractParameter.publicKey;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Checks that the treasury votes for the same committee member as the former selection algorithm, which compared
+ * every candidate with every committee member, when many candidates are registered. The network has a single
+ * committee member, so the selection is additionally checked with {@link CommitteeVoteFixture} against larger
+ * committees with tied votes.
+ */
+@ContractTest(contracts = {GrantSharesGov.class, GrantSharesTreasury.class, CommitteeVoteFixture.class},
+        blockTime = 1, configFile = "default.neo-express", batchFile = "setup.batch")
+public class TreasuryCommitteeVoteTest {
+
+    private static final int ADDITIONAL_CANDIDATES = 20;
+    private static final int FIXTURE_COMMITTEE_SIZE = 7;
+    private static final int FIXTURE_CANDIDATES = 30;
+    // The candidate registration fee plus network fees, in GAS fractions.
+    private static final BigInteger REGISTRATION_GAS = BigInteger.valueOf(1001).multiply(BigInteger.TEN.pow(8));
+
+    @RegisterExtension
+    static ContractTestExtension ext = new ContractTestExtension();
+
+    static Neow3j neow3j;
+    static NeoToken neo;
+    static GrantSharesTreasuryContract treasury;
+    static Account alice; // Set to be a DAO member and the only committee member.
+    static Account bob; // Set to be a funder.
+
+    @DeployConfig(GrantSharesGov.class)
+    public static DeployConfiguration deployConfigGov() throws Exception {
+        DeployConfiguration config = new DeployConfiguration();
+        config.setDeployParam(prepareDeployParameter(ext.getAccount(ALICE), ext.getAccount(CHARLIE)));
+        return config;
+    }
+
+    @DeployConfig(GrantSharesTreasury.class)
+    public static DeployConfiguration deployConfigTreasury(DeployContext ctx) throws Exception {
+        DeployConfiguration config = new DeployConfiguration();
+        SmartContract gov = ctx.getDeployedContract(GrantSharesGov.class);
+        Account bob = ext.getAccount(BOB);
+        ContractParameter funders = array(array(bob.getScriptHash(), array(bob.getECKeyPair().getPublicKey())));
+        Map<Hash160, Integer> tokens = new HashMap<>();
+        tokens.put(NeoToken.SCRIPT_HASH, 100);
+        tokens.put(GasToken.SCRIPT_HASH, 10000);
+        config.setDeployParam(array(gov.getScriptHash(), funders, map(tokens), 50));
+        return config;
+    }
+
+    @BeforeAll
+    public static void setUp() throws Throwable {
+        neow3j = ext.getNeow3j();
+        neo = new NeoToken(neow3j);
+        treasury = new GrantSharesTreasuryContract(
+                ext.getDeployedContract(GrantSharesTreasury.class).getScriptHash(), neow3j);
+        alice = ext.getAccount(ALICE);
+        bob = ext.getAccount(BOB);
+
+        // alice is the committee member, bob a candidate with more votes that is not in the committee.
+        registerAndVote(alice);
+        registerAndVote(bob);
+
+        // additional candidates without votes, funded by the other accounts
+        Account[] sponsors = new Account[]{ext.getAccount(CHARLIE), ext.getAccount(DENISE), ext.getAccount(EVE),
+                ext.getAccount(FLORIAN)};
+        GasToken gas = new GasToken(neow3j);
+        for (int i = 0; i < ADDITIONAL_CANDIDATES; i++) {
+            Account candidate = Account.create();
+            Hash256 tx = gas.transfer(sponsors[i % sponsors.length], candidate.getScriptHash(), REGISTRATION_GAS)
+                    .sign().send().getSendRawTransaction().getHash();
+            TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+            tx = neo.registerCandidate(candidate.getECKeyPair().getPublicKey())
+                    .signers(AccountSigner.calledByEntry(candidate)).sign().send().getSendRawTransaction().getHash();
+            TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        }
+
+        // fund the treasury with NEO so that its vote has weight
+        Hash256 tx = neo.transfer(bob, treasury.getScriptHash(), BigInteger.valueOf(100))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+    }
+
+    private static void registerAndVote(Account account) throws Throwable {
+        Hash256 tx = neo.registerCandidate(account.getECKeyPair().getPublicKey())
+                .signers(AccountSigner.calledByEntry(account)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        tx = neo.vote(account, account.getECKeyPair().getPublicKey())
+                .signers(AccountSigner.calledByEntry(account)).sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+    }
+
+    @Test
+    public void vote_for_same_member_as_former_algorithm_and_skip_repeated_vote() throws Throwable {
+        assertThat(neo.getCandidates().size(), is(ADDITIONAL_CANDIDATES + 2));
+        ECPublicKey expected = committeeMemberWithLeastVotesComparingAllCandidates(neo.getCommittee(),
+                toCandidates(neo.callInvokeFunction("getCandidates").getInvocationResult().getStack().get(0)));
+        assertThat(expected, is(alice.getECKeyPair().getPublicKey()));
+
+        NeoApplicationLog.Execution execution = vote();
+        assertThat(execution.getState(), is(NeoVMStateType.HALT));
+        NeoApplicationLog.Execution.Notification n = execution.getNotifications().stream()
+                .filter(e -> e.getEventName().equals("VotedOnCommitteeMember")).findFirst().get();
+        assertThat(new ECPublicKey(n.getState().getList().get(0).getByteArray()), is(expected));
+        BigInteger votes = neo.getCandidates().get(expected);
+
+        // The treasury already votes for the member. Voting again doesn't do anything.
+        execution = vote();
+        assertThat(execution.getState(), is(NeoVMStateType.HALT));
+        assertThat(execution.getNotifications(), is(empty()));
+        assertThat(neo.getCandidates().get(expected), is(votes));
+    }
+
+    @Test
+    public void select_same_member_as_former_algorithm_with_several_members_and_tied_votes() throws Throwable {
+        SmartContract fixture = ext.getDeployedContract(CommitteeVoteFixture.class);
+        Random random = new Random(42);
+        for (int round = 0; round < 10; round++) {
+            List<ECPublicKey> committee = new ArrayList<>();
+            List<Map.Entry<ECPublicKey, BigInteger>> candidates = new ArrayList<>();
+            for (int i = 0; i < FIXTURE_CANDIDATES; i++) {
+                ECPublicKey key = ECKeyPair.createEcKeyPair().getPublicKey();
+                // Only a few distinct vote counts, so that several members share the least votes.
+                candidates.add(new SimpleEntry<>(key, BigInteger.valueOf(random.nextInt(3) * 1000)));
+                if (i < FIXTURE_COMMITTEE_SIZE) {
+                    committee.add(key);
+                }
+            }
+            Collections.shuffle(candidates, random);
+            Collections.shuffle(committee, random);
+
+            ECPublicKey expected = committeeMemberWithLeastVotesComparingAllCandidates(committee, candidates);
+            ContractParameter committeeParam = array(committee.stream().map(ContractParameter::publicKey)
+                    .collect(Collectors.toList()));
+            ContractParameter candidatesParam = array(candidates.stream()
+                    .map(c -> array(publicKey(c.getKey()), integer(c.getValue())))
+                    .collect(Collectors.toList()));
+            StackItem selected = fixture.callInvokeFunction("memberWithLeastVotes",
+                    asList(committeeParam, candidatesParam)).getInvocationResult().getStack().get(0);
+            assertThat(new ECPublicKey(selected.getByteArray()), is(expected));
+        }
+    }
+
+    private NeoApplicationLog.Execution vote() throws Throwable {
+        Hash256 tx = treasury.voteCommitteeMemberWithLeastVotes().signers(AccountSigner.none(bob)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        return neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0);
+    }
+
+    private static List<Map.Entry<ECPublicKey, BigInteger>> toCandidates(StackItem item) {
+        return item.getList().stream()
+                .map(c -> new SimpleEntry<>(new ECPublicKey(c.getList().get(0).getByteArray()),
+                        c.getList().get(1).getInteger()))
+                .collect(Collectors.toList());
+    }
+
+    // The selection that the treasury used before, i.e., every candidate is compared with the remaining committee
+    // members, in the order in which the native NEO contract returns the candidates.
+    private static ECPublicKey committeeMemberWithLeastVotesComparingAllCandidates(List<ECPublicKey> members,
+            List<Map.Entry<ECPublicKey, BigInteger>> candidates) {
+        List<ECPublicKey> committee = new ArrayList<>(members);
+        BigInteger leastVotes = BigInteger.valueOf(100000000);
+        ECPublicKey leastVotesMember = null;
+        for (Map.Entry<ECPublicKey, BigInteger> candidate : candidates) {
+            ECPublicKey key = candidate.getKey();
+            BigInteger votes = candidate.getValue();
+            for (int j = 0; j < committee.size(); j++) {
+                if (committee.get(j).equals(key)) {
+                    committee.remove(j);
+                    if (votes.compareTo(leastVotes) < 0) {
+                        leastVotesMember = key;
+                        leastVotes = votes;
+                    }
+                }
+            }
+        }
+        return leastVotesMember;
+    }
+}
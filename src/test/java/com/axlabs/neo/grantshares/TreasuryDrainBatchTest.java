@@ -0,0 +1,220 @@
+package com.axlabs.neo.grantshares;
+
+import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
+import com.axlabs.neo.grantshares.util.GrantSharesTreasuryContract;
+import com.axlabs.neo.grantshares.util.IntentParam;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
+import io.neow3j.compiler.CompilationUnit;
+import io.neow3j.compiler.Compiler;
+import io.neow3j.contract.ContractManagement;
+import io.neow3j.contract.GasToken;
+import io.neow3j.contract.NefFile;
+import io.neow3j.contract.NeoToken;
+import io.neow3j.contract.SmartContract;
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.core.response.ContractManifest;
+import io.neow3j.protocol.core.response.NeoApplicationLog;
+import io.neow3j.script.ScriptBuilder;
+import io.neow3j.test.ContractTest;
+import io.neow3j.test.ContractTestExtension;
+import io.neow3j.test.DeployConfig;
+import io.neow3j.test.DeployConfiguration;
+import io.neow3j.test.DeployContext;
+import io.neow3j.transaction.AccountSigner;
+import io.neow3j.transaction.Transaction;
+import io.neow3j.transaction.TransactionBuilder;
+import io.neow3j.transaction.Witness;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.Hash160;
+import io.neow3j.types.Hash256;
+import io.neow3j.types.NeoVMStateType;
+import io.neow3j.wallet.Account;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
+import static com.axlabs.neo.grantshares.util.TestHelper.BOB;
+import static com.axlabs.neo.grantshares.util.TestHelper.CHARLIE;
+import static com.axlabs.neo.grantshares.util.TestHelper.PAUSE;
+import static com.axlabs.neo.grantshares.util.TestHelper.createAndExecuteProposal;
+import static com.axlabs.neo.grantshares.util.TestHelper.createMultiSigAccount;
+import static com.axlabs.neo.grantshares.util.TestHelper.prepareDeployParameter;
+import static io.neow3j.protocol.ObjectMapperFactory.getObjectMapper;
+import static io.neow3j.types.ContractParameter.any;
+import static io.neow3j.types.ContractParameter.array;
+import static io.neow3j.types.ContractParameter.byteArray;
+import static io.neow3j.types.ContractParameter.hash160;
+import static io.neow3j.types.ContractParameter.integer;
+import static io.neow3j.types.ContractParameter.map;
+import static io.neow3j.types.ContractParameter.string;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Drains a treasury that holds many different tokens in several batches.
+ */
+@ContractTest(contracts = {GrantSharesGov.class, GrantSharesTreasury.class},
+        blockTime = 1, configFile = "default.neo-express", batchFile = "setup.batch")
+public class TreasuryDrainBatchTest {
+
+    private static final int TOKENS = 55;
+    private static final int DEPLOYS_PER_TX = 10;
+    private static final int BATCH_SIZE = 20;
+    private static final BigInteger FUNDING_AMOUNT = BigInteger.valueOf(100);
+
+    @RegisterExtension
+    static ContractTestExtension ext = new ContractTestExtension();
+
+    static Neow3j neow3j;
+    static GrantSharesGovContract gov;
+    static GrantSharesTreasuryContract treasury;
+    static Account alice; // Set to be a DAO member.
+    static Account bob; // Set to be the only funder.
+    static Account charlie; // Set to be a DAO member.
+    static List<Hash160> tokens;
+
+    @DeployConfig(GrantSharesGov.class)
+    public static DeployConfiguration deployConfigGov() throws Exception {
+        DeployConfiguration config = new DeployConfiguration();
+        config.setDeployParam(prepareDeployParameter(ext.getAccount(ALICE), ext.getAccount(CHARLIE)));
+        return config;
+    }
+
+    @DeployConfig(GrantSharesTreasury.class)
+    public static DeployConfiguration deployConfigTreasury(DeployContext ctx) throws Exception {
+        DeployConfiguration config = new DeployConfiguration();
+        SmartContract gov = ctx.getDeployedContract(GrantSharesGov.class);
+        Account bob = ext.getAccount(BOB);
+        ContractParameter funders = array(array(bob.getScriptHash(), array(bob.getECKeyPair().getPublicKey())));
+        Map<Hash160, Integer> tokens = new HashMap<>();
+        tokens.put(NeoToken.SCRIPT_HASH, 100);
+        tokens.put(GasToken.SCRIPT_HASH, 10000);
+        config.setDeployParam(array(gov.getScriptHash(), funders, map(tokens), 50));
+        return config;
+    }
+
+    @BeforeAll
+    public static void setUp() throws Throwable {
+        neow3j = ext.getNeow3j();
+        neow3j.allowTransmissionOnFault();
+        gov = new GrantSharesGovContract(ext.getDeployedContract(GrantSharesGov.class).getScriptHash(), neow3j);
+        treasury = new GrantSharesTreasuryContract(
+                ext.getDeployedContract(GrantSharesTreasury.class).getScriptHash(), neow3j);
+        alice = ext.getAccount(ALICE);
+        bob = ext.getAccount(BOB);
+        charlie = ext.getAccount(CHARLIE);
+
+        tokens = deployMockTokens();
+
+        // Register the treasury and whitelist all tokens in one proposal.
+        List<ContractParameter> intents = new ArrayList<>();
+        intents.add(IntentParam.setTreasuryProposal(gov.getScriptHash(), treasury.getScriptHash()));
+        for (Hash160 token : tokens) {
+            intents.add(IntentParam.addWhitelistedTokenProposal(treasury.getScriptHash(), token, FUNDING_AMOUNT));
+        }
+        Hash256 tx = createAndExecuteProposal(gov, neow3j, ext, alice, array(intents), "whitelist_mock_tokens");
+        assertThat(neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0).getState(),
+                is(NeoVMStateType.HALT));
+
+        // bob funds the treasury with every token
+        ScriptBuilder b = new ScriptBuilder();
+        for (Hash160 token : tokens) {
+            b.contractCall(token, "transfer", asList(hash160(bob), hash160(treasury.getScriptHash()),
+                    integer(FUNDING_AMOUNT), any(null)));
+        }
+        send(new TransactionBuilder(neow3j).script(b.toArray()).signers(AccountSigner.calledByEntry(bob)));
+    }
+
+    // Deploys the mock token under different names so that each deployment gets its own contract hash.
+    private static List<Hash160> deployMockTokens() throws Throwable {
+        CompilationUnit res = new Compiler().compile(MockToken.class.getCanonicalName());
+        NefFile nef = res.getNefFile();
+        ContractManifest m = res.getManifest();
+        List<Hash160> hashes = new ArrayList<>();
+        ScriptBuilder b = new ScriptBuilder();
+        for (int i = 0; i < TOKENS; i++) {
+            String name = m.getName() + i;
+            ContractManifest manifest = new ContractManifest(name, m.getGroups(), m.getFeatures(),
+                    m.getSupportedStandards(), m.getAbi(), m.getPermissions(), m.getTrusts(), m.getExtra());
+            b.contractCall(ContractManagement.SCRIPT_HASH, "deploy", asList(byteArray(nef.toArray()),
+                    string(getObjectMapper().writeValueAsString(manifest)), hash160(bob)));
+            hashes.add(SmartContract.calcContractHash(bob.getScriptHash(), nef.getCheckSumAsInteger(), name));
+            if ((i + 1) % DEPLOYS_PER_TX == 0 || i == TOKENS - 1) {
+                send(new TransactionBuilder(neow3j).script(b.toArray()).signers(AccountSigner.calledByEntry(bob)));
+                b = new ScriptBuilder();
+            }
+        }
+        return hashes;
+    }
+
+    private static void send(TransactionBuilder builder) throws Throwable {
+        Hash256 tx = builder.sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        assertThat(neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0).getState(),
+                is(NeoVMStateType.HALT));
+    }
+
+    @Test
+    public void drain_many_tokens_in_batches() throws Throwable {
+        Map<Hash160, BigInteger> balances = treasury.getTreasuryBalances();
+        for (Hash160 token : tokens) {
+            assertThat(balances.get(token), is(FUNDING_AMOUNT));
+        }
+        pause();
+
+        Account fundersAccount = createMultiSigAccount(treasury.calcFundersMultiSigAddressThreshold(), bob);
+        int start = 0;
+        while (start < TOKENS) {
+            Transaction tx = treasury.drainBatch(null, BATCH_SIZE)
+                    .signers(AccountSigner.none(bob), AccountSigner.calledByEntry(fundersAccount))
+                    .getUnsignedTransaction();
+            Hash256 txHash = tx.addWitness(bob)
+                    .addMultiSigWitness(fundersAccount.getVerificationScript(), bob)
+                    .send().getSendRawTransaction().getHash();
+            TransactionAwaiter.of(neow3j).waitUntilExecuted(txHash);
+            NeoApplicationLog.Execution execution = neow3j.getApplicationLog(txHash).send().getApplicationLog()
+                    .getExecutions().get(0);
+            assertThat(execution.getState(), is(NeoVMStateType.HALT));
+
+            int end = Math.min(start + BATCH_SIZE, TOKENS);
+            List<NeoApplicationLog.Execution.Notification> progress = execution.getNotifications().stream()
+                    .filter(n -> n.getEventName().equals("DrainBatchProcessed")).collect(Collectors.toList());
+            assertThat(progress.size(), is(1));
+            assertThat(progress.get(0).getState().getList().get(0).getInteger().intValue(), is(start));
+            assertThat(progress.get(0).getState().getList().get(1).getInteger().intValue(), is(end));
+            assertThat(progress.get(0).getState().getList().get(2).getInteger().intValue(), is(TOKENS));
+            boolean finished = execution.getNotifications().stream()
+                    .anyMatch(n -> n.getEventName().equals("DrainedTokens"));
+            assertThat(finished, is(end == TOKENS));
+
+            for (int i = start; i < end; i++) {
+                assertThat(new SmartContract(tokens.get(i), neow3j)
+                        .callFuncReturningInt("balanceOf", hash160(treasury.getScriptHash())), is(BigInteger.ZERO));
+            }
+            start = end;
+        }
+        treasury.getTreasuryBalances().values().forEach(b -> assertThat(b, is(BigInteger.ZERO)));
+    }
+
+    private void pause() throws Throwable {
+        Account membersAccount = createMultiSigAccount(1, alice, charlie);
+        Transaction tx = gov.invokeFunction(PAUSE)
+                .signers(AccountSigner.none(bob), AccountSigner.calledByEntry(membersAccount))
+                .getUnsignedTransaction();
+        Hash256 txHash = tx
+                .addWitness(Witness.create(tx.getHashData(), bob.getECKeyPair()))
+                .addMultiSigWitness(membersAccount.getVerificationScript(), alice)
+                .send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txHash);
+        assertThat(treasury.isPaused(), is(true));
+    }
+}
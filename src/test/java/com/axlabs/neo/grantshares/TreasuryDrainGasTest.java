@@ -0,0 +1,187 @@
+package com.axlabs.neo.grantshares;
+
+import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
+import com.axlabs.neo.grantshares.util.GrantSharesTreasuryContract;
+import com.axlabs.neo.grantshares.util.IntentParam;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
+import io.neow3j.contract.GasToken;
+import io.neow3j.contract.NeoToken;
+import io.neow3j.contract.SmartContract;
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.core.response.NeoApplicationLog;
+import io.neow3j.test.ContractTest;
+import io.neow3j.test.ContractTestExtension;
+import io.neow3j.test.DeployConfig;
+import io.neow3j.test.DeployConfiguration;
+import io.neow3j.test.DeployContext;
+import io.neow3j.transaction.AccountSigner;
+import io.neow3j.transaction.Transaction;
+import io.neow3j.transaction.Witness;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.Hash160;
+import io.neow3j.types.Hash256;
+import io.neow3j.types.NeoVMStateType;
+import io.neow3j.wallet.Account;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
+import static com.axlabs.neo.grantshares.util.TestHelper.BOB;
+import static com.axlabs.neo.grantshares.util.TestHelper.CHARLIE;
+import static com.axlabs.neo.grantshares.util.TestHelper.PAUSE;
+import static com.axlabs.neo.grantshares.util.TestHelper.PHASE_LENGTH;
+import static com.axlabs.neo.grantshares.util.TestHelper.UNPAUSE;
+import static com.axlabs.neo.grantshares.util.TestHelper.createAndEndorseProposal;
+import static com.axlabs.neo.grantshares.util.TestHelper.createAndExecuteProposal;
+import static com.axlabs.neo.grantshares.util.TestHelper.createMultiSigAccount;
+import static com.axlabs.neo.grantshares.util.TestHelper.prepareDeployParameter;
+import static com.axlabs.neo.grantshares.util.TestHelper.voteForProposal;
+import static io.neow3j.types.ContractParameter.array;
+import static io.neow3j.types.ContractParameter.map;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Checks that the GAS consumed by {@code drain} doesn't depend on the number of funders registered in the treasury.
+ */
+@ContractTest(contracts = {GrantSharesGov.class, GrantSharesTreasury.class},
+        blockTime = 1, configFile = "default.neo-express", batchFile = "setup.batch")
+public class TreasuryDrainGasTest {
+
+    private static final int[] MEASURED_FUNDERS = new int[]{1, 20, 100};
+    private static final int MULTI_SIG_THRESHOLD_RATIO = 50;
+
+    @RegisterExtension
+    static ContractTestExtension ext = new ContractTestExtension();
+
+    static Neow3j neow3j;
+    static GrantSharesGovContract gov;
+    static GrantSharesTreasuryContract treasury;
+    static Account alice; // Set to be a DAO member.
+    static Account bob; // Set to be a funder.
+    static Account charlie; // Set to be a DAO member.
+    static List<Account> funders;
+
+    @DeployConfig(GrantSharesGov.class)
+    public static DeployConfiguration deployConfigGov() throws Exception {
+        DeployConfiguration config = new DeployConfiguration();
+        config.setDeployParam(prepareDeployParameter(ext.getAccount(ALICE), ext.getAccount(CHARLIE)));
+        return config;
+    }
+
+    @DeployConfig(GrantSharesTreasury.class)
+    public static DeployConfiguration deployConfigTreasury(DeployContext ctx) throws Exception {
+        DeployConfiguration config = new DeployConfiguration();
+        SmartContract gov = ctx.getDeployedContract(GrantSharesGov.class);
+        Account bob = ext.getAccount(BOB);
+        ContractParameter funders = array(array(bob.getScriptHash(), array(bob.getECKeyPair().getPublicKey())));
+        Map<Hash160, Integer> tokens = new HashMap<>();
+        tokens.put(NeoToken.SCRIPT_HASH, 100);
+        tokens.put(GasToken.SCRIPT_HASH, 10000);
+        config.setDeployParam(array(gov.getScriptHash(), funders, map(tokens), MULTI_SIG_THRESHOLD_RATIO));
+        return config;
+    }
+
+    @BeforeAll
+    public static void setUp() throws Throwable {
+        neow3j = ext.getNeow3j();
+        neow3j.allowTransmissionOnFault();
+        gov = new GrantSharesGovContract(ext.getDeployedContract(GrantSharesGov.class).getScriptHash(), neow3j);
+        treasury = new GrantSharesTreasuryContract(
+                ext.getDeployedContract(GrantSharesTreasury.class).getScriptHash(), neow3j);
+        alice = ext.getAccount(ALICE);
+        bob = ext.getAccount(BOB);
+        charlie = ext.getAccount(CHARLIE);
+        funders = new ArrayList<>();
+        funders.add(bob);
+        createAndExecuteProposal(gov, neow3j, ext, alice,
+                array(IntentParam.setTreasuryProposal(gov.getScriptHash(), treasury.getScriptHash())),
+                "register_treasury");
+    }
+
+    @Test
+    public void drain_gas_does_not_grow_with_number_of_funders() throws Throwable {
+        BigInteger[] gas = new BigInteger[MEASURED_FUNDERS.length];
+        for (int i = 0; i < MEASURED_FUNDERS.length; i++) {
+            addFunders(MEASURED_FUNDERS[i] - funders.size());
+            assertThat(treasury.getFunders().size(), is(MEASURED_FUNDERS[i]));
+            gas[i] = fundPauseAndDrain();
+        }
+
+        // The drained amounts differ slightly between runs. Allow 5% for that.
+        BigInteger first = gas[0];
+        for (int i = 0; i < MEASURED_FUNDERS.length; i++) {
+            assertThat("GAS of drain with " + MEASURED_FUNDERS[i] + " funders compared to " + MEASURED_FUNDERS[0]
+                            + " funders (" + first + ")", gas[i],
+                    is(lessThanOrEqualTo(first.add(first.divide(BigInteger.valueOf(20))))));
+        }
+    }
+
+    private void addFunders(int n) throws Throwable {
+        if (n <= 0) {
+            return;
+        }
+        List<ContractParameter> intents = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Account funder = Account.create();
+            intents.add(IntentParam.addFunderProposal(treasury.getScriptHash(), funder.getScriptHash(),
+                    funder.getECKeyPair().getPublicKey()));
+            funders.add(funder);
+        }
+        int id = createAndEndorseProposal(gov, neow3j, alice, alice, array(intents),
+                "add_funders_" + funders.size());
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, id, alice);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(alice)).sign().send()
+                .getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+    }
+
+    private BigInteger fundPauseAndDrain() throws Throwable {
+        Hash256 tx = new GasToken(neow3j).transfer(bob, treasury.getScriptHash(), BigInteger.valueOf(100))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        setPaused(PAUSE);
+
+        int threshold = treasury.calcFundersMultiSigAddressThreshold();
+        Account fundersAccount = Account.createMultiSigAccount(
+                funders.stream().map(f -> f.getECKeyPair().getPublicKey()).collect(Collectors.toList()), threshold);
+        assertThat(treasury.calcFundersMultiSigAddress(), is(fundersAccount.getScriptHash()));
+        tx = treasury.drain()
+                .signers(AccountSigner.none(bob), AccountSigner.calledByEntry(fundersAccount))
+                .getUnsignedTransaction()
+                .addWitness(bob)
+                .addMultiSigWitness(fundersAccount.getVerificationScript(),
+                        funders.subList(0, threshold).toArray(new Account[0]))
+                .send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send().getApplicationLog()
+                .getExecutions().get(0);
+        assertThat(execution.getState(), is(NeoVMStateType.HALT));
+
+        setPaused(UNPAUSE);
+        return new BigInteger(execution.getGasConsumed());
+    }
+
+    private void setPaused(String method) throws Throwable {
+        Account membersAccount = createMultiSigAccount(1, alice, charlie);
+        Transaction tx = gov.invokeFunction(method)
+                .signers(AccountSigner.none(bob), AccountSigner.calledByEntry(membersAccount))
+                .getUnsignedTransaction();
+        Hash256 txHash = tx
+                .addWitness(Witness.create(tx.getHashData(), bob.getECKeyPair()))
+                .addMultiSigWitness(membersAccount.getVerificationScript(), alice)
+                .send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txHash);
+    }
+}
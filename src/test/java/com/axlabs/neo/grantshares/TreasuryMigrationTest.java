@@ -4,6 +4,7 @@ import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
 import com.axlabs.neo.grantshares.util.GrantSharesTreasuryContract;
 import com.axlabs.neo.grantshares.util.IntentParam;
 import com.axlabs.neo.grantshares.util.TestHelper;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
 import io.neow3j.compiler.CompilationUnit;
 import io.neow3j.compiler.Compiler;
 import io.neow3j.contract.GasToken;
@@ -20,7 +21,6 @@ import io.neow3j.transaction.AccountSigner;
 import io.neow3j.types.ContractParameter;
 import io.neow3j.types.Hash160;
 import io.neow3j.types.Hash256;
-import io.neow3j.utils.Await;
 import io.neow3j.wallet.Account;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -120,7 +120,7 @@ public class TreasuryMigrationTest {
         TestHelper.voteForProposal(gov, neow3j, id, alice);
         ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
         Hash256 tx = gov.execute(id).signers(AccountSigner.none(bob)).sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         assertThat(treasury.getWhitelistedTokens().get(GasToken.SCRIPT_HASH).intValue(), is(newGasTokenLimit));
         assertThat(treasury.getWhitelistedTokens().get(NeoToken.SCRIPT_HASH).intValue(), is(NEO_MAX_AMOUNT));
@@ -3,6 +3,7 @@ package com.axlabs.neo.grantshares;
 import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
 import com.axlabs.neo.grantshares.util.GrantSharesTreasuryContract;
 import com.axlabs.neo.grantshares.util.IntentParam;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
 import io.neow3j.contract.GasToken;
 import io.neow3j.contract.NeoToken;
 import io.neow3j.contract.SmartContract;
@@ -20,7 +21,6 @@ import io.neow3j.transaction.Witness;
 import io.neow3j.types.ContractParameter;
 import io.neow3j.types.Hash160;
 import io.neow3j.types.Hash256;
-import io.neow3j.utils.Await;
 import io.neow3j.wallet.Account;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer;
@@ -135,7 +135,7 @@ public class TreasuryMultiSigTest {
         // fund the treasury
         Hash256 txHash = new GasToken(neow3j).transfer(bob, treasury.getScriptHash(), BigInteger.valueOf(100))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(txHash, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txHash);
     }
 
     @Test
@@ -156,7 +156,7 @@ public class TreasuryMultiSigTest {
         Hash256 tx = gov.execute(id)
                 .signers(AccountSigner.calledByEntry(charlie))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         NeoApplicationLog.Execution execution = neow3j.getApplicationLog(tx).send()
                 .getApplicationLog().getExecutions().get(0);
@@ -201,7 +201,15 @@ public class TreasuryMultiSigTest {
                 .addWitness(Witness.create(tx.getHashData(), bob.getECKeyPair()))
                 .addMultiSigWitness(membersAccount.getVerificationScript(), alice)
                 .send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(txHash, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txHash);
+
+        // The treasury is not registered in the governance contract in this test. Therefore, the paused state is not
+        // pushed to the treasury and has to be synced.
+        assertTrue(gov.isPaused());
+        assertFalse(treasury.isPaused());
+        txHash = treasury.syncPausedState().signers(AccountSigner.calledByEntry(bob))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(txHash);
 
         assertTrue(treasury.callInvokeFunction(IS_PAUSED).getInvocationResult()
                 .getStack().get(0).getBoolean());
@@ -225,10 +233,11 @@ public class TreasuryMultiSigTest {
                 .addWitness(bob)
                 .addMultiSigWitness(membersAccount.getVerificationScript(), bob, denise)
                 .send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
         List<NeoGetNep17Balances.Nep17Balance> balances =
                 neow3j.getNep17Balances(treasury.getScriptHash()).send().getBalances().getBalances();
         balances.stream().map(b -> Long.valueOf(b.getAmount())).reduce(Long::sum)
                 .ifPresent(s -> assertThat(s, is(0L)));
+        treasury.getTreasuryBalances().values().forEach(b -> assertThat(b, is(BigInteger.ZERO)));
     }
 }
@@ -0,0 +1,173 @@
+package com.axlabs.neo.grantshares;
+
+import com.axlabs.neo.grantshares.util.GrantSharesGovContract;
+import com.axlabs.neo.grantshares.util.TransactionAwaiter;
+import io.neow3j.contract.NeoToken;
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.test.ContractTest;
+import io.neow3j.test.ContractTestExtension;
+import io.neow3j.test.DeployConfig;
+import io.neow3j.test.DeployConfiguration;
+import io.neow3j.transaction.AccountSigner;
+import io.neow3j.transaction.Transaction;
+import io.neow3j.types.CallFlags;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.Hash256;
+import io.neow3j.wallet.Account;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.axlabs.neo.grantshares.util.TestHelper.ALICE;
+import static com.axlabs.neo.grantshares.util.TestHelper.EXPIRATION_LENGTH_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.MIN_ACCEPTANCE_RATE;
+import static com.axlabs.neo.grantshares.util.TestHelper.MIN_ACCEPTANCE_RATE_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.MIN_QUORUM;
+import static com.axlabs.neo.grantshares.util.TestHelper.MIN_QUORUM_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.MULTI_SIG_THRESHOLD_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.MULTI_SIG_THRESHOLD_RATIO;
+import static com.axlabs.neo.grantshares.util.TestHelper.PHASE_LENGTH;
+import static com.axlabs.neo.grantshares.util.TestHelper.REVIEW_LENGTH_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.TIMELOCK_LENGTH_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.VOTE;
+import static com.axlabs.neo.grantshares.util.TestHelper.VOTING_LENGTH_KEY;
+import static com.axlabs.neo.grantshares.util.TestHelper.createAndEndorseProposal;
+import static io.neow3j.types.ContractParameter.array;
+import static io.neow3j.types.ContractParameter.hash160;
+import static io.neow3j.types.ContractParameter.integer;
+import static io.neow3j.types.ContractParameter.publicKey;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Compares the GAS consumed by a vote on the old storage layout, where all votes of a proposal are kept in one
+ * serialized map, with the layout that stores each vote under its own key.
+ */
+@ContractTest(contracts = {GrantSharesGovOld.class, GrantSharesGov.class}, blockTime = 1,
+        configFile = "default.neo-express", batchFile = "setup.batch")
+public class VotingGasTest {
+
+    private static final int[] MEASURED_VOTES = new int[]{5, 50, 500};
+    private static final int VOTING_LENGTH = 3600; // seconds
+
+    @RegisterExtension
+    private static ContractTestExtension ext = new ContractTestExtension();
+
+    // Generated accounts are not funded. Alice, also a member, pays the fees for all their transactions.
+    private static final List<Account> generatedMembers = new ArrayList<>();
+
+    static {
+        for (int i = 1; i < MEASURED_VOTES[MEASURED_VOTES.length - 1]; i++) {
+            generatedMembers.add(Account.create());
+        }
+    }
+
+    private static Neow3j neow3j;
+    private static GrantSharesGovContract govOld;
+    private static GrantSharesGovContract gov;
+    private static Account alice;
+    private static List<Account> members;
+
+    @DeployConfig(GrantSharesGovOld.class)
+    public static DeployConfiguration deployConfigOld() {
+        DeployConfiguration config = new DeployConfiguration();
+        config.setDeployParam(deployParameter());
+        return config;
+    }
+
+    @DeployConfig(GrantSharesGov.class)
+    public static DeployConfiguration deployConfig() {
+        DeployConfiguration config = new DeployConfiguration();
+        config.setDeployParam(deployParameter());
+        return config;
+    }
+
+    private static ContractParameter deployParameter() {
+        List<ContractParameter> pubKeys = generatedMembers.stream()
+                .map(m -> publicKey(m.getECKeyPair().getPublicKey().getEncoded(true)))
+                .collect(Collectors.toList());
+        pubKeys.add(publicKey(ext.getAccount(ALICE).getECKeyPair().getPublicKey().getEncoded(true)));
+        return array(
+                array(pubKeys),
+                array(
+                        REVIEW_LENGTH_KEY, PHASE_LENGTH * 1000,
+                        VOTING_LENGTH_KEY, VOTING_LENGTH * 1000,
+                        TIMELOCK_LENGTH_KEY, PHASE_LENGTH * 1000,
+                        EXPIRATION_LENGTH_KEY, PHASE_LENGTH * 1000,
+                        MIN_ACCEPTANCE_RATE_KEY, MIN_ACCEPTANCE_RATE,
+                        MIN_QUORUM_KEY, MIN_QUORUM,
+                        MULTI_SIG_THRESHOLD_KEY, MULTI_SIG_THRESHOLD_RATIO
+                )
+        );
+    }
+
+    @BeforeAll
+    public static void setUp() {
+        neow3j = ext.getNeow3j();
+        govOld = new GrantSharesGovContract(ext.getDeployedContract(GrantSharesGovOld.class).getScriptHash(), neow3j);
+        gov = new GrantSharesGovContract(ext.getDeployedContract(GrantSharesGov.class).getScriptHash(), neow3j);
+        alice = ext.getAccount(ALICE);
+        members = new ArrayList<>();
+        members.add(alice);
+        members.addAll(generatedMembers);
+    }
+
+    @Test
+    public void vote_gas_does_not_grow_with_number_of_voters() throws Throwable {
+        int idOld = createAndEndorseProposal(govOld, neow3j, alice, alice,
+                array(array(NeoToken.SCRIPT_HASH, "symbol", array())), "vote_gas_old");
+        int id = createAndEndorseProposal(gov, neow3j, alice, alice,
+                array(array(NeoToken.SCRIPT_HASH, "symbol", array(), CallFlags.ALL.getValue())), "vote_gas");
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+
+        BigInteger[] gasOld = voteAndMeasure(govOld, idOld);
+        BigInteger[] gasNew = voteAndMeasure(gov, id);
+
+        int n = MEASURED_VOTES[MEASURED_VOTES.length - 1];
+        BigInteger first = gasNew[0];
+        BigInteger last = gasNew[MEASURED_VOTES.length - 1];
+        // Only the tally counters can grow by a byte. Allow 5% for that.
+        assertThat("GAS of vote " + n + " compared to the first vote (" + first + ")", last,
+                is(lessThanOrEqualTo(first.add(first.divide(BigInteger.valueOf(20))))));
+        assertThat("GAS of vote " + n + " with per-voter keys compared to the old layout", last,
+                is(lessThan(gasOld[MEASURED_VOTES.length - 1])));
+        assertThat(gov.getProposal(id).approve, is(members.size()));
+        assertThat(gov.getProposal(id).voters.size(), is(members.size()));
+    }
+
+    private BigInteger[] voteAndMeasure(GrantSharesGovContract gov, int id) throws Throwable {
+        BigInteger[] gas = new BigInteger[MEASURED_VOTES.length];
+        int voted = 0;
+        for (int i = 0; i < MEASURED_VOTES.length; i++) {
+            // Cast all votes up to the measured one and make sure they are persisted before measuring.
+            List<Hash256> txs = new ArrayList<>();
+            for (; voted < MEASURED_VOTES[i] - 1; voted++) {
+                txs.add(sendVote(gov, id, members.get(voted)));
+            }
+            TransactionAwaiter.of(neow3j).waitUntilExecuted(txs.toArray(new Hash256[0]));
+            Hash256 tx = sendVote(gov, id, members.get(voted++));
+            TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+            gas[i] = new BigInteger(neow3j.getApplicationLog(tx).send().getApplicationLog()
+                    .getExecutions().get(0).getGasConsumed());
+        }
+        return gas;
+    }
+
+    private Hash256 sendVote(GrantSharesGovContract gov, int id, Account voter) throws Throwable {
+        if (voter == alice) {
+            return gov.vote(id, 1, alice.getScriptHash()).signers(AccountSigner.calledByEntry(alice)).sign().send()
+                    .getSendRawTransaction().getHash();
+        }
+        Transaction tx = gov.invokeFunction(VOTE, integer(id), integer(1), hash160(voter))
+                .signers(AccountSigner.none(alice), AccountSigner.calledByEntry(voter))
+                .getUnsignedTransaction();
+        return tx.addWitness(alice).addWitness(voter).send().getSendRawTransaction().getHash();
+    }
+}
@@ -1,44 +1,100 @@
 package com.axlabs.neo.grantshares.util;
 
+import com.axlabs.neo.grantshares.client.GrantSharesGovClient;
 import io.neow3j.contract.SmartContract;
 import io.neow3j.contract.exceptions.UnexpectedReturnTypeException;
 import io.neow3j.crypto.ECKeyPair;
 import io.neow3j.crypto.ECKeyPair.ECPublicKey;
 import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.core.stackitem.ByteStringStackItem;
+import io.neow3j.protocol.core.stackitem.IntegerStackItem;
 import io.neow3j.protocol.core.stackitem.StackItem;
 import io.neow3j.transaction.TransactionBuilder;
+import io.neow3j.types.CallFlags;
 import io.neow3j.types.ContractParameter;
 import io.neow3j.types.Hash160;
 import io.neow3j.wallet.Account;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
+import static com.axlabs.neo.grantshares.GrantSharesGov.MEMBERS_MAP_PREFIX;
+import static com.axlabs.neo.grantshares.GrantSharesGov.OFFCHAIN_URIS_MAP_PREFIX;
+import static com.axlabs.neo.grantshares.GrantSharesGov.PARAMETERS_MAP_PREFIX;
+import static com.axlabs.neo.grantshares.GrantSharesGov.PHASE_LENGTH_SNAPSHOTS_MAP_PREFIX;
+import static com.axlabs.neo.grantshares.GrantSharesGov.PROPOSALS_MAP_PREFIX;
+import static com.axlabs.neo.grantshares.GrantSharesGov.PROPOSAL_DATA_MAP_PREFIX;
+import static com.axlabs.neo.grantshares.GrantSharesGov.PROPOSAL_INTENTS_MAP_PREFIX;
+import static com.axlabs.neo.grantshares.GrantSharesGov.PROPOSAL_VOTES_MAP_PREFIX;
+import static com.axlabs.neo.grantshares.GrantSharesGov.PROPOSERS_MAP_PREFIX;
+import static com.axlabs.neo.grantshares.GrantSharesGov.VOTES_MAP_PREFIX;
+import static com.axlabs.neo.grantshares.ProposalCodec.ENDORSEMENT_TIME_OFFSET;
+import static com.axlabs.neo.grantshares.ProposalCodec.ENDORSER_OFFSET;
+import static com.axlabs.neo.grantshares.ProposalCodec.EXPIRATION_OFFSET;
+import static com.axlabs.neo.grantshares.ProposalCodec.EXPLICIT_EXPIRATION_OFFSET;
+import static com.axlabs.neo.grantshares.ProposalCodec.FLAG_ENDORSED;
+import static com.axlabs.neo.grantshares.ProposalCodec.FLAG_EXECUTED;
+import static com.axlabs.neo.grantshares.ProposalCodec.FLAG_EXPLICIT_PHASES;
+import static com.axlabs.neo.grantshares.ProposalCodec.HASH160_SIZE;
+import static com.axlabs.neo.grantshares.ProposalCodec.ID_SIZE;
+import static com.axlabs.neo.grantshares.ProposalCodec.REVIEW_END_OFFSET;
+import static com.axlabs.neo.grantshares.ProposalCodec.SNAPSHOT_ID_OFFSET;
+import static com.axlabs.neo.grantshares.ProposalCodec.SNAPSHOT_ID_SIZE;
+import static com.axlabs.neo.grantshares.ProposalCodec.STRUCT_TYPE;
+import static com.axlabs.neo.grantshares.ProposalCodec.TIMESTAMP_SIZE;
+import static com.axlabs.neo.grantshares.ProposalCodec.TIME_LOCK_END_OFFSET;
+import static com.axlabs.neo.grantshares.ProposalCodec.VOTING_END_OFFSET;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.CALC_MEMBERS_MULTI_SIG_ACCOUNT;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.CALC_MEMBERS_MULTI_SIG_ACCOUNT_THRESHOLD;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_ACTIVE_PROPOSALS;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_MEMBERS;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_MEMBERS_COUNT;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_MEMBERS_ITERATOR;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_PARAMETER;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_PARAMETERS;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_PARAMETERS_ITERATOR;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_PROPOSAL;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_PROPOSALS;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_PROPOSALS_BY_PROPOSER;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_PROPOSAL_COUNT;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_PROPOSAL_DATA_ITERATOR;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_PROPOSAL_SUMMARIES;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.GET_TREASURY;
+import static com.axlabs.neo.grantshares.client.GrantSharesGovClient.IS_PAUSED;
 import static io.neow3j.types.ContractParameter.any;
 import static io.neow3j.types.ContractParameter.array;
-import static io.neow3j.types.ContractParameter.byteArray;
 import static io.neow3j.types.ContractParameter.hash160;
 import static io.neow3j.types.ContractParameter.integer;
 import static io.neow3j.types.ContractParameter.string;
 import static java.util.Arrays.asList;
 
+// Decodes the return values of GrantSharesGov into structs. Transactions are built by the generated client.
 public class GrantSharesGovContract extends SmartContract {
 
+    private final GrantSharesGovClient client;
+
     public GrantSharesGovContract(Hash160 scriptHash, Neow3j neow3j) {
         super(scriptHash, neow3j);
+        client = new GrantSharesGovClient(scriptHash, neow3j);
     }
 
     public StackItem getParameter(String paramName) throws IOException, UnexpectedReturnTypeException {
-        return callInvokeFunction(getMethodName(), asList(string(paramName)))
+        return callInvokeFunction(GET_PARAMETER, asList(string(paramName)))
                 .getInvocationResult().getStack().get(0);
     }
 
     public Map<String, BigInteger> getParameters() throws IOException, UnexpectedReturnTypeException {
-        Map<StackItem, StackItem> map = callInvokeFunction(getMethodName()).getInvocationResult().getStack().get(0)
+        Map<StackItem, StackItem> map = callInvokeFunction(GET_PARAMETERS).getInvocationResult().getStack().get(0)
                 .getMap();
         return map.entrySet().stream().collect(Collectors.toMap(
                 i -> i.getKey().getString(),
@@ -46,65 +102,158 @@ public class GrantSharesGovContract extends SmartContract {
     }
 
     public ProposalStruct getProposal(int id) throws IOException, UnexpectedReturnTypeException {
-        List<StackItem> list = callInvokeFunction(getMethodName(), asList(integer(id))).getInvocationResult().getStack()
+        List<StackItem> list = callInvokeFunction(GET_PROPOSAL, asList(integer(id))).getInvocationResult().getStack()
                 .get(0).getList();
         return new ProposalStruct(list);
     }
 
+    // Fetches all proposals with one invokescript call instead of one invokefunction call per proposal.
+    public List<ProposalStruct> getProposalsById(int... ids) throws IOException {
+        MultiCall calls = new MultiCall(neow3j);
+        List<MultiCall.Result<ProposalStruct>> results = Arrays.stream(ids).mapToObj(id -> getProposal(calls, id))
+                .collect(Collectors.toList());
+        calls.execute();
+        return results.stream().map(MultiCall.Result::get).collect(Collectors.toList());
+    }
+
+    public MultiCall.Result<ProposalStruct> getProposal(MultiCall calls, int id) {
+        return calls.add(getScriptHash(), GET_PROPOSAL, i -> new ProposalStruct(i.getList()), integer(id));
+    }
+
+    public MultiCall.Result<BigInteger> getParameter(MultiCall calls, String paramName) {
+        return calls.add(getScriptHash(), GET_PARAMETER, StackItem::getInteger, string(paramName));
+    }
+
+    public MultiCall.Result<Integer> getMembersCount(MultiCall calls) {
+        return calls.add(getScriptHash(), GET_MEMBERS_COUNT, i -> i.getInteger().intValue());
+    }
+
+    public MultiCall.Result<Integer> getProposalCount(MultiCall calls) {
+        return calls.add(getScriptHash(), GET_PROPOSAL_COUNT, i -> i.getInteger().intValue());
+    }
+
     public List<ECPublicKey> getMembers() throws IOException, UnexpectedReturnTypeException {
-        List<StackItem> list = callInvokeFunction(getMethodName()).getInvocationResult().getStack().get(0).getList();
+        List<StackItem> list = callInvokeFunction(GET_MEMBERS).getInvocationResult().getStack().get(0).getList();
         return list.stream().map(i -> new ECPublicKey(i.getByteArray())).collect(Collectors.toList());
     }
 
+    public SessionIterator<ECPublicKey> getMembersIterator(int pageSize) throws IOException {
+        return new SessionIterator<>(neow3j, callInvokeFunction(GET_MEMBERS_ITERATOR).getInvocationResult(), pageSize,
+                i -> new ECPublicKey(i.getByteArray()));
+    }
+
+    public SessionIterator<Map.Entry<String, BigInteger>> getParametersIterator(int pageSize) throws IOException {
+        return new SessionIterator<>(neow3j, callInvokeFunction(GET_PARAMETERS_ITERATOR).getInvocationResult(),
+                pageSize, i -> new SimpleEntry<>(i.getList().get(0).getString(), i.getList().get(1).getInteger()));
+    }
+
+    public SessionIterator<ProposalDataStruct> getProposalDataIterator(int pageSize) throws IOException {
+        return new SessionIterator<>(neow3j, callInvokeFunction(GET_PROPOSAL_DATA_ITERATOR).getInvocationResult(),
+                pageSize, i -> new ProposalDataStruct(i.getList()));
+    }
+
     public int getMembersCount() throws IOException, UnexpectedReturnTypeException {
-        return callInvokeFunction(getMethodName()).getInvocationResult().getStack().get(0).getInteger().intValue();
+        return callInvokeFunction(GET_MEMBERS_COUNT).getInvocationResult().getStack().get(0).getInteger().intValue();
     }
 
     public int getProposalCount() throws IOException, UnexpectedReturnTypeException {
-        return callInvokeFunction(getMethodName()).getInvocationResult().getStack().get(0).getInteger().intValue();
+        return callInvokeFunction(GET_PROPOSAL_COUNT).getInvocationResult().getStack().get(0).getInteger().intValue();
     }
 
     public ProposalPaginatedStruct getProposals(int page, int itemsPerPage) throws IOException,
             UnexpectedReturnTypeException {
-        List<StackItem> paginated = callInvokeFunction(getMethodName(), asList(integer(page), integer(itemsPerPage)))
+        List<StackItem> paginated = callInvokeFunction(GET_PROPOSALS, asList(integer(page), integer(itemsPerPage)))
                 .getInvocationResult().getStack().get(0).getList();
         return new ProposalPaginatedStruct(paginated);
     }
 
+    public ProposalSummaryPaginatedStruct getProposalSummaries(int page, int itemsPerPage) throws IOException,
+            UnexpectedReturnTypeException {
+        List<StackItem> paginated = callInvokeFunction(GET_PROPOSAL_SUMMARIES,
+                asList(integer(page), integer(itemsPerPage)))
+                .getInvocationResult().getStack().get(0).getList();
+        return new ProposalSummaryPaginatedStruct(paginated);
+    }
+
+    public ProposalSummaryPaginatedStruct getProposalsByProposer(Hash160 proposer, int page, int itemsPerPage)
+            throws IOException, UnexpectedReturnTypeException {
+        List<StackItem> paginated = callInvokeFunction(GET_PROPOSALS_BY_PROPOSER,
+                asList(hash160(proposer), integer(page), integer(itemsPerPage)))
+                .getInvocationResult().getStack().get(0).getList();
+        return new ProposalSummaryPaginatedStruct(paginated);
+    }
+
+    public ProposalIdsPaginatedStruct getActiveProposals(int page, int itemsPerPage) throws IOException,
+            UnexpectedReturnTypeException {
+        List<StackItem> paginated = callInvokeFunction(GET_ACTIVE_PROPOSALS,
+                asList(integer(page), integer(itemsPerPage)))
+                .getInvocationResult().getStack().get(0).getList();
+        return new ProposalIdsPaginatedStruct(paginated);
+    }
+
+    public ProposalIdsPaginatedStruct getActiveProposals(int phase, int page, int itemsPerPage) throws IOException,
+            UnexpectedReturnTypeException {
+        List<StackItem> paginated = callInvokeFunction(GET_ACTIVE_PROPOSALS,
+                asList(integer(phase), integer(page), integer(itemsPerPage)))
+                .getInvocationResult().getStack().get(0).getList();
+        return new ProposalIdsPaginatedStruct(paginated);
+    }
+
     public boolean isPaused() throws IOException, UnexpectedReturnTypeException {
-        return callInvokeFunction(getMethodName()).getInvocationResult().getStack().get(0).getBoolean();
+        return callInvokeFunction(IS_PAUSED).getInvocationResult().getStack().get(0).getBoolean();
+    }
+
+    public Hash160 getTreasury() throws IOException {
+        StackItem item = callInvokeFunction(GET_TREASURY).getInvocationResult().getStack().get(0);
+        return item.getValue() == null ? null : Hash160.fromAddress(item.getAddress());
     }
 
     public TransactionBuilder createProposal(Hash160 proposer, String offchainUri, int linkedProposal,
             ContractParameter... intents) {
-        return invokeFunction(getMethodName(), hash160(proposer), array(asList(intents)),
-                string(offchainUri), integer(linkedProposal));
+        return client.createProposal(proposer, array(asList(intents)), offchainUri,
+                BigInteger.valueOf(linkedProposal));
     }
 
     public TransactionBuilder createProposal(Hash160 proposer, String offchainUri, int linkedProposal,
             int acceptanceRate, int quorum, ContractParameter... intents) {
-        return invokeFunction(getMethodName(), hash160(proposer), array(asList(intents)),
-                string(offchainUri), integer(linkedProposal), integer(acceptanceRate), integer(quorum));
+        return client.createProposal(proposer, array(asList(intents)), offchainUri,
+                BigInteger.valueOf(linkedProposal), BigInteger.valueOf(acceptanceRate), BigInteger.valueOf(quorum));
     }
 
     public TransactionBuilder endorseProposal(int id, Hash160 endorser) {
-        return invokeFunction(getMethodName(), integer(id), hash160(endorser));
+        return client.endorseProposal(BigInteger.valueOf(id), endorser);
     }
 
     public TransactionBuilder vote(int id, int vote, Hash160 voter) {
-        return invokeFunction(getMethodName(), integer(id), integer(vote), hash160(voter));
+        return client.vote(BigInteger.valueOf(id), BigInteger.valueOf(vote), voter);
+    }
+
+    public TransactionBuilder voteBatch(int[] ids, int[] votes, Hash160 voter) {
+        return client.voteBatch(
+                array(Arrays.stream(ids).mapToObj(ContractParameter::integer).collect(Collectors.toList())),
+                array(Arrays.stream(votes).mapToObj(ContractParameter::integer).collect(Collectors.toList())),
+                hash160(voter));
     }
 
     public TransactionBuilder execute(int id) {
-        return invokeFunction(getMethodName(), integer(id));
+        return client.execute(BigInteger.valueOf(id));
+    }
+
+    public TransactionBuilder migrateBatch(int maxItems) {
+        return client.migrateBatch(BigInteger.valueOf(maxItems));
+    }
+
+    public TransactionBuilder executeBatch(int... ids) {
+        return client.executeBatch(
+                array(Arrays.stream(ids).mapToObj(ContractParameter::integer).collect(Collectors.toList())));
     }
 
     public TransactionBuilder pause() {
-        return invokeFunction(getMethodName());
+        return client.pause();
     }
 
     public TransactionBuilder unpause() {
-        return invokeFunction(getMethodName());
+        return client.unpause();
     }
 
     public Date getProposalTimeLockEnd(int id) throws IOException {
@@ -143,11 +292,12 @@ public class GrantSharesGovContract extends SmartContract {
     }
 
     public String calcMembersMultiSigAccount() throws IOException, UnexpectedReturnTypeException {
-        return callInvokeFunction(getMethodName()).getInvocationResult().getStack().get(0).getAddress();
+        return callInvokeFunction(CALC_MEMBERS_MULTI_SIG_ACCOUNT).getInvocationResult().getStack().get(0).getAddress();
     }
 
     public int calcMembersMultiSigAccountThreshold() throws IOException {
-        return callInvokeFunction(getMethodName()).getInvocationResult().getStack().get(0).getInteger().intValue();
+        return callInvokeFunction(CALC_MEMBERS_MULTI_SIG_ACCOUNT_THRESHOLD).getInvocationResult().getStack().get(0)
+                .getInteger().intValue();
     }
 
     public Account getMembersAccount() throws IOException {
@@ -156,16 +306,137 @@ public class GrantSharesGovContract extends SmartContract {
         return Account.createMultiSigAccount(members, threshold);
     }
 
+    public TransactionBuilder stageBlobChunk(Hash160 uploader, byte[] hash, byte[] chunk) {
+        return client.stageBlobChunk(uploader, hash, chunk);
+    }
+
+    public TransactionBuilder finalizeBlob(Hash160 uploader, byte[] hash) {
+        return client.finalizeBlob(uploader, hash);
+    }
+
+    public TransactionBuilder removeBlob(Hash160 uploader, byte[] hash) {
+        return client.removeBlob(uploader, hash);
+    }
+
+    public byte[] getBlob(byte[] hash) throws IOException {
+        return client.getBlob(hash);
+    }
+
     public TransactionBuilder updateContract(byte[] nef, String manifest, ContractParameter data) {
-        if (data != null) {
-            return invokeFunction(getMethodName(), byteArray(nef), string(manifest), data);
+        return client.updateContract(nef, manifest, data != null ? data : any(null));
+    }
+
+    // Reads all proposals from the contract storage without invoking the contract. Decodes the same storage layouts
+    // as GrantSharesGov.getProposal, i.e., also proposals that were not migrated yet.
+    public List<ProposalStruct> getProposalsFromStorage(StorageReader storage) throws IOException {
+        Map<Integer, byte[]> proposals = byId(storage.find(getScriptHash(), PROPOSALS_MAP_PREFIX));
+        Map<Integer, byte[]> votes = byId(storage.find(getScriptHash(), PROPOSAL_VOTES_MAP_PREFIX));
+        Map<Integer, byte[]> proposers = byId(storage.find(getScriptHash(), PROPOSERS_MAP_PREFIX));
+        Map<Integer, byte[]> snapshots = byId(storage.find(getScriptHash(), PHASE_LENGTH_SNAPSHOTS_MAP_PREFIX));
+        Map<Integer, byte[]> intents = byId(storage.find(getScriptHash(), PROPOSAL_INTENTS_MAP_PREFIX));
+        Map<Integer, byte[]> offchainUris = byId(storage.find(getScriptHash(), OFFCHAIN_URIS_MAP_PREFIX));
+        Map<Integer, Map<StackItem, StackItem>> voters = new HashMap<>();
+        for (StorageReader.Entry e : storage.find(getScriptHash(), VOTES_MAP_PREFIX)) {
+            // The key is the 4-byte proposal id followed by the voter's script hash.
+            int id = StorageReader.toInteger(Arrays.copyOfRange(e.key, 0, ID_SIZE)).intValue();
+            byte[] voter = Arrays.copyOfRange(e.key, ID_SIZE, e.key.length);
+            voters.computeIfAbsent(id, k -> new HashMap<>()).put(new ByteStringStackItem(voter),
+                    new IntegerStackItem(StorageReader.toInteger(e.value)));
+        }
+
+        List<ProposalStruct> result = new ArrayList<>();
+        for (Map.Entry<Integer, byte[]> e : byId(storage.find(getScriptHash(), PROPOSAL_DATA_MAP_PREFIX)).entrySet()) {
+            int id = e.getKey();
+            List<StackItem> data = StorageReader.deserialize(e.getValue()).getList();
+            List<StackItem> proposalVotes = StorageReader.deserialize(votes.get(id)).getList();
+            List<ProposalStruct.IntentStruct> proposalIntents;
+            String offchainUri;
+            Map<StackItem, StackItem> proposalVoters;
+            if (proposers.containsKey(id)) {
+                proposalIntents = StorageReader.deserialize(intents.get(id)).getList().stream()
+                        .map(i -> new ProposalStruct.IntentStruct(i.getList())).collect(Collectors.toList());
+                offchainUri = new String(offchainUris.get(id), StandardCharsets.UTF_8);
+                proposalVoters = voters.getOrDefault(id, new HashMap<>());
+            } else {
+                // Not migrated yet. Intents, offchain URI and voters are part of the structs.
+                proposalIntents = data.get(4).getList().stream()
+                        .map(i -> new ProposalStruct.IntentStruct(Hash160.fromAddress(i.getList().get(0).getAddress()),
+                                i.getList().get(1).getString(), i.getList().get(2).getList(),
+                                CallFlags.ALL.getValue()))
+                        .collect(Collectors.toList());
+                offchainUri = data.get(5).getString();
+                proposalVoters = proposalVotes.get(3).getMap();
+            }
+            ProposalStruct p = new ProposalStruct(id, StorageReader.toHash160(data.get(0).getByteArray()),
+                    data.get(1).getInteger().intValue(), data.get(2).getInteger().intValue(),
+                    data.get(3).getInteger().intValue(), null, BigInteger.ZERO, BigInteger.ZERO, BigInteger.ZERO,
+                    BigInteger.ZERO, false, proposalIntents, offchainUri,
+                    proposalVotes.get(0).getInteger().intValue(), proposalVotes.get(1).getInteger().intValue(),
+                    proposalVotes.get(2).getInteger().intValue(), proposalVoters);
+            if (proposals.containsKey(id)) {
+                decodeProposal(p, proposals.get(id), snapshots);
+            }
+            result.add(p);
+        }
+        return result;
+    }
+
+    // Decodes the packed layout of GrantSharesGov's ProposalCodec or a proposal struct stored before it existed.
+    private static void decodeProposal(ProposalStruct p, byte[] bytes, Map<Integer, byte[]> snapshots) {
+        int flags = bytes[0] & 0xff;
+        if (flags == STRUCT_TYPE) {
+            List<StackItem> s = StorageReader.deserialize(bytes).getList();
+            p.endorser = s.get(1).getValue() == null ? null : StorageReader.toHash160(s.get(1).getByteArray());
+            p.reviewEnd = s.get(2).getInteger();
+            p.votingEnd = s.get(3).getInteger();
+            p.timelockEnd = s.get(4).getInteger();
+            p.expiration = s.get(5).getInteger();
+            p.executed = s.get(6).getBoolean();
+            return;
+        }
+        p.executed = (flags & FLAG_EXECUTED) != 0;
+        if ((flags & FLAG_ENDORSED) == 0) {
+            p.expiration = fixedWidth(bytes, EXPIRATION_OFFSET, TIMESTAMP_SIZE);
+            return;
+        }
+        p.endorser = StorageReader.toHash160(fixedWidthBytes(bytes, ENDORSER_OFFSET, HASH160_SIZE));
+        if ((flags & FLAG_EXPLICIT_PHASES) != 0) {
+            p.reviewEnd = fixedWidth(bytes, REVIEW_END_OFFSET, TIMESTAMP_SIZE);
+            p.votingEnd = fixedWidth(bytes, VOTING_END_OFFSET, TIMESTAMP_SIZE);
+            p.timelockEnd = fixedWidth(bytes, TIME_LOCK_END_OFFSET, TIMESTAMP_SIZE);
+            p.expiration = fixedWidth(bytes, EXPLICIT_EXPIRATION_OFFSET, TIMESTAMP_SIZE);
         } else {
-            return invokeFunction(getMethodName(), byteArray(nef), string(manifest), any(null));
+            byte[] phaseLengths = snapshots.get(fixedWidth(bytes, SNAPSHOT_ID_OFFSET, SNAPSHOT_ID_SIZE).intValue());
+            p.reviewEnd = fixedWidth(bytes, ENDORSEMENT_TIME_OFFSET, TIMESTAMP_SIZE)
+                    .add(fixedWidth(phaseLengths, 0, TIMESTAMP_SIZE));
+            p.votingEnd = p.reviewEnd.add(fixedWidth(phaseLengths, TIMESTAMP_SIZE, TIMESTAMP_SIZE));
+            p.timelockEnd = p.votingEnd.add(fixedWidth(phaseLengths, 2 * TIMESTAMP_SIZE, TIMESTAMP_SIZE));
+            p.expiration = p.timelockEnd.add(fixedWidth(phaseLengths, 3 * TIMESTAMP_SIZE, TIMESTAMP_SIZE));
         }
     }
 
-    private String getMethodName() {
-        return new Exception().getStackTrace()[1].getMethodName();
+    private static BigInteger fixedWidth(byte[] bytes, int offset, int size) {
+        return StorageReader.toInteger(fixedWidthBytes(bytes, offset, size));
+    }
+
+    private static byte[] fixedWidthBytes(byte[] bytes, int offset, int size) {
+        return Arrays.copyOfRange(bytes, offset, offset + size);
+    }
+
+    private static Map<Integer, byte[]> byId(List<StorageReader.Entry> entries) {
+        Map<Integer, byte[]> map = new TreeMap<>();
+        entries.forEach(e -> map.put(StorageReader.toInteger(e.key).intValue(), e.value));
+        return map;
+    }
+
+    public Map<String, BigInteger> getParametersFromStorage(StorageReader storage) throws IOException {
+        return storage.find(getScriptHash(), PARAMETERS_MAP_PREFIX).stream().collect(Collectors.toMap(
+                e -> new String(e.key, StandardCharsets.UTF_8),
+                e -> StorageReader.toInteger(e.value)));
     }
 
+    public List<ECPublicKey> getMembersFromStorage(StorageReader storage) throws IOException {
+        return storage.find(getScriptHash(), MEMBERS_MAP_PREFIX).stream()
+                .map(e -> new ECPublicKey(e.value)).collect(Collectors.toList());
+    }
 }
@@ -1,49 +1,90 @@
 package com.axlabs.neo.grantshares.util;
 
+import com.axlabs.neo.grantshares.client.GrantSharesTreasuryClient;
 import io.neow3j.contract.SmartContract;
 import io.neow3j.crypto.ECKeyPair.ECPublicKey;
 import io.neow3j.protocol.Neow3j;
 import io.neow3j.protocol.core.stackitem.StackItem;
 import io.neow3j.transaction.TransactionBuilder;
+import io.neow3j.types.ContractParameter;
 import io.neow3j.types.Hash160;
 import io.neow3j.wallet.Account;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static com.axlabs.neo.grantshares.GrantSharesTreasury.FUNDERS_PREFIX;
+import static com.axlabs.neo.grantshares.GrantSharesTreasury.WHITELISTED_TOKENS_PREFIX;
+import static com.axlabs.neo.grantshares.client.GrantSharesTreasuryClient.CALC_FUNDERS_MULTI_SIG_ADDRESS;
+import static com.axlabs.neo.grantshares.client.GrantSharesTreasuryClient.CALC_FUNDERS_MULTI_SIG_ADDRESS_THRESHOLD;
+import static com.axlabs.neo.grantshares.client.GrantSharesTreasuryClient.DRAIN_BATCH;
+import static com.axlabs.neo.grantshares.client.GrantSharesTreasuryClient.GET_FUNDERS;
+import static com.axlabs.neo.grantshares.client.GrantSharesTreasuryClient.GET_FUNDERS_ITERATOR;
+import static com.axlabs.neo.grantshares.client.GrantSharesTreasuryClient.GET_FUNDERS_MULTI_SIG_THRESHOLD_RATIO;
+import static com.axlabs.neo.grantshares.client.GrantSharesTreasuryClient.GET_TREASURY_BALANCES;
+import static com.axlabs.neo.grantshares.client.GrantSharesTreasuryClient.GET_WHITELISTED_TOKENS;
+import static com.axlabs.neo.grantshares.client.GrantSharesTreasuryClient.GET_WHITELISTED_TOKENS_ITERATOR;
+import static com.axlabs.neo.grantshares.client.GrantSharesTreasuryClient.IS_PAUSED;
+import static com.axlabs.neo.grantshares.client.GrantSharesTreasuryClient.SET_FUNDERS_MULTI_SIG_THRESHOLD_RATIO;
 import static io.neow3j.types.ContractParameter.any;
 import static io.neow3j.types.ContractParameter.array;
-import static io.neow3j.types.ContractParameter.byteArray;
 import static io.neow3j.types.ContractParameter.hash160;
 import static io.neow3j.types.ContractParameter.integer;
-import static io.neow3j.types.ContractParameter.string;
 import static java.util.Arrays.asList;
 
+// Decodes the return values of GrantSharesTreasury. Transactions are built by the generated client.
 public class GrantSharesTreasuryContract extends SmartContract {
 
+    private final GrantSharesTreasuryClient client;
+
     public GrantSharesTreasuryContract(Hash160 scriptHash, Neow3j neow3j) {
         super(scriptHash, neow3j);
+        client = new GrantSharesTreasuryClient(scriptHash, neow3j);
     }
 
     public boolean isPaused() throws IOException {
-        return callInvokeFunction(getMethodName()).getInvocationResult().getStack().get(0).getBoolean();
+        return callInvokeFunction(IS_PAUSED).getInvocationResult().getStack().get(0).getBoolean();
     }
 
     public Map<Hash160, BigInteger> getWhitelistedTokens() throws IOException {
-        Map<StackItem, StackItem> map = callInvokeFunction(getMethodName())
-                .getInvocationResult().getStack().get(0).getMap();
-        return map.entrySet().stream().collect(Collectors.toMap(
+        return toTokenAmounts(callInvokeFunction(GET_WHITELISTED_TOKENS).getInvocationResult().getStack().get(0));
+    }
+
+    public MultiCall.Result<Map<Hash160, BigInteger>> getWhitelistedTokens(MultiCall calls) {
+        return calls.add(getScriptHash(), GET_WHITELISTED_TOKENS, GrantSharesTreasuryContract::toTokenAmounts);
+    }
+
+    public Map<Hash160, BigInteger> getTreasuryBalances() throws IOException {
+        return toTokenAmounts(callInvokeFunction(GET_TREASURY_BALANCES).getInvocationResult().getStack().get(0));
+    }
+
+    public MultiCall.Result<Map<Hash160, BigInteger>> getTreasuryBalances(MultiCall calls) {
+        return calls.add(getScriptHash(), GET_TREASURY_BALANCES, GrantSharesTreasuryContract::toTokenAmounts);
+    }
+
+    public MultiCall.Result<Boolean> isPaused(MultiCall calls) {
+        return calls.add(getScriptHash(), IS_PAUSED, StackItem::getBoolean);
+    }
+
+    private static Map<Hash160, BigInteger> toTokenAmounts(StackItem item) {
+        return item.getMap().entrySet().stream().collect(Collectors.toMap(
                 e -> Hash160.fromAddress(e.getKey().getAddress()),
                 e -> e.getValue().getInteger())
         );
     }
 
+    public TransactionBuilder reconcileBalances(int start, int maxTokens) {
+        return client.reconcileBalances(BigInteger.valueOf(start), BigInteger.valueOf(maxTokens));
+    }
+
     public Map<Hash160, List<ECPublicKey>> getFunders() throws IOException {
-        Map<StackItem, StackItem> stackItem = callInvokeFunction(getMethodName())
+        Map<StackItem, StackItem> stackItem = callInvokeFunction(GET_FUNDERS)
                 .getInvocationResult().getStack().get(0).getMap();
         Map<Hash160, List<ECPublicKey>> map = new HashMap<>();
         stackItem.entrySet().forEach(e -> {
@@ -55,6 +96,34 @@ public class GrantSharesTreasuryContract extends SmartContract {
         return map;
     }
 
+    public SessionIterator<Map.Entry<Hash160, BigInteger>> getWhitelistedTokensIterator(int pageSize) throws IOException {
+        return new SessionIterator<>(neow3j, callInvokeFunction(GET_WHITELISTED_TOKENS_ITERATOR).getInvocationResult(),
+                pageSize, i -> new SimpleEntry<>(Hash160.fromAddress(i.getList().get(0).getAddress()),
+                        i.getList().get(1).getInteger()));
+    }
+
+    public SessionIterator<Map.Entry<Hash160, List<ECPublicKey>>> getFundersIterator(int pageSize) throws IOException {
+        return new SessionIterator<>(neow3j, callInvokeFunction(GET_FUNDERS_ITERATOR).getInvocationResult(), pageSize,
+                i -> new SimpleEntry<>(Hash160.fromAddress(i.getList().get(0).getAddress()),
+                        i.getList().get(1).getList().stream()
+                                .map(k -> new ECPublicKey(k.getByteArray())).collect(Collectors.toList())));
+    }
+
+    public Map<Hash160, List<ECPublicKey>> getFundersFromStorage(StorageReader storage) throws IOException {
+        Map<Hash160, List<ECPublicKey>> map = new HashMap<>();
+        for (StorageReader.Entry e : storage.find(getScriptHash(), FUNDERS_PREFIX)) {
+            map.put(StorageReader.toHash160(e.key), StorageReader.deserialize(e.value).getList().stream()
+                    .map(k -> new ECPublicKey(k.getByteArray())).collect(Collectors.toList()));
+        }
+        return map;
+    }
+
+    public Map<Hash160, BigInteger> getWhitelistedTokensFromStorage(StorageReader storage) throws IOException {
+        return storage.find(getScriptHash(), WHITELISTED_TOKENS_PREFIX).stream().collect(Collectors.toMap(
+                e -> StorageReader.toHash160(e.key),
+                e -> StorageReader.toInteger(e.value)));
+    }
+
     public List<ECPublicKey> getFunderPublicKeys() throws IOException {
         return getFunders().values().stream().reduce((a, b) -> {
             a.addAll(b);
@@ -64,12 +133,13 @@ public class GrantSharesTreasuryContract extends SmartContract {
 
     public Hash160 calcFundersMultiSigAddress() throws IOException {
         return Hash160.fromAddress(
-                callInvokeFunction(getMethodName()).getInvocationResult().getStack().get(0).getAddress()
+                callInvokeFunction(CALC_FUNDERS_MULTI_SIG_ADDRESS).getInvocationResult().getStack().get(0).getAddress()
         );
     }
 
     public int calcFundersMultiSigAddressThreshold() throws IOException {
-        return callInvokeFunction(getMethodName()).getInvocationResult().getStack().get(0).getInteger().intValue();
+        return callInvokeFunction(CALC_FUNDERS_MULTI_SIG_ADDRESS_THRESHOLD).getInvocationResult().getStack().get(0)
+                .getInteger().intValue();
     }
 
     public Account getFundersMultiSigAccount() throws IOException {
@@ -78,48 +148,74 @@ public class GrantSharesTreasuryContract extends SmartContract {
         return Account.createMultiSigAccount(funders, threshold);
     }
 
+    public TransactionBuilder syncPausedState() {
+        return client.syncPausedState();
+    }
+
+    public TransactionBuilder setPaused(boolean isPaused) {
+        return client.setPaused(isPaused);
+    }
+
     public TransactionBuilder drain() {
-        return invokeFunction(getMethodName());
+        return client.drain();
     }
 
-    private String getMethodName() {
-        return new Exception().getStackTrace()[1].getMethodName();
+    public TransactionBuilder drainBatch(Hash160 startToken, int maxTokens) {
+        if (startToken == null) {
+            // The client encodes the start token as a Hash160, which can't be null.
+            return invokeFunction(DRAIN_BATCH, any(null), integer(maxTokens));
+        }
+        return client.drainBatch(startToken, BigInteger.valueOf(maxTokens));
     }
 
     public TransactionBuilder addFunder(Hash160 accountHash, ECPublicKey... publicKeys) {
-        return invokeFunction(getMethodName(), hash160(accountHash), array(asList(publicKeys)));
+        return client.addFunder(accountHash, array(asList(publicKeys)));
     }
 
     public int setFundersMultiSigThresholdRatio() throws IOException {
-        return callFuncReturningInt(getMethodName()).intValue();
+        return callFuncReturningInt(SET_FUNDERS_MULTI_SIG_THRESHOLD_RATIO).intValue();
     }
 
     public int getFundersMultiSigThresholdRatio() throws IOException {
-        return callFuncReturningInt(getMethodName()).intValue();
+        return callFuncReturningInt(GET_FUNDERS_MULTI_SIG_THRESHOLD_RATIO).intValue();
     }
 
     public TransactionBuilder removeFunder(Hash160 funderHash) {
-        return invokeFunction(getMethodName(), hash160(funderHash));
+        return client.removeFunder(funderHash);
     }
 
     public TransactionBuilder addWhitelistedToken(Hash160 tokenHash, int maxFundingAmount) {
-        return invokeFunction(getMethodName(), hash160(tokenHash), integer(maxFundingAmount));
+        return client.addWhitelistedToken(tokenHash, BigInteger.valueOf(maxFundingAmount));
     }
 
     public TransactionBuilder removeWhitelistedToken(Hash160 tokenHash) {
-        return invokeFunction(getMethodName(), hash160(tokenHash));
+        return client.removeWhitelistedToken(tokenHash);
     }
 
     public TransactionBuilder releaseTokens(Hash160 tokenHash, Hash160 receiverHash, BigInteger amount) {
-        return invokeFunction(getMethodName(), hash160(tokenHash), hash160(receiverHash), integer(amount));
+        return client.releaseTokens(tokenHash, receiverHash, amount);
+    }
+
+    public TransactionBuilder releaseTokensBatch(Hash160 tokenHash, Hash160[] receiverHashes, BigInteger[] amounts) {
+        return client.releaseTokensBatch(tokenHash,
+                array(Arrays.stream(receiverHashes).map(ContractParameter::hash160).toArray()),
+                array(Arrays.stream(amounts).map(ContractParameter::integer).toArray()));
+    }
+
+    public TransactionBuilder claim(int scheduleId) {
+        return client.claim(BigInteger.valueOf(scheduleId));
+    }
+
+    public int getVestingScheduleClaimedTranches(int scheduleId) throws IOException {
+        return callInvokeFunction("getVestingSchedule", asList(integer(scheduleId))).getInvocationResult()
+                .getStack().get(0).getList().get(4).getInteger().intValue();
     }
 
     public TransactionBuilder voteCommitteeMemberWithLeastVotes() {
-        return invokeFunction(getMethodName());
+        return client.voteCommitteeMemberWithLeastVotes();
     }
 
     public TransactionBuilder updateContract(byte[] nef, String manifest, Object data) {
-        return invokeFunction(getMethodName(), byteArray(nef), string(manifest), any(data));
+        return client.updateContract(nef, manifest, any(data));
     }
-
 }
@@ -27,11 +27,48 @@ public class IntentParam extends ContractParameter {
                 hash160(token), hash160(receiver), integer(amount));
     }
 
+    public static IntentParam releaseTokensBatchProposal(Hash160 treasury, Hash160 token, Hash160[] receivers,
+            BigInteger[] amounts) {
+        ContractParameter[] receiverParams = new ContractParameter[receivers.length];
+        ContractParameter[] amountParams = new ContractParameter[amounts.length];
+        for (int i = 0; i < receivers.length; i++) {
+            receiverParams[i] = hash160(receivers[i]);
+        }
+        for (int i = 0; i < amounts.length; i++) {
+            amountParams[i] = integer(amounts[i]);
+        }
+        return new IntentParam(treasury, "releaseTokensBatch",
+                hash160(token), array(asList(receiverParams)), array(asList(amountParams)));
+    }
+
+    public static IntentParam createVestingScheduleProposal(Hash160 treasury, Hash160 token, Hash160 beneficiary,
+            BigInteger[] amounts, long[] unlockTimes) {
+        ContractParameter[] amountParams = new ContractParameter[amounts.length];
+        ContractParameter[] timeParams = new ContractParameter[unlockTimes.length];
+        for (int i = 0; i < amounts.length; i++) {
+            amountParams[i] = integer(amounts[i]);
+        }
+        for (int i = 0; i < unlockTimes.length; i++) {
+            timeParams[i] = integer(BigInteger.valueOf(unlockTimes[i]));
+        }
+        return new IntentParam(treasury, "createVestingSchedule", hash160(token), hash160(beneficiary),
+                array(asList(amountParams)), array(asList(timeParams)));
+    }
+
     public static IntentParam changeParamProposal(Hash160 gov, String paramName, int value) {
         return new IntentParam(gov, "changeParam",
                 string(paramName), integer(value));
     }
 
+    public static IntentParam changeParamProposal(Hash160 gov, String paramName, BigInteger value) {
+        return new IntentParam(gov, "changeParam",
+                string(paramName), integer(value));
+    }
+
+    public static IntentParam setTreasuryProposal(Hash160 gov, Hash160 treasury) {
+        return new IntentParam(gov, "setTreasury", hash160(treasury));
+    }
+
     public static IntentParam addMemberProposal(Hash160 gov, ECPublicKey pubKey) {
         return new IntentParam(gov, "addMember", publicKey(pubKey));
     }
@@ -51,6 +88,22 @@ public class IntentParam extends ContractParameter {
         return new IntentParam(contract, "updateContract", byteArray(nef.toArray()), string(manifestString), data);
     }
 
+    public static IntentParam callWithBlobsProposal(Hash160 gov, Hash160 targetContract, String method,
+            ContractParameter[] params, int... blobParams) {
+        ContractParameter[] indices = new ContractParameter[blobParams.length];
+        for (int i = 0; i < blobParams.length; i++) {
+            indices[i] = integer(blobParams[i]);
+        }
+        return new IntentParam(gov, "callWithBlobs", hash160(targetContract), string(method), array(asList(params)),
+                array(asList(indices)));
+    }
+
+    public static IntentParam updateContractWithBlobsProposal(Hash160 gov, Hash160 contract, byte[] nefHash,
+            byte[] manifestHash, ContractParameter data) {
+        return callWithBlobsProposal(gov, contract, "updateContract",
+                new ContractParameter[]{byteArray(nefHash), byteArray(manifestHash), data}, 0, 1);
+    }
+
     public static IntentParam addFunderProposal(Hash160 treasury, Hash160 accountHash, ECPublicKey... pubKeys) {
         return new IntentParam(treasury, "addFunder", hash160(accountHash), array(asList(pubKeys)));
     }
@@ -0,0 +1,104 @@
+package com.axlabs.neo.grantshares.util;
+
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.core.response.InvocationResult;
+import io.neow3j.protocol.core.stackitem.StackItem;
+import io.neow3j.script.ScriptBuilder;
+import io.neow3j.types.CallFlags;
+import io.neow3j.types.ContractParameter;
+import io.neow3j.types.Hash160;
+import io.neow3j.types.NeoVMStateType;
+import io.neow3j.utils.Numeric;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Combines several read-only contract calls into one script that is executed with a single {@code invokescript} RPC
+ * call. Each added call returns a {@link Result} that holds the decoded return value once the calls were executed.
+ * <pre>
+ * MultiCall calls = new MultiCall(neow3j);
+ * MultiCall.Result&lt;ProposalStruct&gt; proposal = gov.getProposal(calls, 0);
+ * MultiCall.Result&lt;Integer&gt; count = gov.getMembersCount(calls);
+ * calls.execute();
+ * proposal.get();
+ * </pre>
+ * The calls share the GAS limit of the RPC node's test invocations. If one of the calls fails, the whole invocation
+ * fails.
+ */
+public class MultiCall {
+
+    private final Neow3j neow3j;
+    private final ScriptBuilder builder = new ScriptBuilder();
+    private final List<Result<?>> results = new ArrayList<>();
+    private boolean executed = false;
+
+    public MultiCall(Neow3j neow3j) {
+        this.neow3j = neow3j;
+    }
+
+    public <T> Result<T> add(Hash160 contract, String method, Function<StackItem, T> decoder,
+            ContractParameter... params) {
+        if (executed) {
+            throw new IllegalStateException("The calls were already executed.");
+        }
+        builder.contractCall(contract, method, asList(params), CallFlags.READ_ONLY);
+        Result<T> result = new Result<>(decoder);
+        results.add(result);
+        return result;
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    /**
+     * Executes all added calls in one invocation and decodes their return values.
+     *
+     * @return the invocation result.
+     * @throws IOException if the RPC call fails.
+     */
+    public InvocationResult execute() throws IOException {
+        if (executed) {
+            throw new IllegalStateException("The calls were already executed.");
+        }
+        InvocationResult res = neow3j.invokeScript(Numeric.toHexStringNoPrefix(builder.toArray())).send()
+                .getInvocationResult();
+        if (res.getState() != NeoVMStateType.HALT) {
+            throw new IllegalStateException("The invocation failed: " + res.getException());
+        }
+        List<StackItem> stack = res.getStack();
+        for (int i = 0; i < results.size(); i++) {
+            results.get(i).decode(stack.get(i));
+        }
+        executed = true;
+        return res;
+    }
+
+    public static class Result<T> {
+
+        private final Function<StackItem, T> decoder;
+        private T value;
+        private boolean decoded = false;
+
+        private Result(Function<StackItem, T> decoder) {
+            this.decoder = decoder;
+        }
+
+        private void decode(StackItem item) {
+            value = decoder.apply(item);
+            decoded = true;
+        }
+
+        public T get() {
+            if (!decoded) {
+                throw new IllegalStateException("The calls were not executed yet.");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.axlabs.neo.grantshares.util;
+
+import io.neow3j.protocol.core.stackitem.StackItem;
+import io.neow3j.types.Hash160;
+
+import java.util.List;
+
+public class ProposalDataStruct {
+
+    public int id;
+    public Hash160 proposer;
+    public int linkedProposal;
+    public int acceptanceRate;
+    public int quorum;
+
+    // Reads an entry of the proposal data iterator, i.e., the id and the deserialized proposal data.
+    public ProposalDataStruct(List<StackItem> entry) {
+        this(entry.get(0).getInteger().intValue(), entry.get(1).getList());
+    }
+
+    private ProposalDataStruct(int id, List<StackItem> data) {
+        this(
+                id,
+                Hash160.fromAddress(data.get(0).getAddress()),
+                data.get(1).getInteger().intValue(),
+                data.get(2).getInteger().intValue(),
+                data.get(3).getInteger().intValue()
+        );
+    }
+
+    public ProposalDataStruct(int id, Hash160 proposer, int linkedProposal, int acceptanceRate, int quorum) {
+        this.id = id;
+        this.proposer = proposer;
+        this.linkedProposal = linkedProposal;
+        this.acceptanceRate = acceptanceRate;
+        this.quorum = quorum;
+    }
+}
@@ -0,0 +1,28 @@
+package com.axlabs.neo.grantshares.util;
+
+import io.neow3j.protocol.core.stackitem.StackItem;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ProposalSummaryPaginatedStruct {
+
+    public int page;
+    public int pages;
+    public List<ProposalSummaryStruct> items;
+
+    public ProposalSummaryPaginatedStruct(List<StackItem> list) {
+        this(
+                list.get(0).getInteger().intValue(),
+                list.get(1).getInteger().intValue(),
+                list.get(2).getList().stream().map(i -> new ProposalSummaryStruct(i.getList()))
+                        .collect(Collectors.toList())
+        );
+    }
+
+    public ProposalSummaryPaginatedStruct(int page, int pages, List<ProposalSummaryStruct> items) {
+        this.page = page;
+        this.pages = pages;
+        this.items = items;
+    }
+}
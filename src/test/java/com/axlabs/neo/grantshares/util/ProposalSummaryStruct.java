@@ -0,0 +1,54 @@
+package com.axlabs.neo.grantshares.util;
+
+import io.neow3j.protocol.core.stackitem.StackItem;
+import io.neow3j.types.Hash160;
+
+import java.math.BigInteger;
+import java.util.List;
+
+public class ProposalSummaryStruct {
+
+    public int id;
+    public Hash160 proposer;
+    public Hash160 endorser;
+    public BigInteger reviewEnd;
+    public BigInteger votingEnd;
+    public BigInteger timelockEnd;
+    public BigInteger expiration;
+    public boolean executed;
+    public int approve;
+    public int reject;
+    public int abstain;
+
+    public ProposalSummaryStruct(List<StackItem> list) {
+        this(
+                list.get(0).getInteger().intValue(),
+                Hash160.fromAddress(list.get(1).getAddress()),
+                list.get(2).getValue() == null ? null : Hash160.fromAddress(list.get(2).getAddress()),
+                list.get(3).getInteger(),
+                list.get(4).getInteger(),
+                list.get(5).getInteger(),
+                list.get(6).getInteger(),
+                list.get(7).getBoolean(),
+                list.get(8).getInteger().intValue(),
+                list.get(9).getInteger().intValue(),
+                list.get(10).getInteger().intValue()
+        );
+    }
+
+    public ProposalSummaryStruct(int id, Hash160 proposer, Hash160 endorser, BigInteger reviewEnd,
+            BigInteger votingEnd, BigInteger timelockEnd, BigInteger expiration, boolean executed, int approve,
+            int reject, int abstain) {
+        this.id = id;
+        this.proposer = proposer;
+        this.endorser = endorser;
+        this.reviewEnd = reviewEnd;
+        this.votingEnd = votingEnd;
+        this.timelockEnd = timelockEnd;
+        this.expiration = expiration;
+        this.executed = executed;
+        this.approve = approve;
+        this.reject = reject;
+        this.abstain = abstain;
+    }
+}
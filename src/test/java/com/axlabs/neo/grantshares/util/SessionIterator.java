@@ -0,0 +1,82 @@
+package com.axlabs.neo.grantshares.util;
+
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.core.response.InvocationResult;
+import io.neow3j.protocol.core.stackitem.StackItem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Lazily traverses an iterator that was returned by a contract invocation. The items are fetched from the RPC node in
+ * pages of the given size when they are needed. The RPC session is terminated once all items were consumed or when
+ * the iterator is closed, whichever happens first. Use it in a try-with-resources statement so that the session is
+ * also terminated if the traversal stops early.
+ *
+ * @param <T> The type the stack items are mapped to.
+ */
+public class SessionIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final Neow3j neow3j;
+    private final String sessionId;
+    private final String iteratorId;
+    private final int pageSize;
+    private final Function<StackItem, T> mapper;
+    private List<StackItem> page = Collections.emptyList();
+    private int index = 0;
+    private boolean exhausted = false;
+
+    public SessionIterator(Neow3j neow3j, InvocationResult result, int pageSize, Function<StackItem, T> mapper) {
+        this.neow3j = neow3j;
+        this.sessionId = result.getSessionId();
+        this.iteratorId = result.getStack().get(0).getIteratorId();
+        this.pageSize = pageSize;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (index < page.size()) {
+            return true;
+        }
+        if (exhausted) {
+            return false;
+        }
+        try {
+            page = neow3j.traverseIterator(sessionId, iteratorId, pageSize).send().getTraverseIterator();
+            index = 0;
+            if (page.size() < pageSize) {
+                close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return !page.isEmpty();
+    }
+
+    /**
+     * Terminates the RPC session if it wasn't terminated yet. Items of the current page can still be consumed after
+     * closing, but no further pages are fetched.
+     */
+    @Override
+    public void close() throws IOException {
+        if (exhausted) {
+            return;
+        }
+        exhausted = true;
+        neow3j.terminateSession(sessionId).send();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return mapper.apply(page.get(index++));
+    }
+}
@@ -0,0 +1,222 @@
+package com.axlabs.neo.grantshares.util;
+
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.core.response.NeoFindStates;
+import io.neow3j.protocol.core.stackitem.AnyStackItem;
+import io.neow3j.protocol.core.stackitem.ArrayStackItem;
+import io.neow3j.protocol.core.stackitem.BooleanStackItem;
+import io.neow3j.protocol.core.stackitem.BufferStackItem;
+import io.neow3j.protocol.core.stackitem.ByteStringStackItem;
+import io.neow3j.protocol.core.stackitem.IntegerStackItem;
+import io.neow3j.protocol.core.stackitem.MapStackItem;
+import io.neow3j.protocol.core.stackitem.StackItem;
+import io.neow3j.protocol.core.stackitem.StructStackItem;
+import io.neow3j.types.Hash160;
+import io.neow3j.types.Hash256;
+import io.neow3j.utils.ArrayUtils;
+import io.neow3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads contract storage directly with the {@code findstates} RPC method instead of invoking the contract's getters.
+ * All reads of one reader are made against the same state root, so that values read with several calls are
+ * consistent with each other. The RPC node needs the StateService plugin.
+ * <p>
+ * Values stored with {@code StdLib.serialize} can be decoded into stack items with {@link #deserialize(byte[])}.
+ */
+public class StorageReader {
+
+    // Type bytes of the binary serialization of stack items.
+    private static final int ANY = 0x00;
+    private static final int BOOLEAN = 0x20;
+    private static final int INTEGER = 0x21;
+    private static final int BYTE_STRING = 0x28;
+    private static final int BUFFER = 0x30;
+    private static final int ARRAY = 0x40;
+    private static final int STRUCT = 0x41;
+    private static final int MAP = 0x48;
+
+    private final Neow3j neow3j;
+    private final Hash256 rootHash;
+
+    public StorageReader(Neow3j neow3j, Hash256 rootHash) {
+        this.neow3j = neow3j;
+        this.rootHash = rootHash;
+    }
+
+    /**
+     * Creates a reader on the latest state root of the RPC node.
+     *
+     * @param neow3j The neow3j instance.
+     * @return the reader.
+     * @throws IOException if the RPC calls fail.
+     */
+    public static StorageReader atLatestStateRoot(Neow3j neow3j) throws IOException {
+        long height = neow3j.getStateHeight().send().getStateHeight().getLocalRootIndex();
+        return new StorageReader(neow3j, neow3j.getStateRoot(height).send().getStateRoot().getRootHash());
+    }
+
+    /**
+     * Creates a reader on the state root of the given block, i.e., on the contract storage after the block was
+     * persisted.
+     *
+     * @param neow3j     The neow3j instance.
+     * @param blockIndex The block index.
+     * @return the reader.
+     * @throws IOException if the RPC call fails.
+     */
+    public static StorageReader atBlock(Neow3j neow3j, long blockIndex) throws IOException {
+        return new StorageReader(neow3j, neow3j.getStateRoot(blockIndex).send().getStateRoot().getRootHash());
+    }
+
+    public Hash256 getRootHash() {
+        return rootHash;
+    }
+
+    /**
+     * Gets all storage entries of the contract whose keys start with the prefix. The entries are fetched in pages of
+     * the node's maximum page size.
+     *
+     * @param contract The contract.
+     * @param prefix   The key prefix.
+     * @return the entries in the order of their keys. The prefix is removed from the keys.
+     * @throws IOException if an RPC call fails, e.g., because the contract didn't exist at the state root.
+     */
+    public List<Entry> find(Hash160 contract, byte[] prefix) throws IOException {
+        String prefixHex = Numeric.toHexStringNoPrefix(prefix);
+        List<Entry> entries = new ArrayList<>();
+        String startKeyHex = null;
+        NeoFindStates.States page;
+        do {
+            NeoFindStates response = startKeyHex == null
+                    ? neow3j.findStates(rootHash, contract, prefixHex).send()
+                    : neow3j.findStates(rootHash, contract, prefixHex, startKeyHex).send();
+            if (response.hasError()) {
+                throw new IOException(response.getError().getMessage());
+            }
+            page = response.getStates();
+            for (NeoFindStates.States.Result r : page.getResults()) {
+                byte[] key = Base64.getDecoder().decode(r.getKey());
+                entries.add(new Entry(Arrays.copyOfRange(key, prefix.length, key.length),
+                        Base64.getDecoder().decode(r.getValue())));
+                startKeyHex = Numeric.toHexStringNoPrefix(key);
+            }
+        } while (page.isTruncated());
+        return entries;
+    }
+
+    public List<Entry> find(Hash160 contract, int prefix) throws IOException {
+        return find(contract, new byte[]{(byte) prefix});
+    }
+
+    public List<Entry> find(Hash160 contract, String prefix) throws IOException {
+        return find(contract, prefix.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a value that was serialized with {@code StdLib.serialize}.
+     *
+     * @param bytes The serialized value.
+     * @return the value as a stack item.
+     */
+    public static StackItem deserialize(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        StackItem item = deserialize(buffer);
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Unexpected bytes after the serialized value.");
+        }
+        return item;
+    }
+
+    private static StackItem deserialize(ByteBuffer buffer) {
+        int type = buffer.get() & 0xff;
+        switch (type) {
+            case ANY:
+                return new AnyStackItem(null);
+            case BOOLEAN:
+                return new BooleanStackItem(buffer.get() != 0);
+            case INTEGER:
+                return new IntegerStackItem(toInteger(readVarBytes(buffer)));
+            case BYTE_STRING:
+                return new ByteStringStackItem(readVarBytes(buffer));
+            case BUFFER:
+                return new BufferStackItem(readVarBytes(buffer));
+            case ARRAY:
+            case STRUCT:
+                int count = (int) readVarInt(buffer);
+                List<StackItem> items = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    items.add(deserialize(buffer));
+                }
+                return type == ARRAY ? new ArrayStackItem(items) : new StructStackItem(items);
+            case MAP:
+                int size = (int) readVarInt(buffer);
+                Map<StackItem, StackItem> map = new HashMap<>();
+                for (int i = 0; i < size; i++) {
+                    StackItem key = deserialize(buffer);
+                    map.put(key, deserialize(buffer));
+                }
+                return new MapStackItem(map);
+            default:
+                throw new IllegalArgumentException("Unknown stack item type 0x" + Integer.toHexString(type) + ".");
+        }
+    }
+
+    private static long readVarInt(ByteBuffer buffer) {
+        int first = buffer.get() & 0xff;
+        if (first < 0xfd) {
+            return first;
+        } else if (first == 0xfd) {
+            return buffer.getShort() & 0xffff;
+        } else if (first == 0xfe) {
+            return buffer.getInt() & 0xffffffffL;
+        }
+        return buffer.getLong();
+    }
+
+    private static byte[] readVarBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[(int) readVarInt(buffer)];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Converts the little-endian two's complement representation used by the NeoVM to an integer. An empty array is
+     * zero.
+     */
+    public static BigInteger toInteger(byte[] bytes) {
+        if (bytes.length == 0) {
+            return BigInteger.ZERO;
+        }
+        return new BigInteger(ArrayUtils.reverseArray(bytes));
+    }
+
+    /**
+     * Converts the little-endian bytes of a script hash as stored by a contract.
+     */
+    public static Hash160 toHash160(byte[] bytes) {
+        return new Hash160(ArrayUtils.reverseArray(bytes));
+    }
+
+    public static class Entry {
+
+        public final byte[] key;
+        public final byte[] value;
+
+        public Entry(byte[] key, byte[] value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
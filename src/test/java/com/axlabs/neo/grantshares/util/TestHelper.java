@@ -5,6 +5,7 @@ import io.neow3j.contract.SmartContract;
 import io.neow3j.crypto.ECKeyPair;
 import io.neow3j.protocol.Neow3j;
 import io.neow3j.protocol.core.response.NeoApplicationLog;
+import io.neow3j.test.ContractTestExtension;
 import io.neow3j.transaction.AccountSigner;
 import io.neow3j.transaction.TransactionBuilder;
 import io.neow3j.types.CallFlags;
@@ -12,12 +13,12 @@ import io.neow3j.types.ContractParameter;
 import io.neow3j.types.Hash160;
 import io.neow3j.types.Hash256;
 import io.neow3j.types.NeoVMStateType;
-import io.neow3j.utils.Await;
 import io.neow3j.wallet.Account;
 
 import java.io.IOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -46,6 +47,8 @@ public class TestHelper {
     public static final String CREATE = "createProposal";
     public static final String GET_PROPOSAL = "getProposal";
     public static final String GET_PROPOSALS = "getProposals";
+    public static final String GET_PROPOSAL_SUMMARIES = "getProposalSummaries";
+    public static final String GET_PROPOSALS_BY_PROPOSER = "getProposalsByProposer";
     public static final String GET_PARAMETER = "getParameter";
     public static final String GET_MEMBERS = "getMembers";
     public static final String GET_MEMBERS_COUNT = "getMembersCount";
@@ -61,6 +64,10 @@ public class TestHelper {
     public static final String ADD_MEMBER = "addMember";
     public static final String REMOVE_MEMBER = "removeMember";
     public static final String UPDATE_CONTRACT = "updateContract";
+    public static final String STAGE_BLOB_CHUNK = "stageBlobChunk";
+    public static final String CALL_WITH_BLOBS = "callWithBlobs";
+    public static final String SET_TREASURY = "setTreasury";
+    public static final String GET_TREASURY = "getTreasury";
 
     // events
     public static final String PROPOSAL_CREATED = "ProposalCreated";
@@ -70,6 +77,7 @@ public class TestHelper {
     public static final String MEMBER_ADDED = "MemberAdded";
     public static final String MEMBER_REMOVED = "MemberRemoved";
     public static final String PARAMETER_CHANGED = "ParameterChanged";
+    public static final String BLOB_STAGED = "BlobStaged";
 
     // governance parameters values
     public static final int PHASE_LENGTH = 60; // seconds
@@ -152,7 +160,7 @@ public class TestHelper {
             Account endorser, TransactionBuilder b) throws Throwable {
         Hash256 tx = b.signers(AccountSigner.calledByEntry(proposer))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
         int id = neow3j.getApplicationLog(tx).send().getApplicationLog()
                 .getExecutions().get(0).getStack().get(0).getInteger().intValue();
 
@@ -160,7 +168,7 @@ public class TestHelper {
         tx = gov.invokeFunction(ENDORSE, integer(id), hash160(endorser))
                 .signers(AccountSigner.calledByEntry(endorser))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
 
         return id;
     }
@@ -170,7 +178,7 @@ public class TestHelper {
         Hash256 tx = gov.invokeFunction(VOTE, integer(id), integer(1), hash160(endorserAndVoter))
                 .signers(AccountSigner.calledByEntry(endorserAndVoter))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
     }
 
     public static void voteForProposal(GrantSharesGovContract gov, Neow3j neow3j, int id, int vote,
@@ -179,7 +187,40 @@ public class TestHelper {
                         hash160(endorserAndVoter))
                 .signers(AccountSigner.calledByEntry(endorserAndVoter))
                 .sign().send().getSendRawTransaction().getHash();
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+    }
+
+    // Creates, endorses, accepts and executes a proposal. Assumes that the vote of the given member is enough for the
+    // proposal to be accepted.
+    public static Hash256 createAndExecuteProposal(GrantSharesGovContract gov, Neow3j neow3j,
+            ContractTestExtension ext, Account member, ContractParameter intents, String offchainUri)
+            throws Throwable {
+        int id = createAndEndorseProposal(gov, neow3j, member, member, intents, offchainUri);
+        ext.fastForwardOneBlock(PHASE_LENGTH);
+        voteForProposal(gov, neow3j, id, member);
+        ext.fastForwardOneBlock(PHASE_LENGTH + PHASE_LENGTH);
+        Hash256 tx = gov.execute(id).signers(AccountSigner.calledByEntry(member))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        return tx;
+    }
+
+    // Returns the SHA-256 hash under which the blob is staged.
+    public static byte[] stageBlob(GrantSharesGovContract gov, Neow3j neow3j, Account uploader, byte[] blob,
+            int chunkSize) throws Throwable {
+        byte[] hash = hasher.digest(blob);
+        for (int i = 0; i < blob.length; i += chunkSize) {
+            byte[] chunk = Arrays.copyOfRange(blob, i, Math.min(i + chunkSize, blob.length));
+            Hash256 tx = gov.stageBlobChunk(uploader.getScriptHash(), hash, chunk)
+                    .signers(AccountSigner.calledByEntry(uploader))
+                    .sign().send().getSendRawTransaction().getHash();
+            TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        }
+        Hash256 tx = gov.finalizeBlob(uploader.getScriptHash(), hash)
+                .signers(AccountSigner.calledByEntry(uploader))
+                .sign().send().getSendRawTransaction().getHash();
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
+        return hash;
     }
 
     public static Account createMultiSigAccount(int threshold, Account... accounts) {
@@ -190,10 +231,55 @@ public class TestHelper {
     }
 
     public static void assertAborted(Hash256 tx, String expectedError, Neow3j neow3j) throws IOException {
-        Await.waitUntilTransactionIsExecuted(tx, neow3j);
+        TransactionAwaiter.of(neow3j).waitUntilExecuted(tx);
         NeoApplicationLog.Execution e = neow3j.getApplicationLog(tx).send().getApplicationLog().getExecutions().get(0);
         assertThat(e.getState(), is(NeoVMStateType.FAULT));
         String exception = e.getNotifications().get(0).getState().getList().get(0).getString();
         assertThat(exception, containsString(expectedError));
     }
+
+    // Reads all proposals with GrantSharesGovContract.getProposalsFromStorage and asserts that they are the same as
+    // the ones returned by GrantSharesGov.getProposals. Proposals that are not migrated yet are compared as well.
+    public static List<ProposalStruct> assertProposalsFromStorage(GrantSharesGovContract gov, StorageReader storage)
+            throws Exception {
+        List<ProposalStruct> fromStorage = gov.getProposalsFromStorage(storage);
+        List<ProposalStruct> expected = new ArrayList<>();
+        ProposalPaginatedStruct page;
+        int i = 0;
+        do {
+            page = gov.getProposals(i++, 10);
+            expected.addAll(page.items);
+        } while (i < page.pages);
+        assertThat(fromStorage.size(), is(expected.size()));
+        for (int j = 0; j < expected.size(); j++) {
+            assertSameProposal(fromStorage.get(j), expected.get(j));
+        }
+        return fromStorage;
+    }
+
+    public static void assertSameProposal(ProposalStruct p, ProposalStruct expected) {
+        assertThat(p.id, is(expected.id));
+        assertThat(p.proposer, is(expected.proposer));
+        assertThat(p.linkedProposal, is(expected.linkedProposal));
+        assertThat(p.acceptanceRate, is(expected.acceptanceRate));
+        assertThat(p.quorum, is(expected.quorum));
+        assertThat(p.endorser, is(expected.endorser));
+        assertThat(p.reviewEnd, is(expected.reviewEnd));
+        assertThat(p.votingEnd, is(expected.votingEnd));
+        assertThat(p.timelockEnd, is(expected.timelockEnd));
+        assertThat(p.expiration, is(expected.expiration));
+        assertThat(p.executed, is(expected.executed));
+        assertThat(p.offchainUri, is(expected.offchainUri));
+        assertThat(p.approve, is(expected.approve));
+        assertThat(p.reject, is(expected.reject));
+        assertThat(p.abstain, is(expected.abstain));
+        assertThat(p.voters, is(expected.voters));
+        assertThat(p.intents.size(), is(expected.intents.size()));
+        for (int i = 0; i < p.intents.size(); i++) {
+            assertThat(p.intents.get(i).targetContract, is(expected.intents.get(i).targetContract));
+            assertThat(p.intents.get(i).method, is(expected.intents.get(i).method));
+            assertThat(p.intents.get(i).params, is(expected.intents.get(i).params));
+            assertThat(p.intents.get(i).callFlags, is(expected.intents.get(i).callFlags));
+        }
+    }
 }
@@ -0,0 +1,246 @@
+package com.axlabs.neo.grantshares.util;
+
+import io.neow3j.protocol.Neow3j;
+import io.neow3j.protocol.core.response.NeoGetTransactionHeight;
+import io.neow3j.protocol.core.response.Transaction;
+import io.neow3j.types.Hash256;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Waits for many transactions with a single poller. Instead of polling the node for each transaction like
+ * {@code Await.waitUntilTransactionIsExecuted}, the awaiter polls the block height and reads each new block once.
+ * Every registered transaction hash gets a future that is completed with the index of the block that includes it.
+ * <pre>
+ * TransactionAwaiter awaiter = TransactionAwaiter.of(neow3j);
+ * awaiter.waitUntilExecuted(tx1, tx2, tx3);
+ * </pre>
+ * The poller thread only runs while there are pending transactions. When polling resumes, the last
+ * {@value LOOKBACK_BLOCKS} blocks are read as well, so that transactions that were included right before they were
+ * registered are found. Transactions that are still pending after {@value FALLBACK_DELAY_MS} ms are looked up with
+ * {@code getTransactionHeight}, in case they are in an older block.
+ */
+public class TransactionAwaiter implements AutoCloseable {
+
+    private static final long POLL_INTERVAL_MS = 200;
+    private static final long TIMEOUT_MS = 60_000;
+    private static final long FALLBACK_DELAY_MS = 5_000;
+    private static final int LOOKBACK_BLOCKS = 10;
+    private static final int RECENT_TRANSACTIONS = 10_000;
+
+    // The awaiters only hold a weak reference to their neow3j instance. Otherwise, the entries would never be removed.
+    private static final Map<Neow3j, TransactionAwaiter> awaiters = new WeakHashMap<>();
+
+    private final WeakReference<Neow3j> neow3j;
+    private final Map<Hash256, Pending> pending = new HashMap<>();
+    // The transactions of the last read blocks. Serves hashes that are registered after their block was read.
+    private final Map<Hash256, Long> recent = new LinkedHashMap<Hash256, Long>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Hash256, Long> eldest) {
+            return size() > RECENT_TRANSACTIONS;
+        }
+    };
+    private ScheduledExecutorService executor;
+    private boolean closed = false;
+    private long nextBlock = -1;
+    private boolean idle = true;
+    private volatile Exception lastError;
+
+    /**
+     * Gets the awaiter that is shared by all users of the given neow3j instance.
+     *
+     * @param neow3j The neow3j instance.
+     * @return the awaiter.
+     */
+    public static synchronized TransactionAwaiter of(Neow3j neow3j) {
+        return awaiters.computeIfAbsent(neow3j, TransactionAwaiter::new);
+    }
+
+    private TransactionAwaiter(Neow3j neow3j) {
+        this.neow3j = new WeakReference<>(neow3j);
+    }
+
+    /**
+     * Registers the transaction.
+     *
+     * @param tx The transaction hash.
+     * @return a future that is completed with the index of the block that includes the transaction.
+     * @throws IllegalStateException if the awaiter is closed.
+     */
+    public synchronized CompletableFuture<Long> register(Hash256 tx) {
+        if (closed) {
+            throw new IllegalStateException("The awaiter is closed.");
+        }
+        Pending p = pending.get(tx);
+        if (p != null) {
+            return p.future;
+        }
+        Long block = recent.get(tx);
+        if (block != null) {
+            return CompletableFuture.completedFuture(block);
+        }
+        p = new Pending(System.currentTimeMillis() + FALLBACK_DELAY_MS);
+        pending.put(tx, p);
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "transaction-awaiter");
+                t.setDaemon(true);
+                return t;
+            });
+            executor.scheduleWithFixedDelay(this::poll, POLL_INTERVAL_MS, POLL_INTERVAL_MS, MILLISECONDS);
+        }
+        return p.future;
+    }
+
+    /**
+     * Waits until all transactions are included in a block.
+     *
+     * @param txs The transaction hashes.
+     * @throws IllegalStateException if a transaction is not included within a minute or the awaiter is closed.
+     */
+    public void waitUntilExecuted(Hash256... txs) {
+        CompletableFuture<?>[] futures = Arrays.stream(txs).map(this::register).toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).get(TIMEOUT_MS, MILLISECONDS);
+        } catch (TimeoutException e) {
+            Exception error = lastError;
+            throw new IllegalStateException("Transactions were not executed within " + TIMEOUT_MS + " ms."
+                    + (error == null ? "" : " The last poll failed with: " + error), error);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Stops polling and fails the futures of all pending transactions. The next call to {@link #of(Neow3j)} creates a
+     * new awaiter.
+     */
+    @Override
+    public void close() {
+        synchronized (TransactionAwaiter.class) {
+            Neow3j n = neow3j.get();
+            if (n != null && awaiters.get(n) == this) {
+                awaiters.remove(n);
+            }
+        }
+        synchronized (this) {
+            closed = true;
+            stop(new CancellationException("The awaiter was closed."));
+        }
+    }
+
+    private void poll() {
+        Neow3j neow3j = this.neow3j.get();
+        synchronized (this) {
+            if (neow3j == null) {
+                stop(new CancellationException("The neow3j instance of the awaiter is gone."));
+                return;
+            }
+            if (pending.isEmpty()) {
+                stop(null);
+                return;
+            }
+        }
+        try {
+            long height = neow3j.getBlockCount().send().getBlockCount().longValue();
+            if (idle) {
+                nextBlock = Math.max(nextBlock, Math.max(0, height - LOOKBACK_BLOCKS));
+                idle = false;
+            }
+            while (nextBlock < height) {
+                List<Transaction> txs = neow3j.getBlock(BigInteger.valueOf(nextBlock), true).send().getBlock()
+                        .getTransactions();
+                synchronized (this) {
+                    if (txs != null) {
+                        for (Transaction tx : txs) {
+                            recent.put(tx.getHash(), nextBlock);
+                            Pending p = pending.remove(tx.getHash());
+                            if (p != null) {
+                                p.future.complete(nextBlock);
+                            }
+                        }
+                    }
+                }
+                nextBlock++;
+            }
+            lookUpOverdue(neow3j);
+            lastError = null;
+        } catch (IOException | RuntimeException e) {
+            // The failed block is read again with the next poll.
+            lastError = e;
+        }
+    }
+
+    // Looks up the block of transactions that are pending for a while. They might be in a block that was read before
+    // they were registered and that is not among the recent transactions anymore.
+    private void lookUpOverdue(Neow3j neow3j) throws IOException {
+        long now = System.currentTimeMillis();
+        List<Hash256> overdue = new ArrayList<>();
+        synchronized (this) {
+            pending.forEach((tx, p) -> {
+                if (p.lookUpAt <= now) {
+                    overdue.add(tx);
+                }
+            });
+        }
+        for (Hash256 tx : overdue) {
+            NeoGetTransactionHeight response = neow3j.getTransactionHeight(tx).send();
+            synchronized (this) {
+                Pending p = pending.get(tx);
+                if (p == null) {
+                    continue;
+                }
+                if (response.hasError() || response.getHeight() == null) {
+                    // Not executed yet.
+                    p.lookUpAt = now + FALLBACK_DELAY_MS;
+                } else {
+                    pending.remove(tx);
+                    p.future.complete(response.getHeight().longValue());
+                }
+            }
+        }
+    }
+
+    // Must be called while holding the lock. Fails all pending futures with the given cause if it is not null.
+    private void stop(Exception cause) {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        idle = true;
+        if (cause != null) {
+            pending.values().forEach(p -> p.future.completeExceptionally(cause));
+            pending.clear();
+        }
+    }
+
+    private static class Pending {
+
+        final CompletableFuture<Long> future = new CompletableFuture<>();
+        long lookUpAt;
+
+        Pending(long lookUpAt) {
+            this.lookUpAt = lookUpAt;
+        }
+    }
+}